@@ -0,0 +1,20 @@
+#!/bin/sh
+# Records JMH baseline with gc profiler into baseline/<name>.json and
+# describes JVM and machine in baseline/<name>.txt.
+# Usage: ./record-baseline.sh <name> [jmh options]
+set -e
+cd "$(dirname "$0")"
+name=${1:?name}
+shift
+jar=target/benchmarks.jar
+[ -f $jar ] || { echo "$jar missing, run mvn package" >&2; exit 1; }
+mkdir -p baseline
+{
+    java -version 2>&1
+    uname -a
+    grep -m1 "model name" /proc/cpuinfo 2>/dev/null || sysctl -n machdep.cpu.brand_string 2>/dev/null || true
+    echo "cpus: $(getconf _NPROCESSORS_ONLN)"
+    echo "lpg: $(cd .. && git describe --always --dirty)"
+    echo "options: -prof gc $*"
+} > baseline/$name.txt
+java -jar $jar -prof gc -rf json -rff baseline/$name.json "$@"
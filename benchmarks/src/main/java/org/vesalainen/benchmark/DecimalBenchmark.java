@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.benchmark;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vesalainen.lang.Primitives;
+import org.vesalainen.parser.util.InputReader;
+
+/**
+ * Converts comma separated decimal numbers to double. Compares 
+ * InputReader.parseDouble against Primitives over InputReader as 
+ * CharSequence and Double.parseDouble over String.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecimalBenchmark
+{
+    private static final String UNTIL_COMMA = "\u0000+-\uffff";
+    @Param({"STRING", "BYTES"})
+    public Source source;
+    @Param({"1000"})
+    public int count;
+    private Source.Data data;
+    
+    @Setup
+    public void setup() throws IOException
+    {
+        Random random = new Random(1);
+        StringBuilder sb = new StringBuilder();
+        for (int ii=0;ii<count;ii++)
+        {
+            switch (ii % 3)
+            {
+                case 0:
+                    sb.append(random.nextInt(9000)).append('.').append(random.nextInt(10000));
+                    break;
+                case 1:
+                    sb.append(-random.nextDouble()*180);
+                    break;
+                default:
+                    sb.append(random.nextInt(100)).append('.').append(random.nextInt(10));
+                    break;
+            }
+            sb.append(',');
+        }
+        data = new Source.Data(sb.toString());
+    }
+    @Benchmark
+    public double parseDouble() throws IOException
+    {
+        double sum = 0;
+        try (InputReader reader = source.open(data))
+        {
+            while (reader.readWhile(UNTIL_COMMA) != -1)
+            {
+                reader.rewind(1);
+                sum += reader.parseDouble();
+                reader.read();
+                reader.clear();
+            }
+        }
+        return sum;
+    }
+    @Benchmark
+    public double primitives() throws IOException
+    {
+        double sum = 0;
+        try (InputReader reader = source.open(data))
+        {
+            while (reader.readWhile(UNTIL_COMMA) != -1)
+            {
+                reader.rewind(1);
+                sum += Primitives.parseDouble(reader);
+                reader.read();
+                reader.clear();
+            }
+        }
+        return sum;
+    }
+    @Benchmark
+    public double string() throws IOException
+    {
+        double sum = 0;
+        try (InputReader reader = source.open(data))
+        {
+            while (reader.readWhile(UNTIL_COMMA) != -1)
+            {
+                reader.rewind(1);
+                sum += Double.parseDouble(reader.getString());
+                reader.read();
+                reader.clear();
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.benchmark;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vesalainen.bcc.model.El;
+import org.vesalainen.grammar.AnnotatedGrammar;
+import org.vesalainen.grammar.Grammar;
+import org.vesalainen.grammar.examples.BnfExample;
+import org.vesalainen.grammar.examples.ExprExample;
+import org.vesalainen.grammar.examples.LegExample;
+import org.vesalainen.lpg.LALRKParserGenerator;
+import org.vesalainen.parser.ParserFeature;
+
+/**
+ * Creates LALR parser generators for example grammars. Measures parser 
+ * generation time of annotation processing.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneratorBenchmark
+{
+    private Grammar expr;
+    private Grammar bnf;
+    private Grammar leg;
+    
+    @Setup
+    public void setup() throws IOException
+    {
+        expr = grammar(ExprExample.class, "Goal");
+        bnf = grammar(BnfExample.class, "bnf");
+        leg = grammar(LegExample.class, "block");
+    }
+    private static Grammar grammar(Class<?> cls, String start) throws IOException
+    {
+        AnnotatedGrammar ag = new AnnotatedGrammar(El.getTypeElement(cls.getCanonicalName()));
+        return new Grammar(start, ag, "");
+    }
+    private LALRKParserGenerator generate(Grammar g, String start) throws IOException
+    {
+        return g.createParserGenerator(start, EnumSet.noneOf(ParserFeature.class));
+    }
+    @Benchmark
+    public LALRKParserGenerator expr() throws IOException
+    {
+        return generate(expr, "Goal");
+    }
+    @Benchmark
+    public LALRKParserGenerator bnf() throws IOException
+    {
+        return generate(bnf, "bnf");
+    }
+    @Benchmark
+    public LALRKParserGenerator leg() throws IOException
+    {
+        return generate(leg, "block");
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vesalainen.parser.util.InputReader;
+
+/**
+ * Reads input line by line through InputReader from different sources.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputBenchmark
+{
+    @Param({"STRING", "BYTES", "CHANNEL", "PATH"})
+    public Source source;
+    @Param({"65536", "1048576"})
+    public int size;
+    private Source.Data data;
+    
+    @Setup
+    public void setup() throws IOException
+    {
+        data = new Source.Data(Source.lines(size));
+    }
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        data.close();
+    }
+    @Benchmark
+    public int read() throws IOException
+    {
+        int lines = 0;
+        try (InputReader reader = source.open(data))
+        {
+            int cc = reader.read();
+            while (cc != -1)
+            {
+                if (cc == '\n')
+                {
+                    reader.clear();
+                    lines++;
+                }
+                cc = reader.read();
+            }
+        }
+        return lines;
+    }
+    @Benchmark
+    public int getString() throws IOException
+    {
+        int len = 0;
+        try (InputReader reader = source.open(data))
+        {
+            int cc = reader.read();
+            while (cc != -1)
+            {
+                if (cc == '\n')
+                {
+                    len += reader.getString().length();
+                    reader.clear();
+                }
+                cc = reader.read();
+            }
+        }
+        return len;
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vesalainen.bcc.model.El;
+import org.vesalainen.grammar.AnnotatedGrammar;
+import org.vesalainen.grammar.examples.BnfExample;
+import org.vesalainen.grammar.examples.ExprExample;
+import org.vesalainen.grammar.examples.LegExample;
+import org.vesalainen.parser.GenClassFactory;
+import org.vesalainen.parser.LALRInterpreter;
+import org.vesalainen.parser.annotation.GenClassname;
+import org.vesalainen.parser.annotation.GrammarDef;
+import org.vesalainen.parser.annotation.ParseMethod;
+import org.vesalainen.parser.util.InputReader;
+
+/**
+ * Parses example grammars with generated parsers. Example rules print to 
+ * System.err which is redirected to null stream during measurement.
+ * <p>Input is read from each Source. Examples are extended with parse 
+ * methods taking InputReader.
+ * <p>exprInterpreted parses the same input as expr with LALRInterpreter 
+ * using the generated parser instance only as reducer target.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark
+{
+    @Param({"STRING", "BYTES", "CHANNEL", "PATH"})
+    public Source source;
+    private ExprReader expr;
+    private LALRInterpreter exprInterpreter;
+    private BnfReader bnf;
+    private LegReader leg;
+    private Source.Data exprData;
+    private Source.Data bnfData;
+    private Source.Data legData;
+    private PrintStream err;
+    
+    @Setup
+    public void setup() throws IOException
+    {
+        expr = (ExprReader) getParser(ExprReader.class);
+        bnf = (BnfReader) getParser(BnfReader.class);
+        leg = (LegReader) getParser(LegReader.class);
+        exprInterpreter = LALRInterpreter.create(
+                new AnnotatedGrammar(El.getTypeElement(ExprExample.class.getCanonicalName())), 
+                "Goal", 
+                MethodHandles.lookup(), 
+                ""
+        );
+        StringBuilder sb = new StringBuilder("1");
+        for (int ii=0;ii<100;ii++)
+        {
+            sb.append("+2*3-4/2-(5+6)");
+        }
+        exprData = new Source.Data(sb.toString());
+        bnfData = new Source.Data("a b ::= c d e ::= f g");
+        sb.setLength(0);
+        for (int ii=0;ii<100;ii++)
+        {
+            sb.append("IF 1 THEN a=2;ELSE b=3;END IF;WHILE x DO c[1]=d*2+3; END WHILE;");
+        }
+        legData = new Source.Data(sb.toString());
+        err = System.err;
+        System.setErr(new PrintStream(new NullOutputStream()));
+    }
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        System.setErr(err);
+        exprData.close();
+        bnfData.close();
+        legData.close();
+    }
+    /**
+     * Returns compiled parser instance or creates it dynamically if 
+     * implementation class is not on class path.
+     * @param cls
+     * @return
+     * @throws IOException 
+     */
+    static Object getParser(Class<?> cls) throws IOException
+    {
+        Object parser = GenClassFactory.loadGenInstance(cls);
+        if (parser == null)
+        {
+            parser = GenClassFactory.createDynamicInstance(cls);
+        }
+        return parser;
+    }
+    @Benchmark
+    public long expr() throws IOException
+    {
+        try (InputReader reader = source.open(exprData))
+        {
+            return expr.parse(reader);
+        }
+    }
+    @Benchmark
+    public Object exprInterpreted() throws IOException
+    {
+        try (InputReader reader = source.open(exprData))
+        {
+            return exprInterpreter.parse(expr, reader);
+        }
+    }
+    @Benchmark
+    public void bnf() throws IOException
+    {
+        try (InputReader reader = source.open(bnfData))
+        {
+            bnf.parse(reader);
+        }
+    }
+    @Benchmark
+    public void leg() throws IOException
+    {
+        try (InputReader reader = source.open(legData))
+        {
+            leg.parse(reader);
+        }
+    }
+    
+    @GenClassname("org.vesalainen.benchmark.ExprReaderImpl")
+    @GrammarDef(maxStack=9)
+    public static abstract class ExprReader extends ExprExample
+    {
+        @ParseMethod(start="Goal")
+        public abstract long parse(InputReader reader);
+    }
+    @GenClassname("org.vesalainen.benchmark.BnfReaderImpl")
+    @GrammarDef()
+    public static abstract class BnfReader extends BnfExample
+    {
+        @ParseMethod(start="bnf", wideIndex=true)
+        public abstract void parse(InputReader reader);
+    }
+    @GenClassname("org.vesalainen.benchmark.LegReaderImpl")
+    @GrammarDef()
+    public static abstract class LegReader extends LegExample
+    {
+        @ParseMethod(start="block")
+        public abstract void parse(InputReader reader);
+    }
+    
+    private static class NullOutputStream extends OutputStream
+    {
+
+        @Override
+        public void write(int b) throws IOException
+        {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException
+        {
+        }
+        
+    }
+}
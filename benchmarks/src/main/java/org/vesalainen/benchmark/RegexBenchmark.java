@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vesalainen.parser.util.InputReader;
+import org.vesalainen.regex.Regex;
+
+/**
+ * Compiled Regex find, match and split over String and InputReader sources.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegexBenchmark
+{
+    @Param({"STRING", "BYTES", "CHANNEL", "PATH"})
+    public Source source;
+    private Source.Data data;
+    private String line;
+    private Regex find;
+    private Regex match;
+    private Regex split;
+    private Regex lines;
+    
+    @Setup
+    public void setup() throws IOException
+    {
+        data = new Source.Data(Source.lines(65536));
+        line = data.getText().substring(0, data.getText().indexOf('\n'));
+        find = Regex.compile("[0-9]+\\.[0-9]+,[NS]");
+        match = Regex.compile("\\$GPRMC,[^*]*\\*[0-9A-F]{2}");
+        split = Regex.compile(",");
+        lines = Regex.compile("([^\n]*\n)*");
+    }
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        data.close();
+    }
+    @Benchmark
+    public String find()
+    {
+        return find.find(data.getText());
+    }
+    @Benchmark
+    public String match()
+    {
+        return match.match(line);
+    }
+    @Benchmark
+    public String[] split()
+    {
+        return split.split(line);
+    }
+    @Benchmark
+    public boolean isMatch() throws IOException
+    {
+        try (InputReader reader = source.open(data))
+        {
+            return lines.isMatch(reader);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.benchmark;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vesalainen.parser.util.InputReader;
+import org.vesalainen.regex.PrefixMap;
+import org.vesalainen.regex.RegexMatcher;
+
+/**
+ * RegexMatcher and PrefixMap lookups. Source variants feed matcher one 
+ * character at a time from InputReader.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegexMatcherBenchmark
+{
+    private static final String[] KEYS = {"GPRMC", "GPGGA", "GPGSV", "GPGSA", "GPVTG", "GPGLL", "IIMWV", "IIDBT", "IIHDT", "IIVHW"};
+    @Param({"STRING", "BYTES", "CHANNEL", "PATH"})
+    public Source source;
+    private Source.Data data;
+    private RegexMatcher<Integer> matcher;
+    private PrefixMap<Integer> prefixMap;
+    
+    @Setup
+    public void setup() throws IOException
+    {
+        data = new Source.Data(Source.lines(65536));
+        matcher = new RegexMatcher<>();
+        Map<String,Integer> map = new HashMap<>();
+        for (int ii=0;ii<KEYS.length;ii++)
+        {
+            matcher.addExpression("\\$"+KEYS[ii]+",[^\n]*\n", ii);
+            map.put(KEYS[ii], ii);
+        }
+        matcher.compile();
+        prefixMap = new PrefixMap<>(map);
+    }
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        data.close();
+    }
+    @Benchmark
+    public int matchCharSequence()
+    {
+        int sum = 0;
+        for (String key : KEYS)
+        {
+            Integer m = matcher.match("$"+key+",1,2,3\n");
+            if (m != null)
+            {
+                sum += m;
+            }
+        }
+        return sum;
+    }
+    @Benchmark
+    public int prefixMap()
+    {
+        int sum = 0;
+        for (String key : KEYS)
+        {
+            Integer m = prefixMap.get(key);
+            if (m != null)
+            {
+                sum += m;
+            }
+        }
+        return sum;
+    }
+    @Benchmark
+    public int matchInput() throws IOException
+    {
+        int sum = 0;
+        try (InputReader reader = source.open(data))
+        {
+            int cc = reader.read();
+            while (cc != -1)
+            {
+                switch (matcher.match(cc))
+                {
+                    case Match:
+                        sum += matcher.getMatched();
+                        matcher.clear();
+                        reader.clear();
+                        break;
+                    case Error:
+                        matcher.clear();
+                        reader.clear();
+                        break;
+                }
+                cc = reader.read();
+            }
+        }
+        return sum;
+    }
+}
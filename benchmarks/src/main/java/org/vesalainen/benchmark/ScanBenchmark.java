@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.benchmark;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vesalainen.parser.util.Input;
+import org.vesalainen.parser.util.InputReader;
+
+/**
+ * Scans lines of byte input until newline. Compares read loop, scalar 
+ * readWhile and 8 bytes at a time readWhile. Both US-ASCII and ISO-8859-1
+ * byte buffers are read by ByteInput.
+ * 
+ * <p>SCALAR ranges stop also at 4 other bytes not present in input. That makes
+ * stop set too large for word scan while result stays the same.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScanBenchmark
+{
+    private static final String WORDS = "\u0000\u0009\u000b\uffff";
+    private static final String SCALAR = "\u0000\u0000\u0002\u0009\u000b\u001f!\u007f\u0081\u00fe";
+    @Param({"65536", "1048576"})
+    public int size;
+    @Param({"US-ASCII", "ISO-8859-1"})
+    public String charset;
+    private byte[] bytes;
+    
+    @Setup
+    public void setup() throws IOException
+    {
+        bytes = Source.lines(size).getBytes(StandardCharsets.US_ASCII);
+    }
+    @Benchmark
+    public int read() throws IOException
+    {
+        int lines = 0;
+        try (InputReader reader = open())
+        {
+            int cc = reader.read();
+            while (cc != -1)
+            {
+                if (cc == '\n')
+                {
+                    reader.clear();
+                    lines++;
+                }
+                cc = reader.read();
+            }
+        }
+        return lines;
+    }
+    @Benchmark
+    public int readWhileScalar() throws IOException
+    {
+        return readWhile(SCALAR);
+    }
+    @Benchmark
+    public int readWhileWords() throws IOException
+    {
+        return readWhile(WORDS);
+    }
+    private int readWhile(String ranges) throws IOException
+    {
+        int lines = 0;
+        try (InputReader reader = open())
+        {
+            while (reader.readWhile(ranges) != -1)
+            {
+                reader.clear();
+                lines++;
+            }
+        }
+        return lines;
+    }
+    private InputReader open() throws IOException
+    {
+        return Input.getInstance(ByteBuffer.wrap(bytes), -1, Charset.forName(charset));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.benchmark;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.io.ByteArrayInputStream;
+import org.vesalainen.parser.util.Input;
+import org.vesalainen.parser.util.InputReader;
+
+/**
+ * Input sources used in benchmarks. Each creates a fresh InputReader over
+ * same content.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+public enum Source
+{
+    STRING
+    {
+        @Override
+        public InputReader open(Data data) throws IOException
+        {
+            return Input.getInstance(data.text);
+        }
+    },
+    BYTES
+    {
+        @Override
+        public InputReader open(Data data) throws IOException
+        {
+            return Input.getInstance(data.bytes, -1, StandardCharsets.US_ASCII);
+        }
+    },
+    CHANNEL
+    {
+        @Override
+        public InputReader open(Data data) throws IOException
+        {
+            return Input.getInstance(Channels.newChannel(new ByteArrayInputStream(data.bytes)), -1, StandardCharsets.US_ASCII);
+        }
+    },
+    PATH
+    {
+        @Override
+        public InputReader open(Data data) throws IOException
+        {
+            return Input.getInstance(data.path, -1, StandardCharsets.US_ASCII);
+        }
+    };
+    
+    public abstract InputReader open(Data data) throws IOException;
+    /**
+     * Same content as String, byte array and temporary file.
+     */
+    public static class Data implements AutoCloseable
+    {
+        final String text;
+        final byte[] bytes;
+        final Path path;
+
+        public Data(String text) throws IOException
+        {
+            this.text = text;
+            this.bytes = text.getBytes(StandardCharsets.US_ASCII);
+            this.path = Files.createTempFile("lpg-bench", ".txt");
+            Files.write(path, bytes);
+        }
+        
+        public String getText()
+        {
+            return text;
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            Files.deleteIfExists(path);
+        }
+        
+    }
+    /**
+     * Returns NMEA like lines of total length about size.
+     * @param size
+     * @return 
+     */
+    public static String lines(int size)
+    {
+        StringBuilder sb = new StringBuilder();
+        int n = 0;
+        while (sb.length() < size)
+        {
+            sb.append("$GPRMC,").append(n % 240000).append(".00,A,6009.")
+                    .append(n % 10000).append(",N,02453.").append(n % 7919)
+                    .append(",E,").append(n % 100).append(".5,")
+                    .append(n % 360).append(".0,170617,,*6C\n");
+            n++;
+        }
+        return sb.toString();
+    }
+}
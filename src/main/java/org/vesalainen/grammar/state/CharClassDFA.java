@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.grammar.state;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import org.vesalainen.regex.CharRange;
+
+/**
+ * Dense matrix representation of DFA. Input characters are mapped to global
+ * equivalence classes with a two-level table and each state is a row of next
+ * states indexed by class. Transition costs two array loads.
+ * 
+ * <p>States are numbered from 0 which is the root. Error is -1.
+ * 
+ * <p>Boundary match transitions are ignored.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ * @param <T>
+ */
+public final class CharClassDFA<T>
+{
+    public static final int ERROR = -1;
+    private static final int BLOCKSHIFT = 8;
+    private static final int BLOCKSIZE = 1<<BLOCKSHIFT;
+    private static final int CODEPOINTS = Character.MAX_CODE_POINT+1;
+    
+    private final int[] bounds;
+    private final int[][] blocks;
+    private final int classes;
+    private final int[] next;
+    private final Object[] tokens;
+    private final Object[] uniqueMatches;
+
+    public CharClassDFA(DFA<T> dfa)
+    {
+        List<DFAState<T>> states = new ArrayList<>();
+        Map<DFAState<T>,Integer> stateMap = new HashMap<>();
+        states.add(dfa.getRoot());
+        stateMap.put(dfa.getRoot(), 0);
+        for (DFAState<T> s : dfa)
+        {
+            if (!stateMap.containsKey(s))
+            {
+                stateMap.put(s, states.size());
+                states.add(s);
+            }
+        }
+        bounds = classBounds(states);
+        classes = bounds.length+1;
+        blocks = new int[(CODEPOINTS+BLOCKSIZE-1)>>BLOCKSHIFT][];
+        Map<Integer,int[]> uniformMap = new HashMap<>();
+        for (int bi=0;bi<blocks.length;bi++)
+        {
+            int start = bi<<BLOCKSHIFT;
+            int first = classOf(bounds, start);
+            int last = classOf(bounds, start+BLOCKSIZE-1);
+            if (first == last)
+            {
+                int[] block = uniformMap.get(first);
+                if (block == null)
+                {
+                    block = new int[BLOCKSIZE];
+                    Arrays.fill(block, first);
+                    uniformMap.put(first, block);
+                }
+                blocks[bi] = block;
+            }
+            else
+            {
+                int[] block = new int[BLOCKSIZE];
+                for (int ii=0;ii<BLOCKSIZE;ii++)
+                {
+                    block[ii] = classOf(bounds, start+ii);
+                }
+                blocks[bi] = block;
+            }
+        }
+        int size = states.size();
+        next = new int[size*classes];
+        Arrays.fill(next, ERROR);
+        tokens = new Object[size];
+        for (int si=0;si<size;si++)
+        {
+            DFAState<T> s = states.get(si);
+            if (s.isAccepting())
+            {
+                tokens[si] = s.getToken();
+            }
+            for (Transition<DFAState<T>> tr : s.getTransitions())
+            {
+                CharRange range = tr.getCondition();
+                if (range.getFrom() < 0)
+                {
+                    continue;
+                }
+                int to = stateMap.get(tr.getTo());
+                int first = classOf(bounds, range.getFrom());
+                int last = classOf(bounds, range.getTo());
+                for (int cls=first;cls<last;cls++)
+                {
+                    next[si*classes+cls] = to;
+                }
+            }
+        }
+        uniqueMatches = new Object[size];
+        boolean[] visited = new boolean[size];
+        for (int si=0;si<size;si++)
+        {
+            uniqueMatch(si, visited);
+        }
+    }
+    /**
+     * Returns sorted boundaries of equivalence classes. Class n starts from
+     * bounds[n-1] and ends before bounds[n].
+     * @param <T>
+     * @param states
+     * @return 
+     */
+    public static <T> int[] classBounds(Iterable<DFAState<T>> states)
+    {
+        TreeSet<Integer> set = new TreeSet<>();
+        for (DFAState<T> s : states)
+        {
+            if (!s.hasBoundaryMatches())
+            {
+                for (Transition<DFAState<T>> tr : s.getTransitions())
+                {
+                    CharRange range = tr.getCondition();
+                    if (range.getFrom() >= 0)
+                    {
+                        set.add(range.getFrom());
+                        set.add(range.getTo());
+                    }
+                }
+            }
+        }
+        int[] arr = new int[set.size()];
+        int index = 0;
+        for (int b : set)
+        {
+            arr[index++] = b;
+        }
+        return arr;
+    }
+    /**
+     * Returns equivalence class of cc using binary search.
+     * @param bounds
+     * @param cc
+     * @return 
+     */
+    public static int classOf(int[] bounds, int cc)
+    {
+        int idx = Arrays.binarySearch(bounds, cc);
+        if (idx >= 0)
+        {
+            return idx+1;
+        }
+        else
+        {
+            return -idx-1;
+        }
+    }
+    private Object uniqueMatch(int state, boolean[] visited)
+    {
+        if (visited[state])
+        {
+            return uniqueMatches[state];
+        }
+        visited[state] = true;
+        if (tokens[state] != null)
+        {
+            uniqueMatches[state] = tokens[state];
+            return tokens[state];
+        }
+        int target = ERROR;
+        int base = state*classes;
+        for (int cls=0;cls<classes;cls++)
+        {
+            int to = next[base+cls];
+            if (to != ERROR)
+            {
+                if (target != ERROR && target != to)
+                {
+                    return null;
+                }
+                target = to;
+            }
+        }
+        if (target != ERROR)
+        {
+            uniqueMatches[state] = uniqueMatch(target, visited);
+        }
+        return uniqueMatches[state];
+    }
+    /**
+     * Returns next state or ERROR
+     * @param state
+     * @param cc
+     * @return 
+     */
+    public int transit(int state, int cc)
+    {
+        int cls;
+        if (cc >= 0 && cc < CODEPOINTS)
+        {
+            cls = blocks[cc>>BLOCKSHIFT][cc&(BLOCKSIZE-1)];
+        }
+        else
+        {
+            cls = classOf(bounds, cc);
+        }
+        return next[state*classes+cls];
+    }
+    /**
+     * Returns true if state is accepting
+     * @param state
+     * @return 
+     */
+    public boolean isAccepting(int state)
+    {
+        return tokens[state] != null;
+    }
+    /**
+     * Returns token of accepting state or null
+     * @param state
+     * @return 
+     */
+    public T getToken(int state)
+    {
+        return (T) tokens[state];
+    }
+    /**
+     * Returns token if state is accepting or if there is only one possible 
+     * path to accepting state, otherwise null.
+     * @param state
+     * @return 
+     * @see org.vesalainen.grammar.state.DFAState#getUniqueMatch() 
+     */
+    public T getUniqueMatch(int state)
+    {
+        return (T) uniqueMatches[state];
+    }
+    /**
+     * Returns number of states
+     * @return 
+     */
+    public int getStateCount()
+    {
+        return tokens.length;
+    }
+    /**
+     * Returns number of equivalence classes
+     * @return 
+     */
+    public int getClassCount()
+    {
+        return classes;
+    }
+}
@@ -21,9 +21,12 @@ import java.util.Iterator;
 import org.vesalainen.regex.Regex;
 import java.io.PrintStream;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.vesalainen.graph.Vertex;
@@ -41,6 +44,7 @@ public final class DFA<T> implements Iterable<DFAState<T>>
     private int size;
     private boolean acceptStart;
     private DFA<T> parent;
+    private int unminimizedSize;
 
     DFA(DFAState<T> root, int size)
     {
@@ -102,6 +106,155 @@ public final class DFA<T> implements Iterable<DFAState<T>>
     {
         return root.isAccepting();
     }
+    /**
+     * Returns number of states before minimization or 0 if not minimized.
+     * @return 
+     */
+    public int getUnminimizedSize()
+    {
+        return unminimizedSize;
+    }
+    /**
+     * Merges equivalent states by using partition refinement. States are
+     * initially partitioned by token, priority, acceptImmediately and fixed 
+     * end length. Partitions are refined until no transition leads to 
+     * different partitions.
+     * @return Number of states after minimization.
+     */
+    public int minimize()
+    {
+        List<DFAState<T>> states = new ArrayList<>();
+        Map<DFAState<T>,Integer> indexOf = new HashMap<>();
+        states.add(root);
+        indexOf.put(root, 0);
+        for (DFAState<T> s : this)
+        {
+            if (!indexOf.containsKey(s))
+            {
+                indexOf.put(s, states.size());
+                states.add(s);
+            }
+        }
+        int count = states.size();
+        unminimizedSize = count;
+        int[] block = new int[count];
+        Map<List<Object>,Integer> keyMap = new HashMap<>();
+        for (int ii=0;ii<count;ii++)
+        {
+            DFAState<T> s = states.get(ii);
+            List<Object> key = new ArrayList<>();
+            key.add(s.getToken());
+            key.add(s.getPriority());
+            key.add(s.isAcceptImmediately());
+            key.add(s.isAccepting() ? s.getFixedEndLength() : 0);
+            block[ii] = blockOf(keyMap, key);
+        }
+        int blocks = keyMap.size();
+        while (true)
+        {
+            int[] next = new int[count];
+            keyMap.clear();
+            for (int ii=0;ii<count;ii++)
+            {
+                next[ii] = blockOf(keyMap, signature(states.get(ii), block[ii], block, indexOf));
+            }
+            block = next;
+            if (keyMap.size() == blocks)
+            {
+                break;
+            }
+            blocks = keyMap.size();
+        }
+        if (blocks < count)
+        {
+            DFAState<T>[] reps = new DFAState[blocks];
+            Map<DFAState<T>,DFAState<T>> map = new HashMap<>();
+            for (int ii=0;ii<count;ii++)
+            {
+                DFAState<T> s = states.get(ii);
+                if (reps[block[ii]] == null)
+                {
+                    reps[block[ii]] = s;
+                }
+                map.put(s, reps[block[ii]]);
+            }
+            for (DFAState<T> s : reps)
+            {
+                s.clearInStates();
+            }
+            for (DFAState<T> s : reps)
+            {
+                s.redirectTransitions(map);
+            }
+        }
+        size = 0;
+        for (DFAState<T> s : this)
+        {
+            size++;
+        }
+        return size;
+    }
+    private static int blockOf(Map<List<Object>,Integer> keyMap, List<Object> key)
+    {
+        Integer b = keyMap.get(key);
+        if (b == null)
+        {
+            b = keyMap.size();
+            keyMap.put(key, b);
+        }
+        return b;
+    }
+    /**
+     * Returns key containing current block and transitions to blocks. Adjacent
+     * ranges to the same block are merged.
+     */
+    private List<Object> signature(DFAState<T> state, int current, int[] block, Map<DFAState<T>,Integer> indexOf)
+    {
+        List<Transition<DFAState<T>>> list = new ArrayList<>(state.getTransitions());
+        list.sort((t1, t2)->Integer.compare(t1.getCondition().getFrom(), t2.getCondition().getFrom()));
+        List<Object> key = new ArrayList<>();
+        key.add(current);
+        int from = 0;
+        int to = 0;
+        int target = -1;
+        for (Transition<DFAState<T>> t : list)
+        {
+            CharRange range = t.getCondition();
+            int b = block[indexOf.get(t.getTo())];
+            if (range.getFrom() >= 0 && b == target && range.getFrom() == to)
+            {
+                to = range.getTo();
+            }
+            else
+            {
+                if (target != -1)
+                {
+                    key.add(from);
+                    key.add(to);
+                    key.add(target);
+                }
+                if (range.getFrom() < 0)
+                {
+                    key.add(range);
+                    key.add(b);
+                    target = -1;
+                }
+                else
+                {
+                    from = range.getFrom();
+                    to = range.getTo();
+                    target = b;
+                }
+            }
+        }
+        if (target != -1)
+        {
+            key.add(from);
+            key.add(to);
+            key.add(target);
+        }
+        return key;
+    }
     /**
      * Removes repeated transitions with the same token. After this method call
      * the Transition.getRepeat method must be consulted in able to detect repetitions.
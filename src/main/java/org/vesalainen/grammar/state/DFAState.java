@@ -241,6 +241,25 @@ public final class DFAState<T> extends State<T> implements Vertex<DFAState<T>>,
             }
         }
     }
+    /**
+     * Replaces transition targets with mapped states. Used in minimization.
+     * @param map 
+     */
+    void redirectTransitions(Map<DFAState<T>,DFAState<T>> map)
+    {
+        List<Transition<DFAState<T>>> list = new ArrayList<>(transitions.values());
+        transitions.clear();
+        edges.clear();
+        for (Transition<DFAState<T>> t : list)
+        {
+            addTransition(t.getCondition(), map.get(t.getTo()));
+        }
+        optimizeTransitions();
+    }
+    void clearInStates()
+    {
+        inStates.clear();
+    }
     /**
      * Return a RangeSet containing all ranges
      * @return
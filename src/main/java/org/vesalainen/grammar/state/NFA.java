@@ -146,7 +146,8 @@ public final class NFA<T> implements Iterable<NFAState<T>>
      */
     public void analyzeEndStop()
     {
-        DFA<T> dfa = constructDFA(new Scope<DFAState<T>>("analyzeEndStop"));
+        Scope<DFAState<T>> scope = new Scope<>("analyzeEndStop");
+        DFA<T> dfa = new DFA<>(first.constructDFA(scope), scope.count());
         for (DFAState<T> s : dfa)
         {
             if (s.isAccepting())
@@ -165,13 +166,16 @@ public final class NFA<T> implements Iterable<NFAState<T>>
         }
     }
     /**
-     *  Constructs a dfa from using first nfa state as starting state.
+     *  Constructs a minimized dfa from using first nfa state as starting state.
      * @param scope
      * @return
+     * @see org.vesalainen.grammar.state.DFA#minimize() 
      */
     public DFA<T> constructDFA(Scope<DFAState<T>> scope)
     {
-        return new DFA<>(first.constructDFA(scope), scope.count());
+        DFA<T> dfa = new DFA<>(first.constructDFA(scope), scope.count());
+        dfa.minimize();
+        return dfa;
     }
     /**
      * Concatenates this to nfa by making epsilon move from this last to nfa first.
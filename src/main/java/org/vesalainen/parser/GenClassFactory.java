@@ -17,10 +17,12 @@
 package org.vesalainen.parser;
 
 import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.vesalainen.bcc.model.El;
 import org.vesalainen.parser.annotation.GenClassname;
 
@@ -32,7 +34,10 @@ import org.vesalainen.parser.annotation.GenClassname;
  */
 public class GenClassFactory
 {
-    private static Map<Class<?>,Class<?>> map = new HashMap<>();
+    private static final int POOL_MAX_IDLE = 64;
+    private static final Map<Class<?>,Class<?>> map = new ConcurrentHashMap<>();
+    private static final Map<Class<?>,MethodHandle> constructorMap = new ConcurrentHashMap<>();
+    private static final Map<Class<?>,GenClassPool<?>> poolMap = new ConcurrentHashMap<>();
     
     /**
      * Creates generated class instance either by using ClassLoader or by compiling it dynamically
@@ -48,7 +53,7 @@ public class GenClassFactory
         {
             if (args.length == 0)
             {
-                return parserClass.newInstance();
+                return (Object) getConstructor(cls).invokeExact();
             }
             else
             {
@@ -77,11 +82,52 @@ public class GenClassFactory
             }
         }
 
-        catch (InstantiationException | IllegalAccessException | SecurityException | IllegalArgumentException | InvocationTargetException ex)
+        catch (RuntimeException | Error ex)
+        {
+            throw ex;
+        }
+        catch (Throwable ex)
         {
             throw new ParserException(ex);
         }
     }
+    /**
+     * Returns shared thread-safe pool of generated class instances.
+     * @param <T>
+     * @param cls Annotated class acting also as superclass for created parser
+     * @return
+     * @throws ParserException When implementation class is not compiled 
+     */
+    public static <T> GenClassPool<T> pool(Class<T> cls) throws ParserException
+    {
+        return (GenClassPool<T>) poolMap.computeIfAbsent(cls, (c)->new GenClassPool<>(cls, getConstructor(cls), POOL_MAX_IDLE));
+    }
+    /**
+     * Returns cached no-argument constructor of generated class.
+     * @param cls Annotated class acting also as superclass for created parser
+     * @return
+     * @throws ParserException 
+     */
+    private static MethodHandle getConstructor(Class<?> cls) throws ParserException
+    {
+        MethodHandle mh = constructorMap.get(cls);
+        if (mh == null)
+        {
+            Class<?> parserClass = getGenClass(cls);
+            try
+            {
+                mh = MethodHandles.publicLookup()
+                        .findConstructor(parserClass, MethodType.methodType(void.class))
+                        .asType(MethodType.methodType(Object.class));
+            }
+            catch (NoSuchMethodException | IllegalAccessException ex)
+            {
+                throw new ParserException(ex);
+            }
+            constructorMap.put(cls, mh);
+        }
+        return mh;
+    }
     /**
      * Creates generated class either by using ClassLoader
      * @param cls Annotated class acting also as superclass for created parser
@@ -127,7 +173,7 @@ public class GenClassFactory
     public static Object createDynamicInstance(Class<?> cls) throws IOException
     {
         GenClassCompiler pc = GenClassCompiler.compile(El.getTypeElement(cls.getCanonicalName()), null);
-        return pc.loadDynamic();
+        return pc.newInstance();
     }
     /**
      * Loads generated class instance by using ClassLoader. Return null if unable to
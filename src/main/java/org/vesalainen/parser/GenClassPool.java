@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Thread-safe pool of generated class instances. Instance borrowed by one
+ * thread is not used by other threads until it is released. This makes it
+ * possible to share parsers compiled with SingleThread feature in thread pool.
+ * 
+ * <p>Released instances are kept up to maxIdle count. Rest are left for 
+ * garbage collector.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ * @param <T> Annotated class acting also as superclass for created parser
+ * @see GenClassFactory#pool(java.lang.Class) 
+ */
+public class GenClassPool<T>
+{
+    private final Class<T> cls;
+    private final MethodHandle constructor;
+    private final int maxIdle;
+    private final Queue<T> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    GenClassPool(Class<T> cls, MethodHandle constructor, int maxIdle)
+    {
+        if (maxIdle < 0)
+        {
+            throw new IllegalArgumentException("maxIdle="+maxIdle);
+        }
+        this.cls = cls;
+        this.constructor = constructor.asType(MethodType.methodType(Object.class));
+        this.maxIdle = maxIdle;
+    }
+    /**
+     * Returns idle instance or creates new one.
+     * @return 
+     * @throws ParserException If creating instance fails.
+     */
+    public T borrow()
+    {
+        T instance = idle.poll();
+        if (instance != null)
+        {
+            idleCount.decrementAndGet();
+            return instance;
+        }
+        try
+        {
+            return cls.cast((Object) constructor.invokeExact());
+        }
+        catch (RuntimeException | Error ex)
+        {
+            throw ex;
+        }
+        catch (Throwable ex)
+        {
+            throw new ParserException("creating "+cls+" failed", ex);
+        }
+    }
+    /**
+     * Returns borrowed instance to pool. Instance must not be used after this.
+     * @param instance 
+     */
+    public void release(T instance)
+    {
+        if (instance == null)
+        {
+            throw new IllegalArgumentException("null instance");
+        }
+        if (idleCount.incrementAndGet() <= maxIdle)
+        {
+            idle.offer(instance);
+        }
+        else
+        {
+            idleCount.decrementAndGet();
+        }
+    }
+    /**
+     * Borrows instance, applies function and releases instance.
+     * @param <R>
+     * @param func
+     * @return Function result
+     */
+    public <R> R apply(Function<? super T,R> func)
+    {
+        T instance = borrow();
+        try
+        {
+            return func.apply(instance);
+        }
+        finally
+        {
+            release(instance);
+        }
+    }
+    /**
+     * Returns number of idle instances.
+     * @return 
+     */
+    public int getIdleCount()
+    {
+        return idleCount.get();
+    }
+    
+}
@@ -0,0 +1,527 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import org.vesalainen.lang.Primitives;
+import static org.vesalainen.parser.LALRTable.*;
+import static org.vesalainen.parser.ParserConstants.INPUT;
+import org.vesalainen.parser.LALRTable.Reducer;
+import org.vesalainen.parser.util.InputReader;
+import org.vesalainen.parser.util.WouldBlockException;
+
+/**
+ * Driver loop for table driven LALR(1) parser. Reducers are called through
+ * method handles resolved from reducer descriptors of LALRTable.
+ * 
+ * <p>Stack layout and reducer semantics are the same as in parse methods 
+ * compiled by ParserMethodCompiler. Syntax errors and exceptions thrown by 
+ * reducers are passed to InputReader recover methods. If recover returns 
+ * parsing starts again. IOException is thrown as such.
+ * 
+ * <p>Push mode parsing of non-blocking input is done with Session returned 
+ * from push method.
+ * 
+ * <p>Line and offset locators, inserting whitespace, @RecoverMethod and 
+ * LALR(k) grammars are not supported.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ * @see org.vesalainen.parser.LALRTable
+ */
+public final class LALRDriver
+{
+    private static final Object SYNTAXERROR = new Object();
+    private final LALRTable table;
+    private final Scanner scanner;
+    private final Invoker[] ruleInvokers;
+    private final Invoker[] terminalInvokers;
+    /**
+     * Reads next token.
+     */
+    @FunctionalInterface
+    public interface Scanner
+    {
+        /**
+         * Returns next token number or negative number if input doesn't match.
+         * @param parser
+         * @param input Input number
+         * @param reader
+         * @return
+         * @throws IOException 
+         */
+        int scan(Object parser, int input, InputReader reader) throws IOException;
+    }
+    /**
+     * Creates driver
+     * @param table
+     * @param scanner
+     * @param lookup Lookup used in resolving reducers.
+     */
+    public LALRDriver(LALRTable table, Scanner scanner, MethodHandles.Lookup lookup)
+    {
+        this.table = table;
+        this.scanner = scanner;
+        this.ruleInvokers = resolve(table.getRuleReducers(), lookup);
+        this.terminalInvokers = resolve(table.getTerminalReducers(), lookup);
+    }
+    /**
+     * Creates driver for class compiled by ParserCompiler. Input methods of 
+     * lookup class are used as scanner. This method is called from compiled 
+     * parse method.
+     * @param encoded Encoded LALRTable
+     * @param lookup Lookup of compiled class
+     * @return 
+     */
+    public static LALRDriver create(String encoded, MethodHandles.Lookup lookup)
+    {
+        LALRTable table = LALRTable.decode(encoded);
+        Class<?> cls = lookup.lookupClass();
+        int inputCount = 0;
+        for (int state=1;state<=table.getStateCount();state++)
+        {
+            inputCount = Math.max(inputCount, table.getInput(state)+1);
+        }
+        MethodHandle[] inputs = new MethodHandle[inputCount];
+        MethodType type = MethodType.methodType(int.class, InputReader.class);
+        MethodType genericType = MethodType.methodType(int.class, Object.class, InputReader.class);
+        try
+        {
+            for (int state=1;state<=table.getStateCount();state++)
+            {
+                int input = table.getInput(state);
+                if (inputs[input] == null)
+                {
+                    inputs[input] = lookup.findVirtual(cls, INPUT+input, type).asType(genericType);
+                }
+            }
+        }
+        catch (NoSuchMethodException | IllegalAccessException ex)
+        {
+            throw new IllegalArgumentException(cls+" input method not found", ex);
+        }
+        return new LALRDriver(table, (parser, input, reader)->
+        {
+            try
+            {
+                return (int) inputs[input].invokeExact(parser, reader);
+            }
+            catch (IOException | RuntimeException | Error ex)
+            {
+                throw ex;
+            }
+            catch (Throwable thr)
+            {
+                throw new IOException(thr);
+            }
+        }, lookup);
+    }
+    
+    public LALRTable getTable()
+    {
+        return table;
+    }
+    /**
+     * Parses input.
+     * @param parser Instance having reducer methods. Null if reducers are 
+     * static.
+     * @param reader
+     * @param context @ParserContext values in the order of 
+     * LALRTable.getContextNames. Can be null if there are no context names.
+     * @return Value of start symbol or null if start symbol has no value.
+     * @throws IOException 
+     */
+    public Object parse(Object parser, InputReader reader, Object[] context) throws IOException
+    {
+        Session session = new Session(parser, reader, context);
+        drive(session);
+        return session.result;
+    }
+    /**
+     * Creates push mode parsing session. Parsing is started by calling 
+     * Session.resume.
+     * @param parser Instance having reducer methods. Null if reducers are 
+     * static.
+     * @param reader Non-blocking input, like FeedInput.
+     * @param context @ParserContext values in the order of 
+     * LALRTable.getContextNames. Can be null if there are no context names.
+     * @return 
+     * @see org.vesalainen.parser.util.FeedInput
+     */
+    public Session push(Object parser, InputReader reader, Object[] context)
+    {
+        return new Session(parser, reader, context);
+    }
+    /**
+     * Push mode parsing state. When input runs dry during scanning, partly 
+     * read token is unread and the state and value stacks are kept. Resumed 
+     * parsing scans the token again.
+     * 
+     * <p>Terminal reducers are called only after the token is complete. 
+     * Checksum is not supported because unread tokens are read again.
+     */
+    public final class Session
+    {
+        private final Object parser;
+        private final InputReader reader;
+        private final Object[] context;
+        private final int[] states = new int[table.getStackSize()];
+        private final Object[] values = new Object[states.length];
+        private int sp;
+        private boolean done;
+        private Object result;
+
+        private Session(Object parser, InputReader reader, Object[] context)
+        {
+            this.parser = parser;
+            this.reader = reader;
+            this.context = context;
+            states[0] = 1;
+        }
+        /**
+         * Parses available input.
+         * @return true if parsing is finished. False if more input is needed.
+         * @throws IOException 
+         */
+        public boolean resume() throws IOException
+        {
+            if (!done)
+            {
+                try
+                {
+                    drive(this);
+                }
+                catch (WouldBlockException ex)
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+        /**
+         * Returns true if parsing is finished.
+         * @return 
+         */
+        public boolean isDone()
+        {
+            return done;
+        }
+        /**
+         * Returns value of start symbol or null if start symbol has no value or
+         * parsing is not finished.
+         * @return 
+         */
+        public Object getResult()
+        {
+            return result;
+        }
+        
+        private void reset()
+        {
+            sp = 0;
+            states[0] = 1;
+        }
+    }
+    private void drive(Session session) throws IOException
+    {
+        InputReader reader = session.reader;
+        while (true)
+        {
+            Object result;
+            try
+            {
+                result = run(session);
+            }
+            catch (IOException | Error ex)
+            {
+                throw ex;
+            }
+            catch (Throwable thr)
+            {
+                session.reset();
+                reader.recover(thr);
+                continue;
+            }
+            if (result != SYNTAXERROR)
+            {
+                session.result = result;
+                session.done = true;
+                return;
+            }
+            session.reset();
+            reader.recover();
+        }
+    }
+    private Object run(Session session) throws Throwable
+    {
+        Object parser = session.parser;
+        InputReader reader = session.reader;
+        Object[] context = session.context;
+        int[] states = session.states;
+        Object[] values = session.values;
+        int sp = session.sp;
+        int token = -1;
+        Object cur = null;
+        while (true)
+        {
+            if (token < 0)
+            {
+                while (true)
+                {
+                    try
+                    {
+                        token = scanner.scan(parser, table.getInput(states[sp]), reader);
+                    }
+                    catch (WouldBlockException ex)
+                    {
+                        session.sp = sp;
+                        reader.unread();
+                        throw ex;
+                    }
+                    if (token < 0)
+                    {
+                        return SYNTAXERROR;
+                    }
+                    Invoker invoker = terminalInvokers[token];
+                    cur = invoker != null ? invoker.invoke(parser, reader, context, values, sp) : null;
+                    reader.clear();
+                    if (!table.isWhiteSpace(token))
+                    {
+                        break;
+                    }
+                }
+            }
+            values[sp] = cur;
+            int action = table.getAction(states[sp], token);
+            int rule;
+            switch (action & KINDMASK)
+            {
+                case SHIFT:
+                    sp++;
+                    states[sp] = action>>>KINDBITS;
+                    token = -1;
+                    continue;
+                case SHIFTREDUCE:
+                    sp++;
+                    token = -1;
+                    rule = action>>>KINDBITS;
+                    break;
+                case REDUCE:
+                    rule = action>>>KINDBITS;
+                    break;
+                default:
+                    return SYNTAXERROR;
+            }
+            while (true)
+            {
+                sp -= table.getRuleLength(rule);
+                Invoker invoker = ruleInvokers[rule];
+                if (invoker != null && invoker.returnsValue)
+                {
+                    values[sp] = invoker.invoke(parser, reader, context, values, sp);
+                }
+                else
+                {
+                    if (invoker != null)
+                    {
+                        invoker.invoke(parser, reader, context, values, sp);
+                    }
+                }
+                if (rule == table.getAcceptRule())
+                {
+                    return table.hasAcceptValue() ? values[0] : null;
+                }
+                int go = table.getGoto(states[sp], table.getRuleLeft(rule));
+                sp++;
+                if ((go & KINDMASK) == SHIFT)
+                {
+                    states[sp] = go>>>KINDBITS;
+                    break;
+                }
+                rule = go>>>KINDBITS;
+            }
+        }
+    }
+    private static Invoker[] resolve(Reducer[] reducers, MethodHandles.Lookup lookup)
+    {
+        Invoker[] invokers = new Invoker[reducers.length];
+        for (int ii=0;ii<reducers.length;ii++)
+        {
+            if (reducers[ii] != null)
+            {
+                invokers[ii] = new Invoker(reducers[ii], lookup);
+            }
+        }
+        return invokers;
+    }
+    /**
+     * Resolved reducer. Method handle is adapted to take all arguments 
+     * including this in Object array.
+     */
+    private static class Invoker
+    {
+        private final MethodHandle handle;
+        private final MethodHandle parse;
+        private final int[] sources;
+        private final int offset;
+        private final boolean returnsValue;
+
+        Invoker(Reducer reducer, MethodHandles.Lookup lookup)
+        {
+            ClassLoader loader = lookup.lookupClass().getClassLoader();
+            this.sources = reducer.sources;
+            this.returnsValue = reducer.returnsValue();
+            try
+            {
+                MethodType type = MethodType.fromMethodDescriptorString(reducer.descriptor, loader);
+                if (!reducer.isSkipped())
+                {
+                    Class<?> owner = Class.forName(reducer.owner, false, loader);
+                    MethodHandle mh;
+                    if (reducer.isStatic())
+                    {
+                        mh = lookup.findStatic(owner, reducer.name, type);
+                        offset = 0;
+                    }
+                    else
+                    {
+                        mh = lookup.findVirtual(owner, reducer.name, type);
+                        offset = 1;
+                    }
+                    int count = type.parameterCount()+offset;
+                    handle = mh
+                            .asType(MethodType.genericMethodType(count))
+                            .asSpreader(Object[].class, count);
+                }
+                else
+                {
+                    handle = null;
+                    offset = 0;
+                }
+                if (sources.length > 0 && (sources[0] & SOURCEMASK) == PARSE)
+                {
+                    parse = getParser(type.parameterType(0), reducer.radix, reducer.signed);
+                }
+                else
+                {
+                    parse = null;
+                }
+            }
+            catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException ex)
+            {
+                throw new IllegalArgumentException("reducer "+reducer+" not resolved", ex);
+            }
+        }
+        /**
+         * Returns InputReader or Primitives parse method handle for type as 
+         * (Object)Object
+         * @param type
+         * @param radix
+         * @param signed
+         * @return
+         * @throws NoSuchMethodException
+         * @throws IllegalAccessException 
+         */
+        private static MethodHandle getParser(Class<?> type, int radix, boolean signed) throws NoSuchMethodException, IllegalAccessException
+        {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            String typeName = type.getName();
+            String methodName = "parse"+typeName.toUpperCase().substring(0, 1)+typeName.substring(1);
+            MethodHandle mh;
+            if (
+                    int.class.equals(type) || 
+                    long.class.equals(type) || 
+                    (radix == -1 && (short.class.equals(type) || float.class.equals(type) || double.class.equals(type)))
+                    )
+            {
+                // digits are read from input ring buffer
+                if (radix == -1)
+                {
+                    mh = lookup.findVirtual(InputReader.class, methodName, MethodType.methodType(type));
+                }
+                else
+                {
+                    mh = lookup.findVirtual(InputReader.class, methodName, MethodType.methodType(type, int.class, boolean.class));
+                    mh = MethodHandles.insertArguments(mh, 1, radix, signed);
+                }
+            }
+            else if (radix == -1)
+            {
+                mh = lookup.findStatic(Primitives.class, methodName, MethodType.methodType(type, CharSequence.class));
+            }
+            else
+            {
+                if (boolean.class.equals(type))
+                {
+                    mh = lookup.findStatic(Primitives.class, methodName, MethodType.methodType(type, CharSequence.class, int.class));
+                    mh = MethodHandles.insertArguments(mh, 1, radix);
+                }
+                else
+                {
+                    mh = lookup.findStatic(Primitives.class, methodName, MethodType.methodType(type, CharSequence.class, int.class, boolean.class));
+                    mh = MethodHandles.insertArguments(mh, 1, radix, signed);
+                }
+            }
+            return mh.asType(MethodType.genericMethodType(1));
+        }
+        Object invoke(Object parser, InputReader reader, Object[] context, Object[] values, int sp) throws Throwable
+        {
+            Object[] args = new Object[sources.length+offset];
+            if (offset > 0)
+            {
+                args[0] = parser;
+            }
+            for (int ii=0;ii<sources.length;ii++)
+            {
+                int source = sources[ii];
+                int index = source>>>SOURCEBITS;
+                Object arg;
+                switch (source & SOURCEMASK)
+                {
+                    case VALUE:
+                        arg = values[sp+index];
+                        break;
+                    case READER:
+                        arg = reader;
+                        break;
+                    case STRING:
+                        arg = reader.getString();
+                        break;
+                    case CHARS:
+                        arg = reader.getInputCharSequence();
+                        break;
+                    case PARSE:
+                        arg = (Object) parse.invokeExact((Object)reader);
+                        break;
+                    case CONTEXT:
+                        arg = context[index];
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown source "+source);
+                }
+                args[ii+offset] = arg;
+            }
+            if (handle == null)
+            {
+                // abstract reducer has no effect on value
+                return returnsValue && args.length > 0 ? args[0] : null;
+            }
+            return (Object) handle.invokeExact(args);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.vesalainen.grammar.GTerminal;
+import org.vesalainen.grammar.Grammar;
+import org.vesalainen.grammar.state.DFA;
+import org.vesalainen.grammar.state.DFAState;
+import org.vesalainen.grammar.state.NFA;
+import org.vesalainen.grammar.state.NFAState;
+import org.vesalainen.grammar.state.Scope;
+import org.vesalainen.lpg.LALRKParserGenerator;
+import org.vesalainen.lpg.Lr0State;
+import org.vesalainen.lpg.State;
+import static org.vesalainen.parser.ParserConstants.*;
+import org.vesalainen.parser.util.Input;
+import org.vesalainen.parser.util.InputReader;
+import org.vesalainen.parser.util.NumSet;
+import org.vesalainen.regex.DFATable;
+
+/**
+ * Runtime LALR(1) parser. Grammar is interpreted without generating classes.
+ * LALRKParserGenerator state list is compressed into LALRTable and terminal
+ * DFAs into DFATables. Reducers are called through method handles.
+ * 
+ * <p>Grammar can be constructed by using Grammar methods or from annotated
+ * class with AnnotatedGrammar. Reducers can be instance methods of parser 
+ * object given to parse method or static methods.
+ * 
+ * <p>Usage:
+ * <pre>
+ * LALRInterpreter interpreter = LALRInterpreter.create(grammar, "Goal", MethodHandles.lookup(), "", "WSP");
+ * Object value = interpreter.parse(parser, "1 + 2");
+ * </pre>
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ * @see org.vesalainen.parser.LALRDriver
+ */
+public final class LALRInterpreter
+{
+    private final LALRDriver driver;
+    private final DFATable[] inputs;
+
+    private LALRInterpreter(LALRTable table, DFATable[] inputs, MethodHandles.Lookup lookup)
+    {
+        this.inputs = inputs;
+        this.driver = new LALRDriver(table, this::scan, lookup);
+    }
+    /**
+     * Creates interpreter for grammar.
+     * @param grammar
+     * @param start Start nonterminal
+     * @param lookup Lookup used in resolving reducers
+     * @param eof Eof terminal name or empty string for default.
+     * @param whiteSpace Whitespace terminal names.
+     * @return
+     * @throws IOException 
+     */
+    public static LALRInterpreter create(Grammar grammar, String start, MethodHandles.Lookup lookup, String eof, String... whiteSpace) throws IOException
+    {
+        return create(grammar, start, EnumSet.noneOf(ParserFeature.class), lookup, eof, whiteSpace);
+    }
+    /**
+     * Creates interpreter for grammar.
+     * @param grammar
+     * @param start Start nonterminal
+     * @param features Only features affecting grammar, like SyntaxOnly, are used.
+     * @param lookup Lookup used in resolving reducers
+     * @param eof Eof terminal name or empty string for default.
+     * @param whiteSpace Whitespace terminal names.
+     * @param contextNames Names of @ParserContext parameters given to parse 
+     * method in the same order.
+     * @return
+     * @throws IOException 
+     */
+    public static LALRInterpreter create(Grammar grammar, String start, EnumSet<ParserFeature> features, MethodHandles.Lookup lookup, String eof, String[] whiteSpace, String... contextNames) throws IOException
+    {
+        Grammar g = new Grammar(start, grammar, eof, whiteSpace);
+        LALRKParserGenerator lrk = g.createParserGenerator(start, features);
+        Set<GTerminal> whiteSpaceSet = new NumSet<>();
+        for (GTerminal terminal : lrk.getTerminals())
+        {
+            if (terminal.isWhiteSpace())
+            {
+                whiteSpaceSet.add(terminal);
+            }
+        }
+        if (!whiteSpaceSet.isEmpty())
+        {
+            for (State state : lrk.getStateList())
+            {
+                state.getInputSet().addAll(whiteSpaceSet);
+            }
+        }
+        Map<Set<GTerminal>,Integer> inputMap = new HashMap<>();
+        for (Lr0State state : lrk.getLr0StateList())
+        {
+            if (!inputMap.containsKey(state.getInputSet()))
+            {
+                inputMap.put(state.getInputSet(), inputMap.size());
+            }
+        }
+        DFATable[] inputs = new DFATable[inputMap.size()];
+        for (Map.Entry<Set<GTerminal>,Integer> entry : inputMap.entrySet())
+        {
+            int inputNumber = entry.getValue();
+            NFA<Integer> nfa = null;
+            Scope<NFAState<Integer>> nfaScope = new Scope<>(INPUT+inputNumber);
+            Scope<DFAState<Integer>> dfaScope = new Scope<>(INPUT+inputNumber);
+            for (GTerminal terminal : entry.getKey())
+            {
+                if (terminal.getExpression() != null)
+                {
+                    if (nfa == null)
+                    {
+                        nfa = terminal.createNFA(nfaScope);
+                    }
+                    else
+                    {
+                        NFA<Integer> nfa2 = terminal.createNFA(nfaScope);
+                        nfa = new NFA(nfaScope, nfa, nfa2);
+                    }
+                }
+            }
+            if (nfa != null)
+            {
+                DFA<Integer> dfa = nfa.constructDFA(dfaScope);
+                inputs[inputNumber] = DFATable.create(dfa, ERROR, EOF);
+            }
+        }
+        int stackSize = Math.min(g.getMaxStack(), lrk.getStackSize()+lrk.getLrkLevel());
+        LALRTable table = LALRTable.create(
+                lrk, 
+                stackSize, 
+                (state)->inputMap.get(state.getInputSet()), 
+                Arrays.asList(contextNames), 
+                (reducer)->false
+        );
+        return new LALRInterpreter(table, inputs, lookup);
+    }
+    /**
+     * Scans next token. Input without expressions accepts only eof.
+     * @param parser
+     * @param input
+     * @param reader
+     * @return
+     * @throws IOException 
+     */
+    private int scan(Object parser, int input, InputReader reader) throws IOException
+    {
+        DFATable dfa = inputs[input];
+        if (dfa != null)
+        {
+            return dfa.matchInt(reader);
+        }
+        return reader.isEof() ? EOF : ERROR;
+    }
+    /**
+     * Parses text.
+     * @param parser Instance having reducer methods. Null if reducers are 
+     * static.
+     * @param text
+     * @param context @ParserContext values in the order of context names.
+     * @return Value of start symbol or null if start symbol has no value.
+     * @throws IOException 
+     */
+    public Object parse(Object parser, CharSequence text, Object... context) throws IOException
+    {
+        return parse(parser, Input.getInstance(text), context);
+    }
+    /**
+     * Parses input.
+     * @param parser Instance having reducer methods. Null if reducers are 
+     * static.
+     * @param reader
+     * @param context @ParserContext values in the order of context names.
+     * @return Value of start symbol or null if start symbol has no value.
+     * @throws IOException 
+     */
+    public Object parse(Object parser, InputReader reader, Object... context) throws IOException
+    {
+        return driver.parse(parser, reader, context);
+    }
+    /**
+     * Creates push mode parsing session.
+     * @param parser Instance having reducer methods. Null if reducers are 
+     * static.
+     * @param reader Non-blocking input, like FeedInput.
+     * @param context @ParserContext values in the order of context names.
+     * @return 
+     * @see org.vesalainen.parser.LALRDriver#push(java.lang.Object, org.vesalainen.parser.util.InputReader, java.lang.Object[]) 
+     */
+    public LALRDriver.Session push(Object parser, InputReader reader, Object... context)
+    {
+        return driver.push(parser, reader, context);
+    }
+    
+    public LALRTable getTable()
+    {
+        return driver.getTable();
+    }
+}
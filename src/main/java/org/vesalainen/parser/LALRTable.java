@@ -0,0 +1,884 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import org.vesalainen.bcc.model.Typ;
+import org.vesalainen.grammar.GRule;
+import org.vesalainen.grammar.GTerminal;
+import org.vesalainen.grammar.Nonterminal;
+import org.vesalainen.grammar.Symbol;
+import org.vesalainen.lpg.Action;
+import org.vesalainen.lpg.Goto;
+import org.vesalainen.lpg.LALRKParserGenerator;
+import org.vesalainen.lpg.Lr0State;
+import org.vesalainen.lpg.Reduce;
+import org.vesalainen.lpg.Shift;
+import static org.vesalainen.parser.ParserConstants.INPUTREADER;
+import org.vesalainen.parser.annotation.ParserContext;
+import org.vesalainen.parser.util.InputCharSequence;
+import org.vesalainen.parser.util.InputReader;
+import org.vesalainen.parser.util.Reducers;
+import org.vesalainen.parser.util.TableEncoding.Decoder;
+import org.vesalainen.parser.util.TableEncoding.Encoder;
+
+/**
+ * Compressed LALR(1) ACTION and GOTO tables. Tables are built from 
+ * LALRKParserGenerator LR(0) state list and packed into comb vectors (row
+ * displacement). ACTION table has no default entries so that syntax errors
+ * are detected in the same state as in compiled parser. GOTO table uses 
+ * most common target per nonterminal as default.
+ * 
+ * <p>Reducers are stored as descriptors which are resolved to method handles
+ * by LALRDriver. Tables are encoded as a string which can be stored in class
+ * constant pool.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ * @see org.vesalainen.parser.LALRDriver
+ */
+public final class LALRTable
+{
+    private static final char VERSION = 1;
+    // action kinds. Action target is stored in bits above kind.
+    static final int KINDBITS = 2;
+    static final int KINDMASK = 3;
+    static final int ERROR = 0;
+    static final int SHIFT = 1;
+    static final int REDUCE = 2;
+    static final int SHIFTREDUCE = 3;
+    // reducer parameter sources. Index is stored in bits above source.
+    static final int SOURCEBITS = 3;
+    static final int SOURCEMASK = 7;
+    static final int VALUE = 0;
+    static final int READER = 1;
+    static final int STRING = 2;
+    static final int CHARS = 3;
+    static final int PARSE = 4;
+    static final int CONTEXT = 5;
+    // reducer flags
+    static final int STATIC = 1;
+    static final int SKIP = 2;
+    
+    private final int stackSize;
+    private final int[] input;
+    private final int[] actionBase;
+    private final int[] actionNext;
+    private final int[] actionCheck;
+    private final int[] gotoBase;
+    private final int[] gotoDefault;
+    private final int[] gotoNext;
+    private final int[] gotoCheck;
+    private final int[] ruleLeft;
+    private final int[] ruleLength;
+    private final int acceptRule;
+    private final boolean acceptValue;
+    private final boolean[] whiteSpace;
+    private final String[] contextNames;
+    private final Reducer[] ruleReducers;
+    private final Reducer[] terminalReducers;
+
+    private LALRTable(
+            int stackSize, 
+            int[] input, 
+            int[] actionBase, 
+            int[] actionNext, 
+            int[] actionCheck, 
+            int[] gotoBase, 
+            int[] gotoDefault, 
+            int[] gotoNext, 
+            int[] gotoCheck, 
+            int[] ruleLeft, 
+            int[] ruleLength, 
+            int acceptRule, 
+            boolean acceptValue, 
+            boolean[] whiteSpace, 
+            String[] contextNames, 
+            Reducer[] ruleReducers, 
+            Reducer[] terminalReducers)
+    {
+        this.stackSize = stackSize;
+        this.input = input;
+        this.actionBase = actionBase;
+        this.actionNext = actionNext;
+        this.actionCheck = actionCheck;
+        this.gotoBase = gotoBase;
+        this.gotoDefault = gotoDefault;
+        this.gotoNext = gotoNext;
+        this.gotoCheck = gotoCheck;
+        this.ruleLeft = ruleLeft;
+        this.ruleLength = ruleLength;
+        this.acceptRule = acceptRule;
+        this.acceptValue = acceptValue;
+        this.whiteSpace = whiteSpace;
+        this.contextNames = contextNames;
+        this.ruleReducers = ruleReducers;
+        this.terminalReducers = terminalReducers;
+    }
+    /**
+     * Creates tables for LALR(1) grammar.
+     * @param lrk Parser generator
+     * @param stackSize Size of state and value stacks
+     * @param inputNumber Returns input (scanner) number for state.
+     * @param contextNames Names of @ParserContext parameters available for reducers.
+     * @param implemented Returns true for reducers which are not called.
+     * (Abstract methods implemented by generated class)
+     * @return 
+     */
+    public static LALRTable create(
+            LALRKParserGenerator lrk, 
+            int stackSize,
+            ToIntFunction<Lr0State> inputNumber, 
+            List<String> contextNames,
+            Predicate<ExecutableElement> implemented
+            )
+    {
+        if (lrk.isLrk())
+        {
+            throw new IllegalArgumentException("table driven parser doesn't support LALR(k) grammars");
+        }
+        List<Lr0State> stateList = lrk.getLr0StateList();
+        int stateCount = stateList.size();
+        int[] input = new int[stateCount+1];
+        int[] actionBase = new int[stateCount+1];
+        Comb actions = new Comb();
+        for (Lr0State state : stateList)
+        {
+            int number = state.getNumber();
+            input[number] = inputNumber.applyAsInt(state);
+            Map<Integer,Integer> row = new TreeMap<>();
+            for (Shift shift : state.getShiftList())
+            {
+                row.put(shift.getSymbol().getNumber(), encode(shift.getAction(), SHIFT, SHIFTREDUCE));
+            }
+            for (Reduce reduce : state.getReduceList())
+            {
+                row.put(reduce.getSymbol().getNumber(), encode(REDUCE, reduce.getRule().getNumber()));
+            }
+            actionBase[number] = actions.add(number, row);
+        }
+        int symbolCount = 0;
+        for (GTerminal terminal : lrk.getTerminals())
+        {
+            symbolCount = Math.max(symbolCount, terminal.getNumber()+1);
+        }
+        for (Nonterminal nonterminal : lrk.getNonterminals())
+        {
+            symbolCount = Math.max(symbolCount, nonterminal.getNumber()+1);
+        }
+        Map<Integer,Map<Integer,Integer>> gotoMap = new HashMap<>();
+        for (Lr0State state : stateList)
+        {
+            for (Goto go : state.getGotoList())
+            {
+                int nt = go.getSymbol().getNumber();
+                Map<Integer, Integer> column = gotoMap.get(nt);
+                if (column == null)
+                {
+                    column = new TreeMap<>();
+                    gotoMap.put(nt, column);
+                }
+                column.put(state.getNumber(), encode(go.getAction(), SHIFT, SHIFTREDUCE));
+            }
+        }
+        int[] gotoBase = new int[symbolCount];
+        int[] gotoDefault = new int[symbolCount];
+        Comb gotos = new Comb();
+        for (Entry<Integer,Map<Integer,Integer>> entry : gotoMap.entrySet())
+        {
+            int nt = entry.getKey();
+            Map<Integer, Integer> column = entry.getValue();
+            int def = mostCommon(column.values());
+            column.values().removeIf((v)->v == def);
+            gotoDefault[nt] = def;
+            gotoBase[nt] = gotos.add(nt, column);
+        }
+        int ruleCount = 0;
+        for (GRule rule : lrk.getRules())
+        {
+            ruleCount = Math.max(ruleCount, rule.getNumber()+1);
+        }
+        int[] ruleLeft = new int[ruleCount];
+        int[] ruleLength = new int[ruleCount];
+        Reducer[] ruleReducers = new Reducer[ruleCount];
+        int acceptRule = -1;
+        boolean acceptValue = false;
+        for (GRule rule : lrk.getRules())
+        {
+            int number = rule.getNumber();
+            ruleLeft[number] = rule.getLeft().getNumber();
+            ruleLength[number] = rule.getRight().size();
+            ExecutableElement reducer = rule.getReducer();
+            if (reducer != null)
+            {
+                ruleReducers[number] = createRuleReducer(rule, contextNames, implemented);
+            }
+            if (rule.isAccepting())
+            {
+                acceptRule = number;
+                Nonterminal s = (Nonterminal) rule.getRight().get(0);
+                ExecutableElement r = s.getLhsRule().get(0).getReducer();
+                acceptValue = r != null && r.getReturnType().getKind() != TypeKind.VOID;
+            }
+        }
+        boolean[] whiteSpace = new boolean[symbolCount];
+        Reducer[] terminalReducers = new Reducer[symbolCount];
+        for (GTerminal terminal : lrk.getTerminals())
+        {
+            int number = terminal.getNumber();
+            whiteSpace[number] = terminal.isWhiteSpace();
+            ExecutableElement reducer = terminal.getReducer();
+            if (terminal.getExpression() != null && reducer != null)
+            {
+                if (terminal.isWhiteSpace() && reducer.getReturnType().getKind() != TypeKind.VOID)
+                {
+                    throw new UnsupportedOperationException("table driven parser doesn't support inserting whitespace "+terminal);
+                }
+                terminalReducers[number] = createTerminalReducer(terminal, contextNames, implemented);
+            }
+        }
+        return new LALRTable(
+                stackSize, 
+                input, 
+                actionBase, 
+                actions.getNext(), 
+                actions.getCheck(), 
+                gotoBase, 
+                gotoDefault, 
+                gotos.getNext(), 
+                gotos.getCheck(), 
+                ruleLeft, 
+                ruleLength, 
+                acceptRule, 
+                acceptValue, 
+                whiteSpace, 
+                contextNames.toArray(new String[contextNames.size()]), 
+                ruleReducers, 
+                terminalReducers
+        );
+    }
+    /**
+     * Returns encoded action for state or rule action.
+     * @param action
+     * @param stateKind Kind for state target
+     * @param ruleKind Kind for rule target
+     * @return 
+     */
+    private static int encode(Action action, int stateKind, int ruleKind)
+    {
+        if (action instanceof Lr0State)
+        {
+            return encode(stateKind, ((Lr0State)action).getNumber());
+        }
+        if (action instanceof GRule)
+        {
+            return encode(ruleKind, ((GRule)action).getNumber());
+        }
+        throw new IllegalArgumentException(action+" not supported in table driven parser");
+    }
+    private static int encode(int kind, int target)
+    {
+        return (target<<KINDBITS)|kind;
+    }
+    private static int mostCommon(Iterable<Integer> values)
+    {
+        Map<Integer,Integer> count = new HashMap<>();
+        int max = 0;
+        int common = ERROR;
+        for (int value : values)
+        {
+            int c = count.getOrDefault(value, 0)+1;
+            count.put(value, c);
+            if (c > max)
+            {
+                max = c;
+                common = value;
+            }
+        }
+        return common;
+    }
+    private static Reducer createRuleReducer(GRule rule, List<String> contextNames, Predicate<ExecutableElement> implemented)
+    {
+        ExecutableElement reducer = rule.getReducer();
+        List<? extends VariableElement> parameters = reducer.getParameters();
+        List<Integer> sources = new ArrayList<>();
+        int paramIndex = 0;
+        int symbolIndex = 0;
+        for (Symbol symbol : rule.getRight())
+        {
+            TypeMirror rt = symbol.getReducerType();
+            if (rt.getKind() != TypeKind.VOID)
+            {
+                if (paramIndex >= parameters.size())
+                {
+                    throw new IllegalArgumentException("reducer "+reducer+" has too few parameters for "+rule);
+                }
+                TypeMirror param = parameters.get(paramIndex).asType();
+                if (!Typ.isAssignable(rt, param) && !Reducers.isGet(symbol.getReducer()))
+                {
+                    throw new IllegalArgumentException(symbol+" returntype="+rt+" cannot be used as "+paramIndex+" argument in reducer "+reducer+" expecting "+param);
+                }
+                sources.add((symbolIndex<<SOURCEBITS)|VALUE);
+                paramIndex++;
+            }
+            symbolIndex++;
+        }
+        addContextSources(sources, reducer, paramIndex, contextNames);
+        return new Reducer(reducer, sources, implemented, -1, false);
+    }
+    private static Reducer createTerminalReducer(GTerminal terminal, List<String> contextNames, Predicate<ExecutableElement> implemented)
+    {
+        ExecutableElement reducer = terminal.getReducer();
+        List<? extends VariableElement> parameters = reducer.getParameters();
+        List<Integer> sources = new ArrayList<>();
+        if (parameters.size() > 0)
+        {
+            if (parameters.get(0).getAnnotation(ParserContext.class) != null)
+            {
+                addContextSources(sources, reducer, 0, contextNames);
+            }
+            else
+            {
+                TypeMirror paramType = parameters.get(0).asType();
+                if (Typ.isAssignable(Typ.getTypeFor(InputReader.class), paramType))
+                {
+                    sources.add(READER);
+                }
+                else
+                {
+                    if (Typ.isPrimitive(paramType))
+                    {
+                        sources.add(PARSE);
+                    }
+                    else
+                    {
+                        if (Typ.isSameType(paramType, Typ.String))
+                        {
+                            sources.add(STRING);
+                        }
+                        else
+                        {
+                            if (Typ.isSameType(paramType, Typ.getTypeFor(InputCharSequence.class)))
+                            {
+                                sources.add(CHARS);
+                            }
+                            else
+                            {
+                                throw new IllegalArgumentException("no parse method for non primitive type "+paramType+" at "+terminal);
+                            }
+                        }
+                    }
+                }
+                addContextSources(sources, reducer, 1, contextNames);
+            }
+        }
+        return new Reducer(reducer, sources, implemented, terminal.getBase(), terminal.isSigned());
+    }
+    private static void addContextSources(List<Integer> sources, ExecutableElement reducer, int start, List<String> contextNames)
+    {
+        List<? extends VariableElement> parameters = reducer.getParameters();
+        for (int ii=start;ii < parameters.size();ii++)
+        {
+            ParserContext parserContext = parameters.get(ii).getAnnotation(ParserContext.class);
+            if (parserContext != null)
+            {
+                if (INPUTREADER.equals(parserContext.value()))
+                {
+                    sources.add(READER);
+                }
+                else
+                {
+                    int index = contextNames.indexOf(parserContext.value());
+                    if (index == -1)
+                    {
+                        throw new IllegalArgumentException("@ParserContext("+parserContext.value()+") of reducer "+reducer+" is not available in table driven parser");
+                    }
+                    sources.add((index<<SOURCEBITS)|CONTEXT);
+                }
+            }
+            else
+            {
+                if (Typ.isAssignable(parameters.get(ii).asType(), Typ.getTypeFor(InputReader.class)))
+                {
+                    sources.add(READER);
+                }
+                else
+                {
+                    throw new IllegalArgumentException("reducer "+reducer+" has extra parameters which are not @ParserContext");
+                }
+            }
+        }
+    }
+    /**
+     * Returns encoded action for state and terminal.
+     * @param state
+     * @param terminal
+     * @return 
+     */
+    int getAction(int state, int terminal)
+    {
+        int index = actionBase[state]+terminal;
+        if (index >= 0 && index < actionCheck.length && actionCheck[index] == state)
+        {
+            return actionNext[index];
+        }
+        return ERROR;
+    }
+    /**
+     * Returns encoded goto action for state and nonterminal
+     * @param state
+     * @param nonterminal
+     * @return 
+     */
+    int getGoto(int state, int nonterminal)
+    {
+        int index = gotoBase[nonterminal]+state;
+        if (index >= 0 && index < gotoCheck.length && gotoCheck[index] == nonterminal)
+        {
+            return gotoNext[index];
+        }
+        return gotoDefault[nonterminal];
+    }
+    /**
+     * Returns input number of state.
+     * @param state
+     * @return 
+     */
+    public int getInput(int state)
+    {
+        return input[state];
+    }
+    /**
+     * Returns the number of states. States are numbered from 1.
+     * @return 
+     */
+    public int getStateCount()
+    {
+        return input.length-1;
+    }
+    public int getStackSize()
+    {
+        return stackSize;
+    }
+    /**
+     * Returns the number of comb vector entries in ACTION and GOTO tables.
+     * @return 
+     */
+    public int getTableSize()
+    {
+        return actionNext.length+gotoNext.length;
+    }
+    int getRuleLeft(int rule)
+    {
+        return ruleLeft[rule];
+    }
+    int getRuleLength(int rule)
+    {
+        return ruleLength[rule];
+    }
+    int getAcceptRule()
+    {
+        return acceptRule;
+    }
+    /**
+     * Returns true if start symbol has a value.
+     * @return 
+     */
+    public boolean hasAcceptValue()
+    {
+        return acceptValue;
+    }
+    boolean isWhiteSpace(int terminal)
+    {
+        return whiteSpace[terminal];
+    }
+    Reducer[] getRuleReducers()
+    {
+        return ruleReducers;
+    }
+    Reducer[] getTerminalReducers()
+    {
+        return terminalReducers;
+    }
+    public String[] getContextNames()
+    {
+        return contextNames.clone();
+    }
+    /**
+     * Creates table from encoded string.
+     * @param encoded
+     * @return 
+     * @see #encode() 
+     */
+    public static LALRTable decode(String encoded)
+    {
+        Decoder d = new Decoder(encoded);
+        if (d.readChar() != VERSION)
+        {
+            throw new IllegalArgumentException("unknown lalr table version");
+        }
+        int stackSize = d.readInt();
+        int[] input = d.readInts();
+        int[] actionBase = d.readInts();
+        int[] actionNext = d.readInts();
+        int[] actionCheck = d.readInts();
+        int[] gotoBase = d.readInts();
+        int[] gotoDefault = d.readInts();
+        int[] gotoNext = d.readInts();
+        int[] gotoCheck = d.readInts();
+        int[] ruleLeft = d.readInts();
+        int[] ruleLength = d.readInts();
+        int acceptRule = d.readInt();
+        boolean acceptValue = d.readChar() != 0;
+        boolean[] whiteSpace = new boolean[d.readInt()];
+        for (int ii=0;ii<whiteSpace.length;ii++)
+        {
+            whiteSpace[ii] = d.readChar() != 0;
+        }
+        String[] contextNames = new String[d.readInt()];
+        for (int ii=0;ii<contextNames.length;ii++)
+        {
+            contextNames[ii] = d.readString();
+        }
+        Reducer[] ruleReducers = readReducers(d);
+        Reducer[] terminalReducers = readReducers(d);
+        return new LALRTable(
+                stackSize, 
+                input, 
+                actionBase, 
+                actionNext, 
+                actionCheck, 
+                gotoBase, 
+                gotoDefault, 
+                gotoNext, 
+                gotoCheck, 
+                ruleLeft, 
+                ruleLength, 
+                acceptRule, 
+                acceptValue, 
+                whiteSpace, 
+                contextNames, 
+                ruleReducers, 
+                terminalReducers
+        );
+    }
+    /**
+     * Encodes table as string.
+     * @return 
+     */
+    public String encode()
+    {
+        Encoder e = new Encoder();
+        e.writeChar(VERSION);
+        e.writeInt(stackSize);
+        e.writeInts(input);
+        e.writeInts(actionBase);
+        e.writeInts(actionNext);
+        e.writeInts(actionCheck);
+        e.writeInts(gotoBase);
+        e.writeInts(gotoDefault);
+        e.writeInts(gotoNext);
+        e.writeInts(gotoCheck);
+        e.writeInts(ruleLeft);
+        e.writeInts(ruleLength);
+        e.writeInt(acceptRule);
+        e.writeChar(acceptValue ? 1 : 0);
+        e.writeInt(whiteSpace.length);
+        for (boolean b : whiteSpace)
+        {
+            e.writeChar(b ? 1 : 0);
+        }
+        e.writeInt(contextNames.length);
+        for (String name : contextNames)
+        {
+            e.writeString(name);
+        }
+        writeReducers(e, ruleReducers);
+        writeReducers(e, terminalReducers);
+        return e.toString();
+    }
+    private static void writeReducers(Encoder e, Reducer[] reducers)
+    {
+        e.writeInt(reducers.length);
+        for (Reducer r : reducers)
+        {
+            if (r != null)
+            {
+                e.writeChar(1);
+                e.writeString(r.owner);
+                e.writeString(r.name);
+                e.writeString(r.descriptor);
+                e.writeInt(r.flags);
+                e.writeInts(r.sources);
+                e.writeInt(r.radix);
+                e.writeChar(r.signed ? 1 : 0);
+            }
+            else
+            {
+                e.writeChar(0);
+            }
+        }
+    }
+    private static Reducer[] readReducers(Decoder d)
+    {
+        Reducer[] reducers = new Reducer[d.readInt()];
+        for (int ii=0;ii<reducers.length;ii++)
+        {
+            if (d.readChar() != 0)
+            {
+                reducers[ii] = new Reducer(
+                        d.readString(), 
+                        d.readString(), 
+                        d.readString(), 
+                        d.readInt(), 
+                        d.readInts(), 
+                        d.readInt(), 
+                        d.readChar() != 0
+                );
+            }
+        }
+        return reducers;
+    }
+    /**
+     * Returns binary name of type. E.g. java.util.Map$Entry
+     * @param type
+     * @return 
+     */
+    static String getBinaryName(TypeElement type)
+    {
+        Element enclosing = type.getEnclosingElement();
+        if (enclosing instanceof TypeElement)
+        {
+            return getBinaryName((TypeElement) enclosing)+"$"+type.getSimpleName();
+        }
+        return type.getQualifiedName().toString();
+    }
+    /**
+     * Returns JVM method descriptor of method.
+     * @param method
+     * @return 
+     */
+    static String getDescriptor(ExecutableElement method)
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append('(');
+        for (VariableElement param : method.getParameters())
+        {
+            appendDescriptor(sb, param.asType());
+        }
+        sb.append(')');
+        appendDescriptor(sb, method.getReturnType());
+        return sb.toString();
+    }
+    private static void appendDescriptor(StringBuilder sb, TypeMirror type)
+    {
+        switch (type.getKind())
+        {
+            case BOOLEAN:
+                sb.append('Z');
+                break;
+            case BYTE:
+                sb.append('B');
+                break;
+            case CHAR:
+                sb.append('C');
+                break;
+            case SHORT:
+                sb.append('S');
+                break;
+            case INT:
+                sb.append('I');
+                break;
+            case LONG:
+                sb.append('J');
+                break;
+            case FLOAT:
+                sb.append('F');
+                break;
+            case DOUBLE:
+                sb.append('D');
+                break;
+            case VOID:
+                sb.append('V');
+                break;
+            case ARRAY:
+                sb.append('[');
+                appendDescriptor(sb, ((ArrayType)type).getComponentType());
+                break;
+            case DECLARED:
+                sb.append('L');
+                sb.append(getBinaryName((TypeElement) ((DeclaredType)type).asElement()).replace('.', '/'));
+                sb.append(';');
+                break;
+            case TYPEVAR:
+                appendDescriptor(sb, ((TypeVariable)type).getUpperBound());
+                break;
+            default:
+                throw new IllegalArgumentException(type+" not supported");
+        }
+    }
+    /**
+     * Reducer method descriptor.
+     */
+    static final class Reducer
+    {
+        final String owner;
+        final String name;
+        final String descriptor;
+        final int flags;
+        final int[] sources;
+        final int radix;
+        final boolean signed;
+
+        private Reducer(ExecutableElement reducer, List<Integer> sources, Predicate<ExecutableElement> implemented, int radix, boolean signed)
+        {
+            this.owner = getBinaryName((TypeElement) reducer.getEnclosingElement());
+            this.name = reducer.getSimpleName().toString();
+            this.descriptor = getDescriptor(reducer);
+            int f = 0;
+            if (reducer.getModifiers().contains(Modifier.STATIC))
+            {
+                f |= STATIC;
+            }
+            if (implemented.test(reducer) || reducer.getModifiers().contains(Modifier.ABSTRACT))
+            {
+                f |= SKIP;
+            }
+            this.flags = f;
+            this.sources = new int[sources.size()];
+            for (int ii=0;ii<this.sources.length;ii++)
+            {
+                this.sources[ii] = sources.get(ii);
+            }
+            this.radix = radix;
+            this.signed = signed;
+        }
+
+        private Reducer(String owner, String name, String descriptor, int flags, int[] sources, int radix, boolean signed)
+        {
+            this.owner = owner;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.flags = flags;
+            this.sources = sources;
+            this.radix = radix;
+            this.signed = signed;
+        }
+
+        boolean isStatic()
+        {
+            return (flags & STATIC) != 0;
+        }
+        
+        boolean isSkipped()
+        {
+            return (flags & SKIP) != 0;
+        }
+        
+        boolean returnsValue()
+        {
+            return !descriptor.endsWith(")V");
+        }
+        
+        @Override
+        public String toString()
+        {
+            return owner+"."+name+descriptor;
+        }
+        
+    }
+    /**
+     * Comb vector. Rows are placed at first displacement where their entries
+     * fit in free slots. Check vector contains the owner of slot.
+     */
+    private static class Comb
+    {
+        private int[] next = new int[256];
+        private int[] check = new int[256];
+        private int size;
+
+        public Comb()
+        {
+            Arrays.fill(check, -1);
+        }
+        
+        int add(int owner, Map<Integer,Integer> row)
+        {
+            if (row.isEmpty())
+            {
+                return 0;
+            }
+            int base = -row.keySet().iterator().next();
+            while (!fits(base, row))
+            {
+                base++;
+            }
+            for (Entry<Integer,Integer> entry : row.entrySet())
+            {
+                int index = base+entry.getKey();
+                if (index >= next.length)
+                {
+                    int length = Math.max(index+1, 2*next.length);
+                    next = Arrays.copyOf(next, length);
+                    int old = check.length;
+                    check = Arrays.copyOf(check, length);
+                    Arrays.fill(check, old, length, -1);
+                }
+                next[index] = entry.getValue();
+                check[index] = owner;
+                size = Math.max(size, index+1);
+            }
+            return base;
+        }
+        private boolean fits(int base, Map<Integer,Integer> row)
+        {
+            for (int column : row.keySet())
+            {
+                int index = base+column;
+                if (index < check.length && check[index] != -1)
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+        int[] getNext()
+        {
+            return Arrays.copyOf(next, size);
+        }
+        int[] getCheck()
+        {
+            return Arrays.copyOf(check, size);
+        }
+    }
+}
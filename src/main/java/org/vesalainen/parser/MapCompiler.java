@@ -35,6 +35,7 @@ import org.vesalainen.parser.util.InputReader;
 import org.vesalainen.regex.MatchCompiler;
 import org.vesalainen.regex.RegexParserFactory;
 import org.vesalainen.regex.RegexParserIntf;
+import org.vesalainen.regex.TableMatchCompiler;
 
 /**
  * @author Timo Vesalainen
@@ -64,11 +65,23 @@ public class MapCompiler extends GenClassCompiler
 
         Map<String,String> map = createMap(mapDef);
         DFA<String> dfa = createDFA(map);
-        MatchCompiler<String> ic = new MatchCompiler<>(
-                dfa, 
-                mapDef.error(), 
-                mapDef.eof()
-                );
+        MatchCompiler<String> ic;
+        if (mapDef.table())
+        {
+            ic = new TableMatchCompiler<>(
+                    dfa, 
+                    mapDef.error(), 
+                    mapDef.eof()
+                    );
+        }
+        else
+        {
+            ic = new MatchCompiler<>(
+                    dfa, 
+                    mapDef.error(), 
+                    mapDef.eof()
+                    );
+        }
         subClass.overrideMethod(ic, Modifier.PUBLIC, "input", InputReader.class);
     }
 
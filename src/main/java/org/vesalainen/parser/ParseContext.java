@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser;
+
+import java.util.Arrays;
+import javax.lang.model.type.TypeKind;
+
+/**
+ * Arena of parser stacks. Parse methods compiled with UseParseContext feature
+ * acquire their stacks from thread's ParseContext instead of allocating new 
+ * arrays for every call. Stacks are cleared and returned to context when 
+ * parse method returns. Stacks of a parse method ending in exception are 
+ * left for garbage collector.
+ * 
+ * <p>Nested parse calls in same thread get different stack frames.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ * @see ParserFeature#UseParseContext
+ */
+public class ParseContext
+{
+    private static final ThreadLocal<ParseContext> threadLocal = ThreadLocal.withInitial(ParseContext::new);
+    private StackFrame free;
+    /**
+     * Returns current threads ParseContext.
+     * @return 
+     */
+    public static ParseContext get()
+    {
+        return threadLocal.get();
+    }
+    /**
+     * Sets caller supplied ParseContext for current thread.
+     * @param context 
+     */
+    public static void set(ParseContext context)
+    {
+        if (context == null)
+        {
+            throw new IllegalArgumentException("null context");
+        }
+        threadLocal.set(context);
+    }
+    /**
+     * Returns stack frame with at least stackSize capacity.
+     * @param stackSize
+     * @return 
+     */
+    public StackFrame acquire(int stackSize)
+    {
+        StackFrame frame = free;
+        if (frame != null)
+        {
+            free = frame.next;
+            frame.next = null;
+            if (frame.capacity >= stackSize)
+            {
+                return frame;
+            }
+        }
+        return new StackFrame(stackSize);
+    }
+    /**
+     * Clears stack frame and returns it to context.
+     * @param frame 
+     */
+    public void release(StackFrame frame)
+    {
+        frame.clear();
+        frame.next = free;
+        free = frame;
+    }
+    /**
+     * Stacks of one parse method invocation.
+     */
+    public static class StackFrame
+    {
+        private final int capacity;
+        private final int[] stateStack;
+        private final int[] typeStack;
+        private final Object[] valueStack = new Object[TypeKind.values().length];
+        private String[] sourceStack;
+        private int[] lineStack;
+        private int[] columnStack;
+        private int[] offsetStack;
+        private StackFrame next;
+
+        private StackFrame(int capacity)
+        {
+            this.capacity = capacity;
+            this.stateStack = new int[capacity];
+            this.typeStack = new int[capacity];
+        }
+        
+        private void clear()
+        {
+            Object[] refs = (Object[]) valueStack[TypeKind.DECLARED.ordinal()];
+            if (refs != null)
+            {
+                Arrays.fill(refs, null);
+            }
+            if (sourceStack != null)
+            {
+                Arrays.fill(sourceStack, null);
+            }
+        }
+
+        public int[] getStateStack()
+        {
+            return stateStack;
+        }
+
+        public int[] getTypeStack()
+        {
+            return typeStack;
+        }
+        /**
+         * Returns value stack. Typed stacks must be ensured.
+         * @return 
+         * @see #ensureValueStack(int) 
+         */
+        public Object[] getValueStack()
+        {
+            return valueStack;
+        }
+        /**
+         * Creates typed value stack for type number (=TypeKind ordinal) if 
+         * it doesn't exist.
+         * @param type 
+         */
+        public void ensureValueStack(int type)
+        {
+            if (valueStack[type] == null)
+            {
+                valueStack[type] = newStack(TypeKind.values()[type]);
+            }
+        }
+        
+        private Object newStack(TypeKind type)
+        {
+            switch (type)
+            {
+                case BOOLEAN:
+                    return new boolean[capacity];
+                case BYTE:
+                    return new byte[capacity];
+                case CHAR:
+                    return new char[capacity];
+                case DOUBLE:
+                    return new double[capacity];
+                case FLOAT:
+                    return new float[capacity];
+                case INT:
+                    return new int[capacity];
+                case LONG:
+                    return new long[capacity];
+                case DECLARED:
+                    return new Object[capacity];
+                case SHORT:
+                    return new short[capacity];
+                default:
+                    throw new IllegalArgumentException(type+" not supported");
+            }
+        }
+
+        public String[] getSourceStack()
+        {
+            if (sourceStack == null)
+            {
+                sourceStack = new String[capacity];
+            }
+            return sourceStack;
+        }
+
+        public int[] getLineStack()
+        {
+            if (lineStack == null)
+            {
+                lineStack = new int[capacity];
+            }
+            return lineStack;
+        }
+
+        public int[] getColumnStack()
+        {
+            if (columnStack == null)
+            {
+                columnStack = new int[capacity];
+            }
+            return columnStack;
+        }
+
+        public int[] getOffsetStack()
+        {
+            if (offsetStack == null)
+            {
+                offsetStack = new int[capacity];
+            }
+            return offsetStack;
+        }
+        
+    }
+}
@@ -21,10 +21,13 @@ import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.zip.Checksum;
+import javax.annotation.processing.FilerException;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
@@ -35,6 +38,7 @@ import javax.lang.model.type.TypeKind;
 import static javax.lang.model.type.TypeKind.DECLARED;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
 import org.vesalainen.bcc.AccessFlags.FieldFlags;
 import org.vesalainen.bcc.Block;
 import org.vesalainen.bcc.FieldInitializer;
@@ -72,10 +76,14 @@ import org.vesalainen.parser.annotation.Rules;
 import org.vesalainen.parser.annotation.Terminal;
 import org.vesalainen.parser.annotation.TraceMethod;
 import org.vesalainen.parser.util.ChecksumProvider;
+import org.vesalainen.parser.util.HtmlPrinter;
 import org.vesalainen.parser.util.Input;
 import org.vesalainen.parser.util.InputReader;
 import org.vesalainen.parser.util.PeekableIterator;
+import org.vesalainen.parser.util.StringTable;
+import org.vesalainen.parser.util.StringTableProvider;
 import org.vesalainen.regex.MatchCompiler;
+import org.vesalainen.regex.TableMatchCompiler;
 import org.vesalainen.util.EnumSetFlagger;
 import org.vesalainen.util.HashMapSet;
 import org.vesalainen.util.MapSet;
@@ -86,9 +94,14 @@ import org.vesalainen.util.MapSet;
  */
 public class ParserCompiler extends GenClassCompiler
 {
+    /**
+     * HotSpot doesn't JIT compile methods larger than this. (DontCompileHugeMethods)
+     */
+    public static final int HUGEMETHODLIMIT = 8000;
     private final Grammar grammar;
     private final Map<Set<GTerminal>,Integer> inputMap = new HashMap<>();
     private final MapSet<Set<GTerminal>,State> inputSetUsageMap = new HashMapSet<>();
+    private final Set<Integer> laInputs = new HashSet<>();
     private final Map<Integer,String> expectedMap = new HashMap<>();
     private ExecutableElement recoverMethod;
     private ExecutableElement traceMethod;
@@ -101,6 +114,7 @@ public class ParserCompiler extends GenClassCompiler
     private final EnumSet<TypeKind> usedTypes = EnumSet.noneOf(TypeKind.class);
     private int stackSize;
     private final EnumSet<ParserFeature> features =  EnumSet.noneOf(ParserFeature.class);
+    private final Map<String,Integer> methodSizes = new LinkedHashMap<>();
 
     /**
      * Creates a parser using grammar.
@@ -152,6 +166,7 @@ public class ParserCompiler extends GenClassCompiler
         {
             compileParserInfo();
         }
+        printMethodSizes();
         super.compile();
     }
 
@@ -201,6 +216,19 @@ public class ParserCompiler extends GenClassCompiler
             return n;
         }
     }
+    /**
+     * Returns input number for look-ahead state. Look-ahead input is unread
+     * after reading, so white-space of it cannot be skipped.
+     * @param inputSet
+     * @param state
+     * @return 
+     */
+    int getLaInputNumber(Set<GTerminal> inputSet, State state)
+    {
+        int inputNumber = getInputNumber(inputSet, state);
+        laInputs.add(inputNumber);
+        return inputNumber;
+    }
     private void findFeatures()
     {
         for (ExecutableElement method : ElementFilter.methodsIn(El.getAllMembers(superClass)))
@@ -272,6 +300,7 @@ public class ParserCompiler extends GenClassCompiler
                     stackSize = Math.max(stackSize, lrk.getStackSize()+lrk.getLrkLevel());
                 }
                 stackSize = Math.min(stackSize, grammar.getMaxStack());
+                final boolean inputReaderParameter = Typ.isAssignable(parameters.get(0).asType(), Typ.getTypeFor(InputReader.class));
                 MethodCompiler mc = new MethodCompiler()
                 {
                     @Override
@@ -289,7 +318,7 @@ public class ParserCompiler extends GenClassCompiler
                             nameArgument(contextList.get(ii), ii+2);
                         }
                         tload(THIS);
-                        if (Typ.isAssignable(parameters.get(0).asType(), Typ.getTypeFor(InputReader.class)))
+                        if (inputReaderParameter)
                         {
                             tload(IN);
                         }
@@ -328,6 +357,10 @@ public class ParserCompiler extends GenClassCompiler
                         }
                         dup();
                         tstore(InputReader);
+                        if (features.contains(UseLineIndex) && features.contains(UsePushback))
+                        {
+                            throw new IllegalArgumentException(UseLineIndex+" with "+UsePushback+" doesn't work");
+                        }
                         if (features.contains(UseChecksum))
                         {
                             if (!Typ.isAssignable(superClass.asType(), Typ.getTypeFor(ChecksumProvider.class)))
@@ -345,6 +378,17 @@ public class ParserCompiler extends GenClassCompiler
                             invoke(El.getMethod(ChecksumProvider.class, "lookaheadLength"));
                             invoke(El.getMethod(InputReader.class, "setChecksum", Checksum.class, int.class));
                         }
+                        if (features.contains(UseStringTable))
+                        {
+                            if (!Typ.isAssignable(superClass.asType(), Typ.getTypeFor(StringTableProvider.class)))
+                            {
+                                throw new IllegalArgumentException(UseStringTable+" without parser implementing StringTableProvider");
+                            }
+                            tload(InputReader);
+                            tload(This);
+                            invoke(El.getMethod(StringTableProvider.class, "getStringTable"));
+                            invoke(El.getMethod(InputReader.class, "setStringTable", StringTable.class));
+                        }
                         for (int ii=0;ii<contextList.size();ii++)
                         {
                             tload(contextList.get(ii));
@@ -369,7 +413,10 @@ public class ParserCompiler extends GenClassCompiler
                         tload("$throwable");
                         athrow();
                         startSubroutine("closeIt");
-                        if (features.contains(UseAutoClose))
+                        if (
+                                features.contains(UseAutoClose) ||
+                                (features.contains(UseReadAhead) && !inputReaderParameter)
+                                )
                         {
                             tload(InputReader);
                             invoke(El.getMethod(InputReader.class, "close"));
@@ -579,6 +626,7 @@ public class ParserCompiler extends GenClassCompiler
 
     private void compileInputs() throws IOException
     {
+        Map<Integer,DFA<Integer>> dfaMap = new TreeMap<>();
         for (Set<GTerminal> set : inputMap.keySet())
         {
             if (!set.isEmpty())
@@ -587,8 +635,13 @@ public class ParserCompiler extends GenClassCompiler
                 NFA<Integer> nfa = null;
                 Scope<NFAState<Integer>> nfaScope = new Scope<>(INPUT+inputNumber);
                 Scope<DFAState<Integer>> dfaScope = new Scope<>(INPUT+inputNumber);
+                Set<Integer> skipped = new HashSet<>();
                 for (GTerminal terminal : set)
                 {
+                    if (!laInputs.contains(inputNumber) && isSkipped(terminal))
+                    {
+                        skipped.add(terminal.getNumber());
+                    }
                     if (terminal.getExpression() != null)
                     {
                         if (nfa == null)
@@ -606,9 +659,20 @@ public class ParserCompiler extends GenClassCompiler
                 {
                     if (nfa != null)
                     {
-                        DFA dfa = nfa.constructDFA(dfaScope);
-                        MatchCompiler<Integer> ic = new MatchCompiler<>(dfa, ERROR, EOF);
+                        DFA<Integer> dfa = nfa.constructDFA(dfaScope);
+                        dfaMap.put(inputNumber, dfa);
+                        MatchCompiler<Integer> ic;
+                        if (features.contains(UseTableDFA))
+                        {
+                            ic = new TableMatchCompiler<>(dfa, ERROR, EOF);
+                        }
+                        else
+                        {
+                            ic = new MatchCompiler<>(dfa, ERROR, EOF);
+                        }
+                        ic.setSkipping(skipped::contains);
                         subClass.defineMethod(ic, java.lang.reflect.Modifier.PRIVATE, INPUT+inputNumber, int.class, InputReader.class);
+                        recordMethodSize(INPUT+inputNumber, ic.getCodeSize());
                     }
                     else
                     {
@@ -628,6 +692,83 @@ public class ParserCompiler extends GenClassCompiler
                 }
             }
         }
+        printInputs(dfaMap);
+    }
+    private void printInputs(Map<Integer,DFA<Integer>> dfaMap) throws IOException
+    {
+        if (env != null)
+        {
+            String simpleName = superClass.getSimpleName().toString();
+            try (HtmlPrinter printer = new HtmlPrinter(env, subClass, simpleName+"-inputs.html"))
+            {
+                printer.h1("Inputs");
+                printer.p();
+                printer.println("Number of DFA states before and after minimization");
+                for (Map.Entry<Integer,DFA<Integer>> entry : dfaMap.entrySet())
+                {
+                    int inputNumber = entry.getKey();
+                    DFA<Integer> dfa = entry.getValue();
+                    printer.p();
+                    printer.print("Input "+inputNumber+" "+getExpected(inputNumber)+": ");
+                    printer.print(dfa.getUnminimizedSize()+" -> "+dfa.initialSize());
+                }
+            }
+            catch (FilerException ex)
+            {
+                System.err.println(ex.getMessage());
+            }
+        }
+    }
+    /**
+     * Records generated method size for reporting.
+     * @param name
+     * @param size 
+     */
+    void recordMethodSize(String name, int size)
+    {
+        methodSizes.put(name, size);
+    }
+    private void printMethodSizes() throws IOException
+    {
+        for (Map.Entry<String,Integer> entry : methodSizes.entrySet())
+        {
+            if (entry.getValue() > HUGEMETHODLIMIT)
+            {
+                String msg = superClass+"."+entry.getKey()+" size "+entry.getValue()+" exceeds JIT limit "+HUGEMETHODLIMIT;
+                if (env != null)
+                {
+                    env.getMessager().printMessage(Diagnostic.Kind.WARNING, msg, superClass);
+                }
+                else
+                {
+                    System.err.println("warning: "+msg);
+                }
+            }
+        }
+        if (env != null)
+        {
+            String simpleName = superClass.getSimpleName().toString();
+            try (HtmlPrinter printer = new HtmlPrinter(env, subClass, simpleName+"-methods.html"))
+            {
+                printer.h1("Methods");
+                printer.p();
+                printer.println("Byte code sizes of generated methods. Methods larger than "+HUGEMETHODLIMIT+" bytes are not JIT compiled.");
+                for (Map.Entry<String,Integer> entry : methodSizes.entrySet())
+                {
+                    printer.p();
+                    printer.print(entry.getKey()+": "+entry.getValue());
+                    if (entry.getValue() > HUGEMETHODLIMIT)
+                    {
+                        printer.print(" ");
+                        printer.b("too large");
+                    }
+                }
+            }
+            catch (FilerException ex)
+            {
+                System.err.println(ex.getMessage());
+            }
+        }
     }
     String getInputUsageFor(Set<GTerminal> set) throws IOException
     {
@@ -782,6 +923,36 @@ public class ParserCompiler extends GenClassCompiler
     {
         return implementedAbstractMethods.contains(reducer);
     }
+    /**
+     * Returns true if terminal is whitespace and its input is not used.
+     * @param terminal
+     * @return 
+     */
+    private boolean isSkipped(GTerminal terminal)
+    {
+        if (!terminal.isWhiteSpace())
+        {
+            return false;
+        }
+        ExecutableElement reducer = terminal.getReducer();
+        if (reducer == null)
+        {
+            return true;
+        }
+        if (reducer.getReturnType().getKind() != TypeKind.VOID || implementedAbstract(reducer))
+        {
+            return false;
+        }
+        for (VariableElement param : reducer.getParameters())
+        {
+            ParserContext parserContext = param.getAnnotation(ParserContext.class);
+            if (parserContext == null || INPUTREADER.equals(parserContext.value()))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
 
     ExecutableElement getTraceMethod()
     {
@@ -255,4 +255,14 @@ public interface ParserConstants
      * Old name preserved for compatibility
      */
     static final String THROWABLE = Exception;
+    /**
+     * Name of the local variable containing ParseContext. Available only with
+     * UseParseContext feature.
+     */
+    static final String Context = "$parseContext";
+    /**
+     * Name of the local variable containing ParseContext stack frame. 
+     * Available only with UseParseContext feature.
+     */
+    static final String Frame = "$stackFrame";
 }
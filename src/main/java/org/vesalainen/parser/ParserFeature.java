@@ -83,7 +83,68 @@ public enum ParserFeature
     /**
      * Created parser is not thread-safe which allows using class instance for stacks
      */
-    SingleThread
+    SingleThread,
+    /**
+     * Parse method stacks are borrowed from threads ParseContext and returned
+     * after parsing. Has no effect with SingleThread.
+     * @see org.vesalainen.parser.ParseContext
+     */
+    UseParseContext,
+    /**
+     * Terminal scanners are compiled as equivalence class compressed 
+     * transition tables and an interpreter instead of byte code per DFA state.
+     * Useful with grammars having very large number of DFA states.
+     * @see org.vesalainen.regex.DFATable
+     */
+    UseTableDFA,
+    /**
+     * Reducer calls are compiled in separate private methods. This makes parse
+     * method smaller but the state machine itself stays in parse method, so
+     * with large grammars it can still exceed the JIT huge method limit.
+     * Generated method sizes are reported in &lt;parser&gt;-methods.html and
+     * too large methods are warned. Use UseTableLALR for such grammars.
+     */
+    SplitReducers,
+    /**
+     * Parse method is compiled as compressed LALR(1) ACTION/GOTO tables and 
+     * a call to shared driver loop which calls reducers through method handles.
+     * Parse method size doesn't depend on grammar size. Locators, inserting
+     * whitespace, @RecoverMethod and LALR(k) grammars are not supported.
+     * @see org.vesalainen.parser.LALRTable
+     * @see org.vesalainen.parser.LALRDriver
+     */
+    UseTableLALR,
+    /**
+     * Input records only line feed offsets per filled buffer. Line and column 
+     * numbers are calculated from offsets when asked. Removes per character
+     * line/column bookkeeping. Doesn't work with UsePushback or UseInclude.
+     * @see org.vesalainen.parser.util.InputReader#getLineNumber() 
+     * @see org.vesalainen.parser.util.InputReader#getColumnNumber() 
+     */
+    UseLineIndex,
+    /**
+     * Ring buffer starts small and is doubled up to given size when input
+     * doesn't fit in it. Has effect only with streaming input.
+     * @see org.vesalainen.parser.annotation.ParseMethod#size() 
+     */
+    UseGrowableBuffer,
+    /**
+     * String terminal values are looked up from a bounded StringTable before
+     * creating a new String. Parser class must implement StringTableProvider.
+     * @see org.vesalainen.parser.util.StringTable
+     * @see org.vesalainen.parser.util.StringTableProvider
+     */
+    UseStringTable,
+    /**
+     * Byte channel input is read ahead in background thread. Applies to 
+     * inputs created from streams, channels, files and urls unless file is
+     * memory mapped or channel is in non-blocking mode. Background thread 
+     * runs until end of input or until input is closed. Parse methods close 
+     * input they created when parsing ends, also after errors. Input created 
+     * with Input.getInstance has to be closed by caller.
+     * @see org.vesalainen.parser.util.ReadAheadChannel
+     */
+    UseReadAhead
     ;
     /**
      * Returns EnumSet constructed from @ParseMethod
@@ -18,6 +18,7 @@ package org.vesalainen.parser;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandles;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
@@ -35,6 +36,7 @@ import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
+import org.vesalainen.bcc.AccessFlags.FieldFlags;
 import org.vesalainen.bcc.Block;
 import org.vesalainen.bcc.LookupList;
 import org.vesalainen.bcc.MethodCompiler;
@@ -67,6 +69,7 @@ import static org.vesalainen.parser.ParserFeature.*;
 import org.vesalainen.parser.annotation.ParseMethod;
 import org.vesalainen.parser.annotation.ParserContext;
 import org.vesalainen.parser.util.HtmlPrinter;
+import org.vesalainen.parser.util.InputCharSequence;
 import org.vesalainen.parser.util.InputReader;
 import org.vesalainen.parser.util.NumSet;
 import org.vesalainen.parser.util.Reducers;
@@ -79,6 +82,10 @@ import org.vesalainen.parser.util.SystemErrPrinter;
 public final class ParserMethodCompiler extends MethodCompiler
 {
     private static final String RecoverMethod = "recover";
+    /**
+     * Max chars in one string constant. Modified UTF-8 uses max 3 bytes per char.
+     */
+    private static final int MAXCONSTANT = 0x4000;
     // ParserInfo methods
 
     private final ParserCompiler parserCompiler;
@@ -97,6 +104,7 @@ public final class ParserMethodCompiler extends MethodCompiler
     private boolean offsetLocatorSupported;
     private final ParseMethod parseMethod;
     private final EnumSet<ParserFeature> features;
+    private GRule reduceRule;
 
     public ParserMethodCompiler(ParserCompiler parserCompiler, ParseMethod parseMethod, List<String> contextList)
     {
@@ -107,6 +115,27 @@ public final class ParserMethodCompiler extends MethodCompiler
         setWideIndex(features.contains(WideIndex));
     }
 
+    /**
+     * Creates compiler for reducer method of given rule. Argument names 
+     * are the same as local variable names in parse method.
+     * @param parent
+     * @param reduceRule
+     * @param argumentNames 
+     */
+    private ParserMethodCompiler(ParserMethodCompiler parent, GRule reduceRule, List<String> argumentNames)
+    {
+        this.parserCompiler = parent.parserCompiler;
+        this.parseMethod = parent.parseMethod;
+        this.contextList = argumentNames;
+        this.features = parent.features;
+        this.g = parent.g;
+        this.lrk = parent.lrk;
+        this.parseReturnType = parent.parseReturnType;
+        this.lineLocatorSupported = parent.lineLocatorSupported;
+        this.offsetLocatorSupported = parent.offsetLocatorSupported;
+        this.reduceRule = reduceRule;
+    }
+
     public EnumSet<ParserFeature> getFeatures()
     {
         return features;
@@ -125,6 +154,11 @@ public final class ParserMethodCompiler extends MethodCompiler
     @Override
     protected void implement() throws IOException
     {
+        if (reduceRule != null)
+        {
+            implementReducer();
+            return;
+        }
         g = parserCompiler.getGrammar();
         parseReturnType = executableElement.getReturnType();
         List<? extends TypeMirror> thrownTypes = executableElement.getThrownTypes();
@@ -171,6 +205,11 @@ public final class ParserMethodCompiler extends MethodCompiler
                 state.getInputSet().addAll(whiteSpaceSet);
             }
         }
+        if (features.contains(UseTableLALR))
+        {
+            implementTable();
+            return;
+        }
         
         for (int ii=0;ii<contextList.size();ii++)
         {
@@ -273,6 +312,177 @@ public final class ParserMethodCompiler extends MethodCompiler
             store(THROWABLE);
         }
         goto_n("reset");
+        parserCompiler.recordMethodSize(executableElement.getSimpleName().toString(), position());
+    }
+    /**
+     * Implements parse method using LALRTable and LALRDriver. Encoded table is
+     * stored in string constants and the driver is created lazily in static
+     * field.
+     * @throws IOException 
+     */
+    private void implementTable() throws IOException
+    {
+        if (lineLocatorSupported || offsetLocatorSupported)
+        {
+            throw new IllegalArgumentException(UseTableLALR+" doesn't support locators");
+        }
+        if (parserCompiler.getRecoverMethod() != null)
+        {
+            throw new IllegalArgumentException(UseTableLALR+" doesn't support recover method "+parserCompiler.getRecoverMethod());
+        }
+        int stackSize = Math.min(g.getMaxStack(), lrk.getStackSize()+lrk.getLrkLevel());
+        LALRTable table = LALRTable.create(
+                lrk, 
+                stackSize, 
+                (state)->parserCompiler.getInputNumber(state.getInputSet(), state), 
+                contextList, 
+                parserCompiler::implementedAbstract
+        );
+        String encoded = table.encode();
+        String fieldName = executableElement.getSimpleName()+"Driver";
+        subClass.defineField(FieldFlags.ACC_PRIVATE|FieldFlags.ACC_STATIC, fieldName, LALRDriver.class);
+        VariableElement field = El.getField(subClass, fieldName);
+        nameArgument(INPUTREADER, 1);
+        for (int ii=0;ii<contextList.size();ii++)
+        {
+            nameArgument(contextList.get(ii), ii+2);
+        }
+        getStaticField(field);
+        ifnonnull("created");
+        for (int ii=0;ii<encoded.length();ii+=MAXCONSTANT)
+        {
+            ldc(encoded.substring(ii, Math.min(encoded.length(), ii+MAXCONSTANT)));
+            if (ii > 0)
+            {
+                invokevirtual(El.getMethod(String.class, "concat", String.class));
+            }
+        }
+        invokestatic(El.getMethod(MethodHandles.class, "lookup"));
+        invokestatic(El.getMethod(LALRDriver.class, "create", String.class, MethodHandles.Lookup.class));
+        putStaticField(field);
+        fixAddress("created");
+        getStaticField(field);
+        load(THIS);
+        load(INPUTREADER);
+        if (contextList.isEmpty())
+        {
+            aconst_null();
+        }
+        else
+        {
+            List<? extends VariableElement> parameters = executableElement.getParameters();
+            newarray(Typ.getTypeFor(Object[].class), contextList.size());
+            for (int ii=0;ii<contextList.size();ii++)
+            {
+                dup();
+                iconst(ii);
+                load(contextList.get(ii));
+                box(parameters.get(ii+1).asType());
+                aastore();
+            }
+        }
+        invokevirtual(El.getMethod(LALRDriver.class, "parse", Object.class, InputReader.class, Object[].class));
+        if (parseReturnType.getKind() == TypeKind.VOID)
+        {
+            pop();
+        }
+        else
+        {
+            if (Typ.isPrimitive(parseReturnType))
+            {
+                if (table.hasAcceptValue())
+                {
+                    unbox(parseReturnType);
+                }
+                else
+                {
+                    pop();
+                    loadDefault(parseReturnType);
+                }
+            }
+            else
+            {
+                checkcast(parseReturnType);
+            }
+        }
+        treturn();
+        parserCompiler.recordMethodSize(executableElement.getSimpleName().toString(), position());
+    }
+    /**
+     * Returns true if terminal value of type is converted by InputReader
+     * parse method instead of Primitives.
+     * @param type
+     * @param radix
+     * @return 
+     */
+    private static boolean isParsedByReader(TypeMirror type, int radix)
+    {
+        switch (type.getKind())
+        {
+            case INT:
+            case LONG:
+                return true;
+            case SHORT:
+            case FLOAT:
+            case DOUBLE:
+                return radix == -1;
+            default:
+                return false;
+        }
+    }
+    private void box(TypeMirror type) throws IOException
+    {
+        switch (type.getKind())
+        {
+            case BOOLEAN:
+                invokestatic(El.getMethod(Boolean.class, "valueOf", boolean.class));
+                break;
+            case BYTE:
+                invokestatic(El.getMethod(Byte.class, "valueOf", byte.class));
+                break;
+            case CHAR:
+                invokestatic(El.getMethod(Character.class, "valueOf", char.class));
+                break;
+            case SHORT:
+                invokestatic(El.getMethod(Short.class, "valueOf", short.class));
+                break;
+            case INT:
+                invokestatic(El.getMethod(Integer.class, "valueOf", int.class));
+                break;
+            case LONG:
+                invokestatic(El.getMethod(Long.class, "valueOf", long.class));
+                break;
+            case FLOAT:
+                invokestatic(El.getMethod(Float.class, "valueOf", float.class));
+                break;
+            case DOUBLE:
+                invokestatic(El.getMethod(Double.class, "valueOf", double.class));
+                break;
+        }
+    }
+    /**
+     * Unboxes value on stack to primitive type. Numbers are converted through
+     * Number so that start symbol type can be narrower than return type.
+     * @param type
+     * @throws IOException 
+     */
+    private void unbox(TypeMirror type) throws IOException
+    {
+        switch (type.getKind())
+        {
+            case BOOLEAN:
+                checkcast(Typ.getTypeFor(Boolean.class));
+                invokevirtual(El.getMethod(Boolean.class, "booleanValue"));
+                break;
+            case CHAR:
+                checkcast(Typ.getTypeFor(Character.class));
+                invokevirtual(El.getMethod(Character.class, "charValue"));
+                break;
+            default:
+                checkcast(Typ.getTypeFor(Number.class));
+                invokevirtual(El.getMethod(Number.class, type.getKind().name().toLowerCase()+"Value"));
+                break;
+        }
     }
     private void init() throws IOException
     {
@@ -287,18 +497,28 @@ public final class ParserMethodCompiler extends MethodCompiler
 
             int stackSize = Math.min(g.getMaxStack(), lrk.getStackSize()+lrk.getLrkLevel());
             assert stackSize > 0;
-            addNewArray(STATESTACK, int[].class, stackSize);
-            addNewArray(TYPESTACK, int[].class, stackSize);
-            // value stack
-            addNewArray(VALUESTACK, Object[].class, TypeKind.values().length);    // not all slots are used!
+            if (features.contains(UseParseContext))
+            {
+                initParseContext(stackSize);
+            }
+            else
+            {
+                addNewArray(STATESTACK, int[].class, stackSize);
+                addNewArray(TYPESTACK, int[].class, stackSize);
+                // value stack
+                addNewArray(VALUESTACK, Object[].class, TypeKind.values().length);    // not all slots are used!
+            }
 
             for (TypeKind ot : lrk.getUsedTypes())
             {
-                // value stack
-                load(VALUESTACK);  // array
-                iconst(Typ.getTypeNumber(ot));   // index
-                newarray(Typ.getArrayType(Typ.normalizeType(ot)), stackSize);
-                aastore();
+                if (!features.contains(UseParseContext))
+                {
+                    // value stack
+                    load(VALUESTACK);  // array
+                    iconst(Typ.getTypeNumber(ot));   // index
+                    newarray(Typ.getArrayType(Typ.normalizeType(ot)), stackSize);
+                    aastore();
+                }
                 // curValue
                 addVariable(CUR+ot.name(), Typ.normalizeType(ot));
                 assignDefault(CUR+ot.name());
@@ -311,18 +531,37 @@ public final class ParserMethodCompiler extends MethodCompiler
                 addVariable(LALENGTH, int.class);
             }
             // locator stacks
-            if (lineLocatorSupported || offsetLocatorSupported)
-            {
-                addNewArray(SOURCESTACK, String[].class, stackSize);
-            }
-            if (lineLocatorSupported)
+            if (features.contains(UseParseContext))
             {
-                addNewArray(LINESTACK, int[].class, stackSize);
-                addNewArray(COLUMNSTACK, int[].class, stackSize);
+                if (lineLocatorSupported || offsetLocatorSupported)
+                {
+                    initFromStackFrame(SOURCESTACK, String[].class, "getSourceStack");
+                }
+                if (lineLocatorSupported)
+                {
+                    initFromStackFrame(LINESTACK, int[].class, "getLineStack");
+                    initFromStackFrame(COLUMNSTACK, int[].class, "getColumnStack");
+                }
+                if (offsetLocatorSupported)
+                {
+                    initFromStackFrame(OFFSETSTACK, int[].class, "getOffsetStack");
+                }
             }
-            if (offsetLocatorSupported)
+            else
             {
-                addNewArray(OFFSETSTACK, int[].class, stackSize);
+                if (lineLocatorSupported || offsetLocatorSupported)
+                {
+                    addNewArray(SOURCESTACK, String[].class, stackSize);
+                }
+                if (lineLocatorSupported)
+                {
+                    addNewArray(LINESTACK, int[].class, stackSize);
+                    addNewArray(COLUMNSTACK, int[].class, stackSize);
+                }
+                if (offsetLocatorSupported)
+                {
+                    addNewArray(OFFSETSTACK, int[].class, stackSize);
+                }
             }
             addVariable(THROWABLE, Throwable.class);
             assignDefault(THROWABLE);
@@ -337,6 +576,38 @@ public final class ParserMethodCompiler extends MethodCompiler
             }
         }
     }
+    /**
+     * Acquires stacks from threads ParseContext.
+     * @param stackSize
+     * @throws IOException 
+     */
+    private void initParseContext(int stackSize) throws IOException
+    {
+        addVariable(Context, ParseContext.class);
+        addVariable(Frame, ParseContext.StackFrame.class);
+        invokestatic(El.getMethod(ParseContext.class, "get"));
+        store(Context);
+        load(Context);
+        iconst(stackSize);
+        invokevirtual(El.getMethod(ParseContext.class, "acquire", int.class));
+        store(Frame);
+        initFromStackFrame(STATESTACK, int[].class, "getStateStack");
+        initFromStackFrame(TYPESTACK, int[].class, "getTypeStack");
+        for (TypeKind ot : lrk.getUsedTypes())
+        {
+            load(Frame);
+            iconst(Typ.getTypeNumber(ot));
+            invokevirtual(El.getMethod(ParseContext.StackFrame.class, "ensureValueStack", int.class));
+        }
+        initFromStackFrame(VALUESTACK, Object[].class, "getValueStack");
+    }
+    private void initFromStackFrame(String name, Class<?> type, String getter) throws IOException
+    {
+        addVariable(name, type);
+        load(Frame);
+        invokevirtual(El.getMethod(ParseContext.StackFrame.class, getter));
+        store(name);
+    }
     private void reset() throws IOException
     {
         iconst(-1);
@@ -466,7 +737,21 @@ public final class ParserMethodCompiler extends MethodCompiler
                                     String methodName = "parse"+typeName.toUpperCase().substring(0, 1)+typeName.substring(1);
                                     int radix = t.getBase();
                                     boolean signed = t.isSigned();
-                                    if (radix == -1)
+                                    if (isParsedByReader(paramType, radix))
+                                    {
+                                        // digits are read from input ring buffer
+                                        if (radix == -1)
+                                        {
+                                            invokevirtual(El.getMethod(InputReader.class, methodName));
+                                        }
+                                        else
+                                        {
+                                            tconst(radix);
+                                            tconst(signed);
+                                            invokevirtual(El.getMethod(InputReader.class, methodName, int.class, boolean.class));
+                                        }
+                                    }
+                                    else if (radix == -1)
                                     {
                                         convertMethod = El.getMethod(Primitives.class, methodName, CharSequence.class);
                                         if (convertMethod == null)
@@ -507,6 +792,11 @@ public final class ParserMethodCompiler extends MethodCompiler
                                         convertMethod = El.getMethod(InputReader.class, "getString");
                                         invokevirtual(convertMethod);
                                     }
+                                    else if (Typ.isSameType(paramType, Typ.getTypeFor(InputCharSequence.class)))
+                                    {
+                                        convertMethod = El.getMethod(InputReader.class, "getInputCharSequence");
+                                        invokevirtual(convertMethod);
+                                    }
                                     else
                                     {
                                         throw new IllegalArgumentException("no parse method for non primitive type "+paramType+" at "+t);
@@ -585,6 +875,195 @@ public final class ParserMethodCompiler extends MethodCompiler
         endSubroutine();
     }
 
+    /**
+     * Compiles reducer call and storing of reducer result.
+     * @param rule
+     * @throws IOException 
+     */
+    private void compileReducer(GRule rule) throws IOException
+    {
+        ExecutableElement reducer = rule.getReducer();
+        if (reducer != null)
+        {
+            List<? extends VariableElement> parameters = reducer.getParameters();
+            TypeMirror returnType = reducer.getReturnType();
+            TypeKind rot = returnType.getKind();
+
+            if (returnType.getKind() != TypeKind.VOID)
+            {
+                load(VALUESTACK);                // valueStack
+                iconst(Typ.getTypeNumber(rot));  // valueStack class
+                aaload();                         // stackXXX
+                checkcast(Typ.getArrayType(Typ.normalizeType(rot)));
+                load(SP);                      // stackXXX sp
+            }
+            if (
+                    !parserCompiler.implementedAbstract(reducer) &&
+                    !reducer.getModifiers().contains(Modifier.ABSTRACT) &&
+                    !reducer.getModifiers().contains(Modifier.STATIC)
+                    )
+            {
+                load(THIS);                            // this
+            }
+            int paramIndex = 0;
+            int symbolIndex = 0;
+            for (Symbol symbol : rule.getRight())
+            {
+                TypeMirror rt = symbol.getReducerType();
+                if (rt.getKind() != TypeKind.VOID)
+                {
+                    TypeMirror param = parameters.get(paramIndex).asType();
+                    if (!Typ.isAssignable(rt, param) && !Reducers.isGet(symbol.getReducer()))
+                    {
+                        String m = symbol+" returntype="+rt+" cannot be used as "+paramIndex+" argument in reducer "+reducer+" expecting "+param;
+                        if (Typ.isPrimitive(rt))
+                        {
+                            throw new IllegalArgumentException(m+"\n"+"Possibly primitive value used in '?'");
+                        }
+                        else
+                        {
+                            throw new IllegalArgumentException(m);
+                        }
+                    }
+                    load(VALUESTACK);              // this valueStack
+                    TypeKind pot = rt.getKind();
+                    iconst(Typ.getTypeNumber(pot));  // this valueStack indexXXX
+                    aaload();                         // this stackXXX
+                    checkcast(Typ.getArrayType(Typ.normalizeType(pot)));
+                    load(SP);          // sp
+                    iconst(symbolIndex);
+                    iadd();
+                    taload(rt);                    // this paramx
+                    if (Typ.isPrimitive(param))
+                    {
+                        convert(rt, param);
+                    }
+                    else
+                    {
+                        checkcast(param);
+                    }
+                    paramIndex++;
+                }
+                symbolIndex++;
+            }
+            loadContextParameters(reducer, paramIndex);
+            if (!parserCompiler.implementedAbstract(reducer))
+            {
+                invoke(reducer);               // result
+            }
+
+            if (returnType.getKind() != TypeKind.VOID)
+            {
+                callSetLocation(returnType);
+                                                    // stackXXX spXXX result
+                tastore(returnType);              //
+                load(TYPESTACK);
+                load(SP);
+                iconst(Typ.getTypeNumber(rot));
+                iastore();
+            }
+        }
+    }
+    /**
+     * Returns true if reducer of rule is compiled in separate method.
+     * @param rule
+     * @return 
+     */
+    private boolean isSplittable(GRule rule)
+    {
+        ExecutableElement reducer = rule.getReducer();
+        if (
+                !features.contains(SplitReducers) ||
+                rule.isAccepting() ||
+                reducer == null ||
+                parserCompiler.implementedAbstract(reducer)
+                )
+        {
+            return false;
+        }
+        for (VariableElement parameter : reducer.getParameters())
+        {
+            ParserContext parserContext = parameter.getAnnotation(ParserContext.class);
+            if (
+                    parserContext != null &&
+                    !INPUTREADER.equals(parserContext.value()) &&
+                    !contextList.contains(parserContext.value())
+                    )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+    /**
+     * Calls reducer method compiled by a ParserMethodCompiler in reducer mode.
+     * Locals used by reducer are passed as arguments with the same names.
+     * @param rule
+     * @throws IOException 
+     */
+    private void callReducerMethod(GRule rule) throws IOException
+    {
+        MethodBuilder builder = subClass.buildMethod(executableElement.getSimpleName()+"$reduce"+rule.getNumber());
+        builder.addModifier(Modifier.PRIVATE);
+        builder.setReturnType(void.class);
+        List<String> names = new ArrayList<>();
+        addReducerArgument(builder, names, SP, Typ.Int);
+        addReducerArgument(builder, names, VALUESTACK, Typ.getTypeFor(Object[].class));
+        addReducerArgument(builder, names, TYPESTACK, Typ.getTypeFor(int[].class));
+        addReducerArgument(builder, names, INPUTREADER, Typ.getTypeFor(InputReader.class));
+        if (lineLocatorSupported || offsetLocatorSupported)
+        {
+            addReducerArgument(builder, names, SOURCESTACK, Typ.getTypeFor(String[].class));
+        }
+        if (lineLocatorSupported)
+        {
+            addReducerArgument(builder, names, LINESTACK, Typ.getTypeFor(int[].class));
+            addReducerArgument(builder, names, COLUMNSTACK, Typ.getTypeFor(int[].class));
+        }
+        if (offsetLocatorSupported)
+        {
+            addReducerArgument(builder, names, OFFSETSTACK, Typ.getTypeFor(int[].class));
+        }
+        List<? extends VariableElement> parameters = executableElement.getParameters();
+        for (int ii=0;ii<contextList.size();ii++)
+        {
+            addReducerArgument(builder, names, contextList.get(ii), parameters.get(ii+1).asType());
+        }
+        for (TypeMirror thrownType : rule.getReducer().getThrownTypes())
+        {
+            builder.addThrownType(thrownType);
+        }
+        ExecutableElement method = builder.getExecutableElement();
+        if (!subClass.isImplemented(method))
+        {
+            subClass.defineMethod(new ParserMethodCompiler(this, rule, names), method);
+        }
+        load(THIS);
+        for (String name : names)
+        {
+            load(name);
+        }
+        invokespecial(method);
+    }
+    private void addReducerArgument(MethodBuilder builder, List<String> names, String name, TypeMirror type)
+    {
+        builder.addParameter(name).setType(type);
+        names.add(name);
+    }
+    /**
+     * Compiles reducer method
+     * @throws IOException 
+     */
+    private void implementReducer() throws IOException
+    {
+        for (int ii=0;ii<contextList.size();ii++)
+        {
+            nameArgument(contextList.get(ii), ii+1);
+        }
+        compileReducer(reduceRule);
+        treturn();
+        parserCompiler.recordMethodSize(executableElement.getSimpleName().toString(), position());
+    }
     private void loadContextParameters(ExecutableElement reducer, int start) throws IOException
     {
         List<? extends VariableElement> parameters = reducer.getParameters();
@@ -663,7 +1142,7 @@ public final class ParserMethodCompiler extends MethodCompiler
         {
             Set<GTerminal> inputList = state.getInputSet();
             assert !inputList.isEmpty();
-            int inputNumber = parserCompiler.getInputNumber(inputList, state);
+            int inputNumber = parserCompiler.getLaInputNumber(inputList, state);
             String target = LAINPUT+inputNumber;
             inputAddresses.addLookup(state.getNumber(), target);
             targetSet.add(inputNumber);
@@ -1613,86 +2092,13 @@ public final class ParserMethodCompiler extends MethodCompiler
                     inc(SP, -rhs);
                 }
 
-                ExecutableElement reducer = rule.getReducer();
-                if (reducer != null)
+                if (isSplittable(rule))
                 {
-                    List<? extends VariableElement> parameters = reducer.getParameters();
-                    TypeMirror returnType = reducer.getReturnType();
-                    TypeKind rot = returnType.getKind();
-
-                    if (returnType.getKind() != TypeKind.VOID)
-                    {
-                        load(VALUESTACK);                // valueStack
-                        iconst(Typ.getTypeNumber(rot));  // valueStack class
-                        aaload();                         // stackXXX
-                        checkcast(Typ.getArrayType(Typ.normalizeType(rot)));
-                        load(SP);                      // stackXXX sp
-                    }
-                    if (
-                            !parserCompiler.implementedAbstract(reducer) &&
-                            !reducer.getModifiers().contains(Modifier.ABSTRACT) &&
-                            !reducer.getModifiers().contains(Modifier.STATIC)
-                            )
-                    {
-                        load(THIS);                            // this
-                    }
-                    int paramIndex = 0;
-                    int symbolIndex = 0;
-                    for (Symbol symbol : rule.getRight())
-                    {
-                        TypeMirror rt = symbol.getReducerType();
-                        if (rt.getKind() != TypeKind.VOID)
-                        {
-                            TypeMirror param = parameters.get(paramIndex).asType();
-                            if (!Typ.isAssignable(rt, param) && !Reducers.isGet(symbol.getReducer()))
-                            {
-                                String m = symbol+" returntype="+rt+" cannot be used as "+paramIndex+" argument in reducer "+reducer+" expecting "+param;
-                                if (Typ.isPrimitive(rt))
-                                {
-                                    throw new IllegalArgumentException(m+"\n"+"Possibly primitive value used in '?'");
-                                }
-                                else
-                                {
-                                    throw new IllegalArgumentException(m);
-                                }
-                            }
-                            load(VALUESTACK);              // this valueStack
-                            TypeKind pot = rt.getKind();
-                            iconst(Typ.getTypeNumber(pot));  // this valueStack indexXXX
-                            aaload();                         // this stackXXX
-                            checkcast(Typ.getArrayType(Typ.normalizeType(pot)));
-                            load(SP);          // sp
-                            iconst(symbolIndex);
-                            iadd();
-                            taload(rt);                    // this paramx
-                            if (Typ.isPrimitive(param))
-                            {
-                                convert(rt, param);
-                            }
-                            else
-                            {
-                                checkcast(param);
-                            }
-                            paramIndex++;
-                        }
-                        symbolIndex++;
-                    }
-                    loadContextParameters(reducer, paramIndex);
-                    if (!parserCompiler.implementedAbstract(reducer))
-                    {
-                        invoke(reducer);               // result
-                    }
-
-                    if (returnType.getKind() != TypeKind.VOID)
-                    {
-                        callSetLocation(returnType);
-                                                            // stackXXX spXXX result
-                        tastore(returnType);              //
-                        load(TYPESTACK);
-                        load(SP);
-                        iconst(Typ.getTypeNumber(rot));
-                        iastore();
-                    }
+                    callReducerMethod(rule);
+                }
+                else
+                {
+                    compileReducer(rule);
                 }
                 if (rule.isAccepting())
                 {
@@ -1740,6 +2146,12 @@ public final class ParserMethodCompiler extends MethodCompiler
                     {
                         loadDefault(parseReturnType);
                     }
+                    if (features.contains(UseParseContext) && !features.contains(SingleThread))
+                    {
+                        load(Context);
+                        load(Frame);
+                        invokevirtual(El.getMethod(ParseContext.class, "release", ParseContext.StackFrame.class));
+                    }
                     treturn();
                     resetSubroutine();
                 }
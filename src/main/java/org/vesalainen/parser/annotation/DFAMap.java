@@ -32,4 +32,11 @@ public @interface DFAMap
     String error();
     String eof();
     DFAMapEntry[] value();
+    /**
+     * If true, map is compiled as transition table instead of byte code. 
+     * Recommended for large maps.
+     * @return 
+     * @see org.vesalainen.regex.DFATable
+     */
+    boolean table() default false;
 }
@@ -0,0 +1,433 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser.annotation;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.CodeSource;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.FilerException;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import org.vesalainen.parser.GenClassCompiler;
+import org.vesalainen.parser.util.RecordingFiler;
+import org.vesalainen.parser.util.RecordingFiler.Entry;
+import org.vesalainen.parser.util.RecordingFiler.EntryKind;
+
+/**
+ * On-disk cache of generated classes. Cache key is a fingerprint of annotated
+ * class. Fingerprint covers declarations and annotations of class, its 
+ * super types and members as well as super types of member types and lpg 
+ * version. Cached files are classes, sources and resources (html reports) 
+ * written while generating.
+ * 
+ * <p>Cache directory is lpg-cache in parent of class output directory, 
+ * typically target/lpg-cache, or set with -Alpg.cacheDir=dir. Cache is 
+ * disabled with -Alpg.cache=false or if class output is not a directory.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+class GenClassCache
+{
+    static final String CACHE_OPTION = "lpg.cache";
+    static final String CACHE_DIR_OPTION = "lpg.cacheDir";
+    private static final int MAGIC = 0x4c504743;    // LPGC
+    private final ProcessingEnvironment env;
+    private final Path dir;
+
+    private GenClassCache(ProcessingEnvironment env, Path dir)
+    {
+        this.env = env;
+        this.dir = dir;
+    }
+    /**
+     * Returns cache or null if caching is disabled.
+     * @param env
+     * @return 
+     */
+    static GenClassCache create(ProcessingEnvironment env)
+    {
+        Map<String, String> options = env.getOptions();
+        if ("false".equalsIgnoreCase(options.get(CACHE_OPTION)))
+        {
+            return null;
+        }
+        String d = options.get(CACHE_DIR_OPTION);
+        Path dir = d != null ? Paths.get(d) : defaultDir(env.getFiler());
+        if (dir == null)
+        {
+            return null;
+        }
+        return new GenClassCache(env, dir);
+    }
+    /**
+     * Returns lpg-cache directory next to class output directory or null if
+     * class output is not in file system.
+     * @param filer
+     * @return 
+     */
+    static Path defaultDir(Filer filer)
+    {
+        try
+        {
+            FileObject fo = filer.getResource(StandardLocation.CLASS_OUTPUT, "", "lpg-cache");
+            Path classes = Paths.get(fo.toUri()).getParent();
+            if (classes == null || classes.getParent() == null)
+            {
+                return null;
+            }
+            return classes.getParent().resolve("lpg-cache");
+        }
+        catch (IOException | IllegalArgumentException | FileSystemNotFoundException ex)
+        {
+            return null;
+        }
+    }
+    /**
+     * Writes cached files if cache is up to date.
+     * @param type
+     * @return true if cached files were written.
+     * @throws IOException 
+     */
+    boolean replay(TypeElement type) throws IOException
+    {
+        Path path = getPath(type);
+        if (!Files.exists(path))
+        {
+            return false;
+        }
+        String fingerprint = fingerprint(type);
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(path)))
+        {
+            if (in.readInt() != MAGIC || !fingerprint.equals(in.readUTF()))
+            {
+                return false;
+            }
+            int count = in.readInt();
+            Entry[] entries = new Entry[count];
+            for (int ii=0;ii<count;ii++)
+            {
+                EntryKind kind = EntryKind.valueOf(in.readUTF());
+                String location = in.readUTF();
+                String pkg = in.readUTF();
+                String name = in.readUTF();
+                boolean text = in.readBoolean();
+                byte[] data = new byte[in.readInt()];
+                in.readFully(data);
+                entries[ii] = new Entry(kind, location, pkg, name, text, data);
+            }
+            for (Entry entry : entries)
+            {
+                write(type, entry);
+            }
+            return true;
+        }
+    }
+    /**
+     * Generates class and stores written files in cache.
+     * @param type
+     * @throws IOException 
+     */
+    void compile(TypeElement type) throws IOException
+    {
+        RecordingFiler filer = new RecordingFiler(env.getFiler());
+        GenClassCompiler.compile(type, new Env(env, filer));
+        Files.createDirectories(dir);
+        Path path = getPath(type);
+        Path tmp = Files.createTempFile(dir, type.getSimpleName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(tmp)))
+        {
+            out.writeInt(MAGIC);
+            out.writeUTF(fingerprint(type));
+            List<Entry> entries = filer.getEntries();
+            out.writeInt(entries.size());
+            for (Entry entry : entries)
+            {
+                out.writeUTF(entry.getKind().name());
+                out.writeUTF(entry.getLocation());
+                out.writeUTF(entry.getPkg());
+                out.writeUTF(entry.getName());
+                out.writeBoolean(entry.isText());
+                out.writeInt(entry.getData().length);
+                out.write(entry.getData());
+            }
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+    private Path getPath(TypeElement type)
+    {
+        return dir.resolve(type.getQualifiedName()+".lpgcache");
+    }
+    private void write(TypeElement type, Entry entry) throws IOException
+    {
+        Filer filer = env.getFiler();
+        FileObject fo;
+        try
+        {
+            switch (entry.getKind())
+            {
+                case SOURCE:
+                    fo = filer.createSourceFile(entry.getName(), type);
+                    break;
+                case CLASS:
+                    fo = filer.createClassFile(entry.getName(), type);
+                    break;
+                case RESOURCE:
+                    fo = filer.createResource(StandardLocation.locationFor(entry.getLocation()), entry.getPkg(), entry.getName(), type);
+                    break;
+                default:
+                    throw new UnsupportedOperationException(entry.getKind()+" not supported");
+            }
+        }
+        catch (FilerException ex)
+        {
+            System.err.println(ex.getMessage());    // propably duplicate ?
+            return;
+        }
+        if (entry.isText())
+        {
+            try (Writer writer = fo.openWriter())
+            {
+                writer.write(new String(entry.getData(), StandardCharsets.UTF_8));
+            }
+        }
+        else
+        {
+            try (OutputStream os = fo.openOutputStream())
+            {
+                os.write(entry.getData());
+            }
+        }
+    }
+    /**
+     * Returns hex SHA-256 of type description
+     * @param type
+     * @return 
+     */
+    String fingerprint(TypeElement type)
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append(generatorVersion()).append('\n');
+        describe(sb, type, new HashSet<>());
+        try
+        {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] digest = md.digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest)
+            {
+                hex.append(String.format("%02x", b & 0xff));
+            }
+            return hex.toString();
+        }
+        catch (NoSuchAlgorithmException ex)
+        {
+            throw new IllegalArgumentException(ex);
+        }
+    }
+    private void describe(StringBuilder sb, TypeElement type, Set<String> seen)
+    {
+        String name = type.getQualifiedName().toString();
+        if (!seen.add(name) || name.startsWith("java."))
+        {
+            return;
+        }
+        sb.append(type.getKind()).append(' ').append(type.getModifiers()).append(' ').append(name).append('\n');
+        describe(sb, type.getAnnotationMirrors());
+        Types types = env.getTypeUtils();
+        for (TypeMirror st : types.directSupertypes(type.asType()))
+        {
+            sb.append("extends ").append(st).append('\n');
+        }
+        for (Element e : type.getEnclosedElements())
+        {
+            sb.append(e.getKind()).append(' ').append(e.getModifiers()).append(' ').append(e).append('\n');
+            describe(sb, e.getAnnotationMirrors());
+            switch (e.getKind())
+            {
+                case METHOD:
+                case CONSTRUCTOR:
+                    ExecutableElement ee = (ExecutableElement) e;
+                    sb.append("returns ").append(ee.getReturnType()).append('\n');
+                    describeSupertypes(sb, ee.getReturnType(), seen);
+                    for (VariableElement p : ee.getParameters())
+                    {
+                        sb.append("param ").append(p.asType()).append('\n');
+                        describe(sb, p.getAnnotationMirrors());
+                        describeSupertypes(sb, p.asType(), seen);
+                    }
+                    sb.append("throws ").append(ee.getThrownTypes()).append('\n');
+                    break;
+                case FIELD:
+                    VariableElement ve = (VariableElement) e;
+                    sb.append("type ").append(ve.asType()).append(" = ").append(ve.getConstantValue()).append('\n');
+                    break;
+                case CLASS:
+                case INTERFACE:
+                case ENUM:
+                    describe(sb, (TypeElement) e, seen);
+                    break;
+            }
+        }
+        for (TypeMirror st : types.directSupertypes(type.asType()))
+        {
+            describeSupertypes(sb, st, seen);
+        }
+    }
+    private void describeSupertypes(StringBuilder sb, TypeMirror type, Set<String> seen)
+    {
+        if (type.getKind() == TypeKind.DECLARED)
+        {
+            TypeElement te = (TypeElement) ((DeclaredType)type).asElement();
+            Elements elements = env.getElementUtils();
+            if (elements.getPackageOf(te).getQualifiedName().toString().startsWith("java."))
+            {
+                return;
+            }
+            describe(sb, te, seen);
+        }
+    }
+    private void describe(StringBuilder sb, List<? extends AnnotationMirror> annotations)
+    {
+        for (AnnotationMirror am : annotations)
+        {
+            sb.append(am).append('\n');
+        }
+    }
+    /**
+     * Returns version and modification time of generator classes.
+     * @return 
+     */
+    private static String generatorVersion()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append(GenClassCompiler.class.getPackage().getImplementationVersion());
+        CodeSource codeSource = GenClassCompiler.class.getProtectionDomain().getCodeSource();
+        if (codeSource != null)
+        {
+            URL location = codeSource.getLocation();
+            try
+            {
+                Path path = Paths.get(location.toURI());
+                if (Files.isRegularFile(path))
+                {
+                    sb.append(' ').append(Files.size(path)).append(' ').append(Files.getLastModifiedTime(path));
+                }
+                else
+                {
+                    Path cls = path.resolve(GenClassCompiler.class.getName().replace('.', '/')+".class");
+                    if (Files.exists(cls))
+                    {
+                        sb.append(' ').append(Files.getLastModifiedTime(cls));
+                    }
+                }
+            }
+            catch (URISyntaxException | IOException | IllegalArgumentException ex)
+            {
+                sb.append(' ').append(location);
+            }
+        }
+        return sb.toString();
+    }
+    /**
+     * ProcessingEnvironment with different Filer.
+     */
+    private static class Env implements ProcessingEnvironment
+    {
+        private final ProcessingEnvironment env;
+        private final Filer filer;
+
+        public Env(ProcessingEnvironment env, Filer filer)
+        {
+            this.env = env;
+            this.filer = filer;
+        }
+
+        @Override
+        public Map<String, String> getOptions()
+        {
+            return env.getOptions();
+        }
+
+        @Override
+        public Messager getMessager()
+        {
+            return env.getMessager();
+        }
+
+        @Override
+        public Filer getFiler()
+        {
+            return filer;
+        }
+
+        @Override
+        public Elements getElementUtils()
+        {
+            return env.getElementUtils();
+        }
+
+        @Override
+        public Types getTypeUtils()
+        {
+            return env.getTypeUtils();
+        }
+
+        @Override
+        public SourceVersion getSourceVersion()
+        {
+            return env.getSourceVersion();
+        }
+
+        @Override
+        public Locale getLocale()
+        {
+            return env.getLocale();
+        }
+        
+    }
+}
@@ -23,6 +23,7 @@ import javax.annotation.processing.Messager;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.RoundEnvironment;
 import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
 import javax.annotation.processing.SupportedSourceVersion;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
@@ -38,8 +39,10 @@ import org.vesalainen.parser.GenClassCompiler;
  */
 @SupportedAnnotationTypes("org.vesalainen.parser.annotation.GenClassname")
 @SupportedSourceVersion(SourceVersion.RELEASE_7)
+@SupportedOptions({GenClassCache.CACHE_OPTION, GenClassCache.CACHE_DIR_OPTION})
 public class Processor extends AbstractProcessor
 {
+    private GenClassCache cache;
 
     @Override
     public synchronized void init(ProcessingEnvironment processingEnv)
@@ -47,6 +50,7 @@ public class Processor extends AbstractProcessor
         super.init(processingEnv);
         El.setElements(processingEnv.getElementUtils());
         Typ.setTypes(processingEnv.getTypeUtils());
+        cache = GenClassCache.create(processingEnv);
     }
 
     @Override
@@ -60,9 +64,21 @@ public class Processor extends AbstractProcessor
                 TypeElement type = (TypeElement) e;
                 try
                 {
+                    if (cache != null && cache.replay(type))
+                    {
+                        msg.printMessage(Diagnostic.Kind.NOTE, "up to date", type);
+                        continue;
+                    }
                     msg.printMessage(Diagnostic.Kind.NOTE, "processing", type);
                     System.err.println("processing "+type);
-                    GenClassCompiler.compile(type, processingEnv);
+                    if (cache != null)
+                    {
+                        cache.compile(type);
+                    }
+                    else
+                    {
+                        GenClassCompiler.compile(type, processingEnv);
+                    }
                 }
                 catch (Exception ex)
                 {
@@ -39,7 +39,8 @@ public class ByteBufferInput extends CharInput<ByteBuffer>
 
     public ByteBufferInput(ByteBuffer input, int size, Charset cs, Set<ParserFeature> features)
     {
-        super(size, features);
+        super(initialSize(size, features), features);
+        maxSize = size;
         includeLevel.in = input;
         this.decoder = cs.newDecoder();
         if (features.contains(UpperCase))
@@ -34,6 +34,8 @@ import org.vesalainen.parser.ParserFeature;
 public abstract class ByteInput<I> extends Input<I, ByteBuffer>
 {
     protected byte[] array;
+    private String runRanges;
+    private ByteRun byteRun;
     
     protected ByteInput(int size, boolean direct, Set<ParserFeature> features)
     {
@@ -87,6 +89,52 @@ public abstract class ByteInput<I> extends Input<I, ByteBuffer>
         return buffer1.get((int)(index % size)) & 0xff;
     }
 
+    @Override
+    protected int scanRun(int index, int limit, String ranges)
+    {
+        return scanRun(buffer1, index, limit, ranges);
+    }
+    /**
+     * Scans bytes in ranges. Small byte sets are scanned 8 bytes at a time.
+     * @param bb
+     * @param index
+     * @param limit
+     * @param ranges
+     * @return 
+     */
+    protected int scanRun(ByteBuffer bb, int index, int limit, String ranges)
+    {
+        if (ranges != runRanges)
+        {
+            runRanges = ranges;
+            byteRun = ByteRun.create(ranges);
+        }
+        if (byteRun != null)
+        {
+            index = byteRun.scan(bb, index, limit);
+        }
+        if (ranges.length() == 2)
+        {
+            char from = ranges.charAt(0);
+            char to = ranges.charAt(1);
+            while (index < limit)
+            {
+                int cc = bb.get(index) & 0xff;
+                if (cc < from || cc > to)
+                {
+                    break;
+                }
+                index++;
+            }
+            return index;
+        }
+        while (index < limit && inRanges(bb.get(index) & 0xff, ranges))
+        {
+            index++;
+        }
+        return index;
+    }
+
     @Override
     protected void set(long index, int value)
     {
@@ -105,6 +153,30 @@ public abstract class ByteInput<I> extends Input<I, ByteBuffer>
         throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
     }
 
+    @Override
+    protected void resize(int newSize)
+    {
+        ByteBuffer bb;
+        if (buffer1.isDirect())
+        {
+            bb = ByteBuffer.allocateDirect(newSize);
+        }
+        else
+        {
+            bb = ByteBuffer.allocate(newSize);
+        }
+        for (long ii=Math.max(0, end-size);ii<end;ii++)
+        {
+            bb.put((int)(ii % newSize), buffer1.get((int)(ii % size)));
+        }
+        this.size = newSize;
+        this.buffer1 = bb;
+        this.buffer2 = buffer1.duplicate();
+        this.array1 = new ByteBuffer[] {buffer1};
+        this.array2 = new ByteBuffer[] {buffer1, buffer2};
+        this.array = buffer1.hasArray() ? buffer1.array() : null;
+    }
+
     @Override
     public void reuse(CharSequence text)
     {
@@ -131,13 +203,13 @@ public abstract class ByteInput<I> extends Input<I, ByteBuffer>
             int es = (int) ((start+length) % size);
             if (ps < es)
             {
-                return new String(array, ps, length, StandardCharsets.US_ASCII);
+                return new String(array, ps, length, StandardCharsets.ISO_8859_1);
             }
             else
             {
                 StringBuilder sb = new StringBuilder();
-                sb.append(new String(array, ps, size-ps, StandardCharsets.US_ASCII));
-                sb.append(new String(array, 0, es, StandardCharsets.US_ASCII));
+                sb.append(new String(array, ps, size-ps, StandardCharsets.ISO_8859_1));
+                sb.append(new String(array, 0, es, StandardCharsets.ISO_8859_1));
                 return sb.toString();
             }
         }
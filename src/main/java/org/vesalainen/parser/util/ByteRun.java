@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Scans runs of bytes 8 bytes at a time (SIMD within a register).
+ * 
+ * <p>Usable when ranges either contain all but few bytes (e.g. until newline)
+ * or only few bytes (e.g. spaces). Scan stops before the word containing the
+ * first byte not in ranges. Rest is left to scalar loop.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+final class ByteRun
+{
+    /**
+     * Maximum number of distinct bytes compared per word.
+     */
+    static final int MAXBYTES = 4;
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH = 0x8080808080808080L;
+    private static final long LOW7 = 0x7F7F7F7F7F7F7F7FL;
+    
+    private final long[] patterns;
+    private final boolean stop;
+
+    private ByteRun(long[] patterns, boolean stop)
+    {
+        this.patterns = patterns;
+        this.stop = stop;
+    }
+    /**
+     * Returns ByteRun for ranges or null if byte set is not small.
+     * @param ranges Pairs of chars from-to inclusive.
+     * @return 
+     */
+    static ByteRun create(String ranges)
+    {
+        boolean[] in = new boolean[256];
+        int count = 0;
+        for (int ii=0;ii<ranges.length();ii+=2)
+        {
+            int from = ranges.charAt(ii);
+            int to = Math.min(255, ranges.charAt(ii+1));
+            for (int cc=from;cc<=to;cc++)
+            {
+                if (!in[cc])
+                {
+                    in[cc] = true;
+                    count++;
+                }
+            }
+        }
+        boolean stop;
+        if (256 - count <= MAXBYTES)
+        {
+            stop = true;
+        }
+        else
+        {
+            if (count <= MAXBYTES && count > 0)
+            {
+                stop = false;
+            }
+            else
+            {
+                return null;
+            }
+        }
+        long[] patterns = new long[stop ? 256 - count : count];
+        int index = 0;
+        for (int cc=0;cc<256;cc++)
+        {
+            if (in[cc] != stop)
+            {
+                patterns[index++] = ONES * cc;
+            }
+        }
+        return new ByteRun(patterns, stop);
+    }
+    /**
+     * Returns index of first 8 byte word starting at index which is not 
+     * completely in ranges. Returned index is &lt;= limit.
+     * @param bb
+     * @param index
+     * @param limit
+     * @return 
+     */
+    int scan(ByteBuffer bb, int index, int limit)
+    {
+        while (limit - index >= 8)
+        {
+            long mask = matches(bb.getLong(index));
+            if (stop ? mask != 0 : mask != HIGH)
+            {
+                break;
+            }
+            index += 8;
+        }
+        return index;
+    }
+    /**
+     * Returns word having high bit set in each byte equal to any pattern byte.
+     * @param word
+     * @return 
+     */
+    private long matches(long word)
+    {
+        long mask = 0;
+        for (long pattern : patterns)
+        {
+            long x = word ^ pattern;
+            mask |= ~(((x & LOW7) + LOW7) | x | LOW7);
+        }
+        return mask;
+    }
+}
@@ -80,6 +80,22 @@ public abstract class CharInput<I> extends Input<I, CharBuffer>
         return buffer1.get((int)(index % size));
     }
 
+    @Override
+    protected void resize(int newSize)
+    {
+        CharBuffer cb = CharBuffer.allocate(newSize);
+        for (long ii=Math.max(0, end-size);ii<end;ii++)
+        {
+            cb.put((int)(ii % newSize), buffer1.get((int)(ii % size)));
+        }
+        this.size = newSize;
+        this.buffer1 = cb;
+        this.buffer2 = buffer1.duplicate();
+        this.array1 = new CharBuffer[] {buffer1};
+        this.array2 = new CharBuffer[] {buffer1, buffer2};
+        this.array = buffer1.array();
+    }
+
     @Override
     public void reuse(CharSequence text)
     {
@@ -98,6 +114,35 @@ public abstract class CharInput<I> extends Input<I, CharBuffer>
         findSkip = 0;
         findMark = -1;
         waterMark = 0;
+        if (lineIndex != null)
+        {
+            lineIndex.clear();
+        }
+    }
+
+    @Override
+    protected int scanRun(int index, int limit, String ranges)
+    {
+        if (ranges.length() == 2)
+        {
+            char from = ranges.charAt(0);
+            char to = ranges.charAt(1);
+            while (index < limit)
+            {
+                char cc = buffer1.get(index);
+                if (cc < from || cc > to)
+                {
+                    break;
+                }
+                index++;
+            }
+            return index;
+        }
+        while (index < limit && inRanges(buffer1.get(index), ranges))
+        {
+            index++;
+        }
+        return index;
     }
 
     @Override
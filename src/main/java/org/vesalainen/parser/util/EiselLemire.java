@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser.util;
+
+import java.math.BigInteger;
+
+/**
+ * Converts decimal w * 10^q to correctly rounded IEEE 754 double or float 
+ * bits using Clinger's fast path and Eisel-Lemire algorithm.
+ * 
+ * <p>Returns -1 when the result cannot be decided cheaply. Caller is expected
+ * to use slower exact conversion then.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ * @see <a href="https://arxiv.org/abs/2101.11408">Number Parsing at a Gigabyte per Second</a>
+ */
+final class EiselLemire
+{
+    /**
+     * Maximum number of significant decimal digits in w.
+     */
+    static final int MAX_DIGITS = 19;
+    private static final int SMALLEST_POWER = -342;
+    private static final int LARGEST_POWER = 308;
+    /**
+     * 128 bit truncated 5^q as high and low longs.
+     */
+    private static final long[] POWERS = new long[2*(LARGEST_POWER-SMALLEST_POWER+1)];
+    private static final double[] DOUBLE_POWERS = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final float[] FLOAT_POWERS = {
+        1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+    
+    static
+    {
+        BigInteger five = BigInteger.valueOf(5);
+        for (int q=SMALLEST_POWER;q<=LARGEST_POWER;q++)
+        {
+            BigInteger c;
+            if (q >= 0)
+            {
+                BigInteger p = five.pow(q);
+                int shift = 128 - p.bitLength();
+                c = shift >= 0 ? p.shiftLeft(shift) : p.shiftRight(-shift);
+            }
+            else
+            {
+                BigInteger p = five.pow(-q);
+                int z = p.bitLength();
+                int b = q >= -27 ? z + 127 : 2*z + 128;
+                c = BigInteger.ONE.shiftLeft(b).divide(p).add(BigInteger.ONE);
+                c = c.shiftRight(Math.max(0, c.bitLength() - 128));
+            }
+            int index = 2*(q-SMALLEST_POWER);
+            POWERS[index] = c.shiftRight(64).longValue();
+            POWERS[index+1] = c.longValue();
+        }
+    }
+    /**
+     * Returns double bits of w * 10^q or -1.
+     * @param w Unsigned decimal significand having at most 19 digits.
+     * @param q Decimal exponent.
+     * @return 
+     */
+    static long doubleBits(long w, int q)
+    {
+        if (w == 0)
+        {
+            return 0;
+        }
+        if (q >= -22 && q <= 22 && w >= 0 && w <= (1L<<53))
+        {
+            double d = w;
+            d = q < 0 ? d / DOUBLE_POWERS[-q] : d * DOUBLE_POWERS[q];
+            return Double.doubleToRawLongBits(d);
+        }
+        return compute(w, q, 52, -1023, 0x7FF, -4, 23, SMALLEST_POWER, LARGEST_POWER);
+    }
+    /**
+     * Returns float bits of w * 10^q or -1.
+     * @param w Unsigned decimal significand having at most 19 digits.
+     * @param q Decimal exponent.
+     * @return 
+     */
+    static long floatBits(long w, int q)
+    {
+        if (w == 0)
+        {
+            return 0;
+        }
+        if (q >= -10 && q <= 10 && w >= 0 && w <= (1L<<24))
+        {
+            float f = w;
+            f = q < 0 ? f / FLOAT_POWERS[-q] : f * FLOAT_POWERS[q];
+            return Float.floatToRawIntBits(f);
+        }
+        return compute(w, q, 23, -127, 0xFF, -17, 10, -64, 38);
+    }
+    private static long compute(long w, int q, int mantissaBits, int minExponent, int infinitePower, int minRoundToEven, int maxRoundToEven, int smallestPower, int largestPower)
+    {
+        if (q < smallestPower)
+        {
+            return 0;
+        }
+        if (q > largestPower)
+        {
+            return (long)infinitePower << mantissaBits;
+        }
+        int lz = Long.numberOfLeadingZeros(w);
+        w <<= lz;
+        int index = 2*(q-SMALLEST_POWER);
+        long hi = multiplyHigh(w, POWERS[index]);
+        long lo = w * POWERS[index];
+        long precisionMask = -1L >>> (mantissaBits + 3);
+        if ((hi & precisionMask) == precisionMask)
+        {
+            long secondHi = multiplyHigh(w, POWERS[index+1]);
+            long newLo = lo + secondHi;
+            if (Long.compareUnsigned(secondHi, newLo) > 0)
+            {
+                hi++;
+            }
+            lo = newLo;
+        }
+        if (lo == -1L && (q < -27 || q > 55))
+        {
+            return -1;
+        }
+        int upperbit = (int) (hi >>> 63);
+        int shift = upperbit + 64 - mantissaBits - 3;
+        long mantissa = hi >>> shift;
+        int power2 = ((217706 * q) >> 16) + 63 + upperbit - lz - minExponent;
+        if (power2 <= 0)
+        {
+            // subnormal
+            if (-power2 + 1 >= 64)
+            {
+                return 0;
+            }
+            mantissa >>>= -power2 + 1;
+            mantissa += (mantissa & 1);
+            mantissa >>>= 1;
+            power2 = mantissa < (1L << mantissaBits) ? 0 : 1;
+            return mantissa | ((long)power2 << mantissaBits);
+        }
+        if ((lo == 0 || lo == 1) && q >= minRoundToEven && q <= maxRoundToEven && (mantissa & 3) == 1)
+        {
+            // exactly halfway, round to even
+            if ((mantissa << shift) == hi)
+            {
+                mantissa &= ~1L;
+            }
+        }
+        mantissa += (mantissa & 1);
+        mantissa >>>= 1;
+        if (mantissa >= (2L << mantissaBits))
+        {
+            mantissa = 1L << mantissaBits;
+            power2++;
+        }
+        mantissa &= ~(1L << mantissaBits);
+        if (power2 >= infinitePower)
+        {
+            return (long)infinitePower << mantissaBits;
+        }
+        return mantissa | ((long)power2 << mantissaBits);
+    }
+    /**
+     * Returns high 64 bits of unsigned 128 bit product.
+     * @param x
+     * @param y
+     * @return 
+     */
+    private static long multiplyHigh(long x, long y)
+    {
+        long x0 = x & 0xFFFFFFFFL;
+        long x1 = x >>> 32;
+        long y0 = y & 0xFFFFFFFFL;
+        long y1 = y >>> 32;
+        long p00 = x0 * y0;
+        long p01 = x0 * y1;
+        long p10 = x1 * y0;
+        long p11 = x1 * y1;
+        long middle = p10 + (p00 >>> 32) + (p01 & 0xFFFFFFFFL);
+        return p11 + (middle >>> 32) + (p01 >>> 32);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Set;
+import org.vesalainen.parser.ParserFeature;
+import static org.vesalainen.parser.ParserFeature.*;
+
+/**
+ * Byte input for push mode parsing. Input is given with feed method. When fed
+ * bytes are consumed read throws WouldBlockException until more bytes are fed
+ * or eof is called.
+ * 
+ * <p>Fed buffer is read in place. It must not be modified until it has no 
+ * remaining bytes or parsing has ended.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ * @see org.vesalainen.parser.LALRDriver.Session
+ */
+public class FeedInput extends ByteInput<ByteBuffer>
+{
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+    private boolean eof;
+    
+    public FeedInput(int size, Set<ParserFeature> features)
+    {
+        super(initialSize(size, features), features.contains(UseDirectBuffer), features);
+        maxSize = size;
+        includeLevel.in = EMPTY;
+    }
+    /**
+     * Sets buffer to be read next. Remaining bytes of previously fed buffer 
+     * are discarded.
+     * @param buffer 
+     */
+    public void feed(ByteBuffer buffer)
+    {
+        if (eof)
+        {
+            throw new IllegalStateException("feed after eof");
+        }
+        includeLevel.in = buffer;
+    }
+    /**
+     * Marks end of input. Read returns -1 after fed bytes are consumed.
+     */
+    public void eof()
+    {
+        eof = true;
+    }
+    
+    @Override
+    protected int fill(ByteBuffer input, ByteBuffer[] array) throws IOException
+    {
+        if (!input.hasRemaining())
+        {
+            return eof ? -1 : 0;
+        }
+        int count = 0;
+        for (ByteBuffer bb : array)
+        {
+            int len = Math.min(bb.remaining(), input.remaining());
+            if (len > 0)
+            {
+                int limit = input.limit();
+                input.limit(input.position()+len);
+                bb.put(input);
+                input.limit(limit);
+                count += len;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    protected void unread(ByteBuffer input) throws IOException
+    {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+
+    @Override
+    protected void close(ByteBuffer input) throws IOException
+    {
+    }
+
+    @Override
+    public void include(InputStream is, String source) throws IOException
+    {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+
+    @Override
+    public void include(InputStream is, String cs, String source) throws IOException
+    {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+
+    @Override
+    public void include(InputStream is, Charset cs, String source) throws IOException
+    {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+
+    @Override
+    public void include(Readable in, String source) throws IOException
+    {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+
+}
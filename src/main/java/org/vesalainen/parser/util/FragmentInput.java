@@ -0,0 +1,279 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.vesalainen.parser.ParserFeature;
+
+/**
+ * ByteInput which reads bytes in place from a sequence of ByteBuffer 
+ * fragments. Fragment bytes between position and limit at the time of adding
+ * are used. Fragments are read with absolute get methods and their position 
+ * is not changed. Fragment limit must not be changed before it is released.
+ * 
+ * <p>Ring buffer positions are kept as usual. Size limits the length of 
+ * single input. Ring buffer itself is only used for bookkeeping. Fragments 
+ * which are entirely below waterMark are released to the releaser given in 
+ * constructor.
+ * 
+ * <p>When added fragments are consumed read throws WouldBlockException until 
+ * more fragments are added or eof is called.
+ * 
+ * <p>There is no charset decoding. Bytes are returned as Latin-1 characters.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ * @see org.vesalainen.parser.LALRDriver.Session
+ */
+public class FragmentInput extends ByteInput<Consumer<ByteBuffer>>
+{
+    private ByteBuffer[] fragments = new ByteBuffer[16];
+    private long[] starts = new long[16];
+    private int[] bases = new int[16];
+    private int head;
+    private int count;
+    private long available;
+    private boolean eof;
+    private ByteBuffer current;
+    private int currentBase;
+    private long currentStart;
+    private long currentEnd;
+    /**
+     * Creates FragmentInput which reads all fragments.
+     * @param fragments
+     * @param size Maximum length of single input.
+     * @param features 
+     */
+    public FragmentInput(Collection<ByteBuffer> fragments, int size, Set<ParserFeature> features)
+    {
+        this(size, (bb)->{}, features);
+        for (ByteBuffer bb : fragments)
+        {
+            add(bb);
+        }
+        eof();
+    }
+    /**
+     * Creates FragmentInput
+     * @param size Maximum length of single input.
+     * @param releaser Is called for each fragment which is no longer needed.
+     * @param features 
+     */
+    public FragmentInput(int size, Consumer<ByteBuffer> releaser, Set<ParserFeature> features)
+    {
+        // direct bookkeeping buffer is never touched
+        super(size, true, features);
+        includeLevel.in = releaser;
+    }
+    /**
+     * Adds fragment to the end of input.
+     * @param fragment 
+     */
+    public void add(ByteBuffer fragment)
+    {
+        if (eof)
+        {
+            throw new IllegalStateException("add after eof");
+        }
+        if (!fragment.hasRemaining())
+        {
+            includeLevel.in.accept(fragment);
+            return;
+        }
+        if (count == fragments.length)
+        {
+            ByteBuffer[] f = new ByteBuffer[2*count];
+            long[] s = new long[2*count];
+            int[] b = new int[2*count];
+            for (int ii=0;ii<count;ii++)
+            {
+                f[ii] = fragments[(head+ii) % count];
+                s[ii] = starts[(head+ii) % count];
+                b[ii] = bases[(head+ii) % count];
+            }
+            fragments = f;
+            starts = s;
+            bases = b;
+            head = 0;
+        }
+        int idx = (head+count) % fragments.length;
+        fragments[idx] = fragment;
+        starts[idx] = available;
+        bases[idx] = fragment.position();
+        count++;
+        available += fragment.remaining();
+    }
+    /**
+     * Marks end of input. Read returns -1 after added fragments are consumed.
+     */
+    public void eof()
+    {
+        eof = true;
+    }
+    /**
+     * Makes available bytes allowed by ring buffer positions. Doesn't copy 
+     * anything. Releases fragments below waterMark.
+     * @param releaser
+     * @param array
+     * @return
+     * @throws IOException 
+     */
+    @Override
+    protected int fill(Consumer<ByteBuffer> releaser, ByteBuffer[] array) throws IOException
+    {
+        while (count > 0 && starts[head]+fragments[head].limit()-bases[head] <= waterMark)
+        {
+            ByteBuffer fragment = fragments[head];
+            fragments[head] = null;
+            if (fragment == current)
+            {
+                current = null;
+                currentStart = 0;
+                currentEnd = 0;
+            }
+            head = (head+1) % fragments.length;
+            count--;
+            releaser.accept(fragment);
+        }
+        if (end >= available)
+        {
+            return eof ? -1 : 0;
+        }
+        long room = 0;
+        for (ByteBuffer bb : array)
+        {
+            room += bb.remaining();
+        }
+        return (int) Math.min(room, available - end);
+    }
+    @Override
+    public int get(long index)
+    {
+        if (index < currentStart || index >= currentEnd)
+        {
+            locate(index);
+        }
+        return current.get(currentBase + (int) (index - currentStart)) & 0xff;
+    }
+    private void locate(long index)
+    {
+        for (int ii=0;ii<count;ii++)
+        {
+            int idx = (head+ii) % fragments.length;
+            long start = starts[idx];
+            if (index >= start && index < start+fragments[idx].limit()-bases[idx])
+            {
+                current = fragments[idx];
+                currentBase = bases[idx];
+                currentStart = start;
+                currentEnd = start+current.limit()-currentBase;
+                return;
+            }
+        }
+        throw new IllegalArgumentException(index+" not in fragments");
+    }
+    /**
+     * Scans fragments starting at cursor.
+     * @param index Ring buffer index of cursor
+     * @param limit
+     * @param ranges
+     * @return 
+     */
+    @Override
+    protected int scanRun(int index, int limit, String ranges)
+    {
+        long pos = cursor;
+        while (index < limit)
+        {
+            if (pos < currentStart || pos >= currentEnd)
+            {
+                locate(pos);
+            }
+            int off = currentBase + (int) (pos - currentStart);
+            int lim = (int) Math.min(currentEnd - pos, limit - index);
+            int stop = scanRun(current, off, off+lim, ranges);
+            index += stop-off;
+            pos += stop-off;
+            if (stop < off+lim)
+            {
+                break;
+            }
+        }
+        return index;
+    }
+
+    @Override
+    protected void set(long index, int value)
+    {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+
+    @Override
+    protected void unread(Consumer<ByteBuffer> input) throws IOException
+    {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+    /**
+     * Releases remaining fragments.
+     * @param releaser
+     * @throws IOException 
+     */
+    @Override
+    protected void close(Consumer<ByteBuffer> releaser) throws IOException
+    {
+        for (int ii=0;ii<count;ii++)
+        {
+            int idx = (head+ii) % fragments.length;
+            releaser.accept(fragments[idx]);
+        }
+        Arrays.fill(fragments, null);
+        count = 0;
+        current = null;
+        currentStart = 0;
+        currentEnd = 0;
+    }
+
+    @Override
+    public void include(InputStream is, String source) throws IOException
+    {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+
+    @Override
+    public void include(InputStream is, String cs, String source) throws IOException
+    {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+
+    @Override
+    public void include(InputStream is, Charset cs, String source) throws IOException
+    {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+
+    @Override
+    public void include(Readable in, String source) throws IOException
+    {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+    
+}
@@ -36,11 +36,13 @@ import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.ScatteringByteChannel;
+import java.nio.channels.SelectableChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.EnumSet;
@@ -93,6 +95,9 @@ public abstract class Input<I,B extends Buffer> implements InputReader
     private static final Set<ParserFeature> NO_FEATURES = Collections.EMPTY_SET;
     private static final int BUFFER_SIZE = 8192;
     private static final long FILE_LENGTH_LIMIT = 100000;
+    static final int MAPPED_BLOCK_SIZE = 0x1000000;
+    private static final int GROWABLE_START_SIZE = 1024;
+    private static final long NOT_PARSED = Long.MIN_VALUE;
     private static final Map<Class<?>,MethodHandle> inputMap = new HashMap<>();
     
     static
@@ -104,7 +109,7 @@ public abstract class Input<I,B extends Buffer> implements InputReader
             MethodHandle mh = lookup.findStatic(Input.class, "getInput", mt);
             inputMap.put(mt.parameterType(0), mh);
             inputMap.put(String.class, mh);
-            for (Class<?> type : new Class<?>[]{ByteBuffer.class, File.class, URI.class, URL.class, Path.class, InputSource.class, InputStream.class, Reader.class, char[].class, byte[].class, ReadableByteChannel.class})
+            for (Class<?> type : new Class<?>[]{ByteBuffer.class, File.class, URI.class, URL.class, Path.class, InputSource.class, InputStream.class, Reader.class, char[].class, byte[].class, ByteBuffer[].class, ReadableByteChannel.class})
             {
                 mt = mt.changeParameterType(0, type);
                 mh = lookup.findStatic(Input.class, "getInput", mt);
@@ -122,6 +127,7 @@ public abstract class Input<I,B extends Buffer> implements InputReader
     protected B[] array1;  // 1 length buffer
     protected B[] array2;  // 2 length buffer
     protected int size;           // size of ring buffer (=buffer.length)
+    protected int maxSize;        // max size of growable ring buffer or 0
     protected long end;            // position of last actual read char
     protected long cursor;         // position of current input
     protected IncludeLevel includeLevel = new IncludeLevel();
@@ -132,7 +138,10 @@ public abstract class Input<I,B extends Buffer> implements InputReader
     protected long waterMark = 0;  // lowest position where buffer can be reused
     protected Set<ParserFeature> features;
     protected ChecksumWrapper checksum;
+    protected LineIndex lineIndex;
+    protected StringTable stringTable;
     private IOBooleanSupplier eofFunc = ()->peek(1)==-1;
+    private InputCharSequence inputCharSequence;
     
     protected abstract void set(long index, int value);
     protected abstract int fill(I input, B[] array) throws IOException;
@@ -143,10 +152,49 @@ public abstract class Input<I,B extends Buffer> implements InputReader
      * @param ln
      */
     protected abstract void makeRoom(int ln);
+    /**
+     * Returns ring buffer index of first char in [index, limit) which is not 
+     * in ranges. Segment doesn't wrap around the ring buffer.
+     * @param index
+     * @param limit
+     * @param ranges Pairs of chars from-to (inclusive).
+     * @return 
+     * @see #readWhile(java.lang.String) 
+     */
+    protected abstract int scanRun(int index, int limit, String ranges);
+    /**
+     * Replaces ring buffer with newSize buffer. Content of current ring buffer
+     * is copied so that position p is at p % newSize.
+     * @param newSize 
+     */
+    protected abstract void resize(int newSize);
             
     protected Input(Set<ParserFeature> features)
     {
         this.features = features;
+        if (features.contains(UseLineIndex))
+        {
+            if (features.contains(UsePushback) || features.contains(UseInclude))
+            {
+                throw new IllegalArgumentException(UseLineIndex+" with "+UsePushback+" or "+UseInclude+" doesn't work");
+            }
+            lineIndex = new LineIndex();
+        }
+    }
+    /**
+     * Returns initial ring buffer size. With UseGrowableBuffer buffer starts
+     * small and grows up to size.
+     * @param size
+     * @param features
+     * @return 
+     */
+    protected static int initialSize(int size, Set<ParserFeature> features)
+    {
+        if (features.contains(UseGrowableBuffer))
+        {
+            return Math.min(size, GROWABLE_START_SIZE);
+        }
+        return size;
     }
     /**
      * Returns supported input types.
@@ -415,7 +463,7 @@ public abstract class Input<I,B extends Buffer> implements InputReader
     }
     protected static InputReader getInput(ByteBuffer bb, int size, Charset cs, Set<ParserFeature> features)
     {
-        if (canUseUsAscii(cs, features))
+        if (canUseLatin1(cs, features))
         {
             return new ScatteringByteChannelInput(bb, features);
         }
@@ -424,17 +472,36 @@ public abstract class Input<I,B extends Buffer> implements InputReader
             return new ByteBufferInput(bb, size==-1?BUFFER_SIZE:size, cs, features);
         }
     }
+    protected static InputReader getInput(ByteBuffer[] fragments, int size, Charset cs, Set<ParserFeature> features)
+    {
+        if (canUseLatin1(cs, features))
+        {
+            return new FragmentInput(Arrays.asList(fragments), size==-1?BUFFER_SIZE:size, features);
+        }
+        else
+        {
+            throw new IllegalArgumentException(cs+" or "+features+" not supported with fragments");
+        }
+    }
     protected static InputReader getInput(ReadableByteChannel input, int size, Charset cs, Set<ParserFeature> features) throws IOException
     {
         if (input instanceof FileChannel)
         {
             FileChannel fc = (FileChannel) input;
-            if (fc.size()> FILE_LENGTH_LIMIT)
+            if (fc.size()> FILE_LENGTH_LIMIT && canUseLatin1(cs, features))
+            {
+                return new MappedByteInput(fc, size==-1?BUFFER_SIZE:size, features);
+            }
+            if (fc.size()> FILE_LENGTH_LIMIT && fc.size() <= Integer.MAX_VALUE)
             {
                 MappedByteBuffer mbb = fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size());
                 return getInput(mbb, size, cs, features);
             }
         }
+        if (features.contains(UseReadAhead) && !isNonBlocking(input))
+        {
+            input = new ReadAheadChannel(input, size==-1?BUFFER_SIZE:size, features.contains(UseDirectBuffer));
+        }
         if (input instanceof ScatteringByteChannel)
         {
             if (canUseUsAscii(cs, features))
@@ -445,6 +512,10 @@ public abstract class Input<I,B extends Buffer> implements InputReader
         }
         return new ReadableInput(getFeaturedReadable(input, cs, features), size==-1?BUFFER_SIZE:size, features);
     }
+    private static boolean isNonBlocking(ReadableByteChannel channel)
+    {
+        return (channel instanceof SelectableChannel) && !((SelectableChannel)channel).isBlocking();
+    }
     /**
      * Creates an InputReader
      * @param input
@@ -500,6 +571,18 @@ public abstract class Input<I,B extends Buffer> implements InputReader
         inputReader.setSource(input.getSystemId());
         return inputReader;
     }
+    private static boolean canUseLatin1(Charset cs, Set<ParserFeature> features)
+    {
+        return (    StandardCharsets.ISO_8859_1.contains(cs) && 
+                !(
+                features.contains(UseModifiableCharset) ||
+                features.contains(UpperCase) ||
+                features.contains(LowerCase) ||
+                features.contains(UsePushback) ||
+                features.contains(UseInclude)
+                )
+                );
+    }
     private static boolean canUseUsAscii(Charset cs, Set<ParserFeature> features)
     {
         return (    StandardCharsets.US_ASCII.contains(cs) && 
@@ -660,7 +743,7 @@ public abstract class Input<I,B extends Buffer> implements InputReader
         String source = includeLevel.source;
         if (features.contains(UseOffsetLocatorException))
         {
-            throw new OffsetLocatorException(errorString, source, getStart(), getEnd(), includeLevel.lastChar, thr);
+            throw new OffsetLocatorException(errorString, source, getStart(), getEnd(), getLastChar(), thr);
         }
         else
         {
@@ -671,7 +754,7 @@ public abstract class Input<I,B extends Buffer> implements InputReader
                     source,
                     line,
                     column,
-                    includeLevel.lastChar, 
+                    getLastChar(), 
                     thr
                     );
         }
@@ -692,7 +775,7 @@ public abstract class Input<I,B extends Buffer> implements InputReader
     private String getErrorMessage(String errorMessage)
     {
         return "source: "+includeLevel.source+"\n"+
-                    errorMessage+" at line "+includeLevel.line+": pos "+includeLevel.column+
+                    errorMessage+" at line "+getLineNumber()+": pos "+getColumnNumber()+
                     "\n"+
                     getLine()+
                     "\n"+
@@ -897,6 +980,10 @@ public abstract class Input<I,B extends Buffer> implements InputReader
     @Override
     public String getString()
     {
+        if (stringTable != null)
+        {
+            return stringTable.get(this, cursor-length, length);
+        }
         return getString(cursor-length, length);
     }
 
@@ -953,10 +1040,24 @@ public abstract class Input<I,B extends Buffer> implements InputReader
     {
         return new CharSequenceImpl(s, l);
     }
+    /**
+     * Returns reusable CharSequence view of the last matched input.
+     * @return 
+     */
+    @Override
+    public InputCharSequence getInputCharSequence()
+    {
+        if (inputCharSequence == null)
+        {
+            inputCharSequence = new InputCharSequence(this);
+        }
+        inputCharSequence.set(cursor-length, length);
+        return inputCharSequence;
+    }
     @Override
     public String getLine()
     {
-        int c = includeLevel.column;
+        int c = getColumnNumber();
         if (cursor-c < end-size)
         {
             int len = size / 2;
@@ -1083,6 +1184,10 @@ public abstract class Input<I,B extends Buffer> implements InputReader
         {
             throw new IOException("rewinding past input");
         }
+        if (lineIndex != null)
+        {
+            return;
+        }
         int ld = 0;
         for (int ii=0;ii<count;ii++)
         {
@@ -1154,6 +1259,14 @@ public abstract class Input<I,B extends Buffer> implements InputReader
             {
                 return -1;
             }
+            if (lineIndex != null)
+            {
+                indexLines();
+            }
+            if (size < maxSize && size-(cursor-waterMark) < size/4)
+            {
+                resize((int) Math.min(maxSize, 2L*size));
+            }
             int cp = (int)(cursor % size);
             long len = size-(cursor-waterMark);
             int il;
@@ -1194,7 +1307,7 @@ public abstract class Input<I,B extends Buffer> implements InputReader
             }
             if (il == 0)
             {
-                throw new IOException("No input! Use blocking mode?");
+                throw new WouldBlockException("No input! Use blocking mode?");
             }
             buffer1.clear();
             buffer2.clear();
@@ -1209,7 +1322,10 @@ public abstract class Input<I,B extends Buffer> implements InputReader
         {
             throw new IOException("cursor = "+cursor);
         }
-        includeLevel.forward(rc);
+        if (lineIndex == null)
+        {
+            includeLevel.forward(rc);
+        }
         length++;
         if (length > size)
         {
@@ -1222,6 +1338,123 @@ public abstract class Input<I,B extends Buffer> implements InputReader
         return rc;
     }
     @Override
+    public int readWhile(String ranges) throws IOException
+    {
+        while (true)
+        {
+            if (cursor >= end || length >= size)
+            {
+                int rc = read();
+                if (rc == -1 || !inRanges(rc, ranges))
+                {
+                    return rc;
+                }
+            }
+            else
+            {
+                int index = (int) (cursor % size);
+                int limit = (int) Math.min(size, index+Math.min(end-cursor, size-length));
+                int stop = scanRun(index, limit, ranges);
+                if (stop > index)
+                {
+                    forward(stop-index, ranges);
+                }
+                if (stop < limit)
+                {
+                    return read();
+                }
+            }
+        }
+    }
+    @Override
+    public int skipWhile(String ranges) throws IOException
+    {
+        while (true)
+        {
+            discard();
+            if (cursor >= end)
+            {
+                int rc = read();
+                if (rc == -1 || !inRanges(rc, ranges))
+                {
+                    return rc;
+                }
+            }
+            else
+            {
+                int index = (int) (cursor % size);
+                int limit = (int) Math.min(size, index+(end-cursor));
+                int stop = scanRun(index, limit, ranges);
+                if (stop > index)
+                {
+                    forward(stop-index, ranges);
+                }
+                if (stop < limit)
+                {
+                    discard();
+                    return read();
+                }
+            }
+        }
+    }
+    /**
+     * Drops current input and lets buffer to be reused up to cursor.
+     */
+    private void discard()
+    {
+        length = 0;
+        waterMark = cursor;
+    }
+    /**
+     * Moves cursor count chars which are in ranges.
+     * @param count
+     * @param ranges 
+     */
+    private void forward(int count, String ranges)
+    {
+        long start = cursor;
+        cursor += count;
+        length += count;
+        if (lineIndex == null)
+        {
+            if (inRanges('\n', ranges))
+            {
+                for (long ii=start;ii<cursor;ii++)
+                {
+                    includeLevel.forward(get(ii));
+                }
+            }
+            else
+            {
+                includeLevel.forward(get(cursor-1), count);
+            }
+        }
+        if (checksum != null)
+        {
+            for (long ii=start;ii<cursor;ii++)
+            {
+                checksum.update(ii, get(ii));
+            }
+        }
+    }
+    /**
+     * Returns true if cc is in ranges.
+     * @param cc
+     * @param ranges Pairs of chars from-to (inclusive).
+     * @return 
+     */
+    protected static boolean inRanges(int cc, String ranges)
+    {
+        for (int ii=0;ii<ranges.length();ii+=2)
+        {
+            if (cc >= ranges.charAt(ii) && cc <= ranges.charAt(ii+1))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+    @Override
     public void reRead(int count) throws IOException
     {
         if (count < 0)
@@ -1236,7 +1469,10 @@ public abstract class Input<I,B extends Buffer> implements InputReader
                 throw new IOException("reRead's unread data");
             }
             int rc = get(cursor++);
-            includeLevel.forward(rc);
+            if (lineIndex == null)
+            {
+                includeLevel.forward(rc);
+            }
             length++;
             if (length > size)
             {
@@ -1376,6 +1612,11 @@ public abstract class Input<I,B extends Buffer> implements InputReader
     @Override
     public short parseShort()
     {
+        long value = parseDigits(10, true, Short.MAX_VALUE);
+        if (value != NOT_PARSED)
+        {
+            return (short) value;
+        }
         return Primitives.parseShort(this);
     }
     /**
@@ -1397,8 +1638,27 @@ public abstract class Input<I,B extends Buffer> implements InputReader
     @Override
     public int parseInt()
     {
+        long value = parseDigits(10, true, Integer.MAX_VALUE);
+        if (value != NOT_PARSED)
+        {
+            return (int) value;
+        }
         return Primitives.parseInt(this);
     }
+
+    @Override
+    public int parseInt(int radix, boolean signed)
+    {
+        if (radix > 2 && !signed)
+        {
+            long value = parseDigits(radix, false, Integer.MAX_VALUE);
+            if (value != NOT_PARSED)
+            {
+                return (int) value;
+            }
+        }
+        return Primitives.parseInt(this, radix, signed);
+    }
     /**
      * Parses string content to int "011" -&gt; 3
      * 
@@ -1479,8 +1739,88 @@ public abstract class Input<I,B extends Buffer> implements InputReader
     @Override
     public long parseLong()
     {
+        long value = parseDigits(10, true, Long.MAX_VALUE);
+        if (value != NOT_PARSED)
+        {
+            return value;
+        }
         return Primitives.parseLong(this);
     }
+
+    @Override
+    public long parseLong(int radix, boolean signed)
+    {
+        if (radix > 2 && !signed)
+        {
+            long value = parseDigits(radix, false, Long.MAX_VALUE);
+            if (value != NOT_PARSED)
+            {
+                return value;
+            }
+        }
+        return Primitives.parseLong(this, radix, signed);
+    }
+    /**
+     * Parses current input directly from ring buffer. Returns NOT_PARSED if 
+     * input is not plain ascii digits with optional sign or absolute value
+     * is greater than max. Those are left to Primitives.
+     * @param radix
+     * @param sign Leading + or - allowed
+     * @param max
+     * @return 
+     */
+    private long parseDigits(int radix, boolean sign, long max)
+    {
+        long start = cursor - length;
+        boolean negative = false;
+        if (sign && start < cursor)
+        {
+            int cc = get(start);
+            if (cc == '+' || cc == '-')
+            {
+                negative = cc == '-';
+                start++;
+            }
+        }
+        if (start == cursor || radix > 36)
+        {
+            return NOT_PARSED;
+        }
+        long limit = max / radix;
+        long value = 0;
+        for (long ii=start;ii<cursor;ii++)
+        {
+            int cc = get(ii);
+            int digit;
+            if (cc >= '0' && cc <= '9')
+            {
+                digit = cc - '0';
+            }
+            else if (cc >= 'a' && cc <= 'z')
+            {
+                digit = cc - 'a' + 10;
+            }
+            else if (cc >= 'A' && cc <= 'Z')
+            {
+                digit = cc - 'A' + 10;
+            }
+            else
+            {
+                return NOT_PARSED;
+            }
+            if (digit >= radix || value > limit)
+            {
+                return NOT_PARSED;
+            }
+            value = value * radix;
+            if (value > max - digit)
+            {
+                return NOT_PARSED;
+            }
+            value += digit;
+        }
+        return negative ? -value : value;
+    }
     /**
      * Converts part of input
      * @param s Start position starting at 0
@@ -1503,6 +1843,11 @@ public abstract class Input<I,B extends Buffer> implements InputReader
     @Override
     public float parseFloat()
     {
+        long bits = parseDecimal(true);
+        if (bits != NOT_PARSED)
+        {
+            return Float.intBitsToFloat((int) bits);
+        }
         return Primitives.parseFloat(this);
     }
     /**
@@ -1527,8 +1872,125 @@ public abstract class Input<I,B extends Buffer> implements InputReader
     @Override
     public double parseDouble()
     {
+        long bits = parseDecimal(false);
+        if (bits != NOT_PARSED)
+        {
+            return Double.longBitsToDouble(bits);
+        }
         return Primitives.parseDouble(this);
     }
+    /**
+     * Parses current input directly from ring buffer as decimal number 
+     * [+-]?[0-9]*(\.[0-9]*)?([eE][+-]?[0-9]+)? and returns float or double
+     * bits. Returns NOT_PARSED if input doesn't match, has more than 19 
+     * significant digits, is negative zero or conversion is not decided by 
+     * EiselLemire.
+     * @param single If true returns float bits.
+     * @return 
+     */
+    private long parseDecimal(boolean single)
+    {
+        long index = cursor - length;
+        boolean negative = false;
+        if (index < cursor)
+        {
+            int cc = get(index);
+            if (cc == '+' || cc == '-')
+            {
+                negative = cc == '-';
+                index++;
+            }
+        }
+        long w = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean any = false;
+        boolean fraction = false;
+        while (index < cursor)
+        {
+            int cc = get(index);
+            if (cc >= '0' && cc <= '9')
+            {
+                any = true;
+                if (w != 0 || cc != '0')
+                {
+                    if (digits == EiselLemire.MAX_DIGITS)
+                    {
+                        return NOT_PARSED;
+                    }
+                    w = w * 10 + (cc - '0');
+                    digits++;
+                }
+                if (fraction)
+                {
+                    exponent--;
+                }
+            }
+            else
+            {
+                if (cc == '.' && !fraction)
+                {
+                    fraction = true;
+                }
+                else
+                {
+                    break;
+                }
+            }
+            index++;
+        }
+        if (!any)
+        {
+            return NOT_PARSED;
+        }
+        if (index < cursor)
+        {
+            int cc = get(index++);
+            if (cc != 'e' && cc != 'E' || index == cursor)
+            {
+                return NOT_PARSED;
+            }
+            boolean negativeExponent = false;
+            cc = get(index);
+            if (cc == '+' || cc == '-')
+            {
+                negativeExponent = cc == '-';
+                index++;
+            }
+            if (index == cursor)
+            {
+                return NOT_PARSED;
+            }
+            int e = 0;
+            while (index < cursor)
+            {
+                cc = get(index++);
+                if (cc < '0' || cc > '9')
+                {
+                    return NOT_PARSED;
+                }
+                if (e < 10000)
+                {
+                    e = e * 10 + (cc - '0');
+                }
+            }
+            exponent += negativeExponent ? -e : e;
+        }
+        if (w == 0 && negative)
+        {
+            return NOT_PARSED;
+        }
+        long bits = single ? EiselLemire.floatBits(w, exponent) : EiselLemire.doubleBits(w, exponent);
+        if (bits == -1)
+        {
+            return NOT_PARSED;
+        }
+        if (negative)
+        {
+            bits |= single ? 0x80000000L : Long.MIN_VALUE;
+        }
+        return bits;
+    }
     /**
      * Converts part of input
      * @param s Start position starting at 0
@@ -1548,13 +2010,13 @@ public abstract class Input<I,B extends Buffer> implements InputReader
         switch (type)
         {
             case BOL:
-                return includeLevel.startOfLine();
+                return startOfLine();
             case EOL:
-                return ((includeLevel.startOfLine() || !isLineSeparator(peek(0))) && isLineSeparator(peek(1)));
+                return ((startOfLine() || !isLineSeparator(peek(0))) && isLineSeparator(peek(1)));
             case WB:
-                return ((includeLevel.startOfLine() || !Character.isLetter(peek(0))) && Character.isLetter(peek(1)));
+                return ((startOfLine() || !Character.isLetter(peek(0))) && Character.isLetter(peek(1)));
             case NWB:
-                return ((!includeLevel.startOfLine() && Character.isLetter(peek(0))) && !Character.isLetter(peek(1)));
+                return ((!startOfLine() && Character.isLetter(peek(0))) && !Character.isLetter(peek(1)));
             case BOI:
                 return end == 0;
             case EOPM:
@@ -1569,6 +2031,15 @@ public abstract class Input<I,B extends Buffer> implements InputReader
         }
     }
 
+    private boolean startOfLine()
+    {
+        if (lineIndex != null)
+        {
+            return getColumnNumber() == 0;
+        }
+        return includeLevel.startOfLine();
+    }
+
     private boolean isLineSeparator(int cc)
     {
         return cc == '\r' || cc == '\n';
@@ -1577,14 +2048,48 @@ public abstract class Input<I,B extends Buffer> implements InputReader
     @Override
     public int getLineNumber()
     {
+        if (lineIndex != null)
+        {
+            indexLines();
+            return lineIndex.getLineNumber(cursor);
+        }
         return includeLevel.line;
     }
 
     @Override
     public int getColumnNumber()
     {
+        if (lineIndex != null)
+        {
+            indexLines();
+            return (int) (cursor - lineIndex.getLineStart(cursor));
+        }
         return includeLevel.column;
     }
+    /**
+     * Adds line feeds of not yet indexed input to line index.
+     */
+    private void indexLines()
+    {
+        long low = Math.max(0, end - size);
+        for (long ii=lineIndex.getScanned();ii<end;ii++)
+        {
+            if (get(ii) == '\n')
+            {
+                lineIndex.add(ii, low);
+            }
+        }
+        lineIndex.setScanned(end);
+    }
+    
+    private int getLastChar()
+    {
+        if (lineIndex != null)
+        {
+            return cursor > 0 && cursor > end - size ? get(cursor - 1) : 0;
+        }
+        return includeLevel.lastChar;
+    }
 
     @Override
     public String getEncoding()
@@ -1632,6 +2137,12 @@ public abstract class Input<I,B extends Buffer> implements InputReader
         this.checksum = new ChecksumWrapper(this, checksum, lookaheadLength);
     }
 
+    @Override
+    public void setStringTable(StringTable stringTable)
+    {
+        this.stringTable = stringTable;
+    }
+
     @Override
     public Checksum getChecksum()
     {
@@ -1669,6 +2180,17 @@ public abstract class Input<I,B extends Buffer> implements InputReader
             return column == 0;
         }
 
+        /**
+         * Forwards count chars not containing line feed.
+         * @param rc Last char
+         * @param count 
+         */
+        protected void forward(int rc, int count)
+        {
+            lastChar = rc;
+            column += count;
+        }
+        
         protected void forward(int rc)
         {
             lastChar = rc;
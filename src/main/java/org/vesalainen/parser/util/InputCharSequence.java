@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser.util;
+
+/**
+ * Reusable CharSequence view of InputReader ring buffer. Same instance is 
+ * returned for every InputReader.getInputCharSequence call. Content is valid
+ * until input is cleared and buffer position is reused.
+ * 
+ * <p>hashCode is calculated same way as in String. equals returns true for
+ * any CharSequence having same content. Note that this is not symmetric with
+ * String.equals, but allows looking up String keyed hash maps without 
+ * creating a String. Use toString to store the content.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ * @see InputReader#getInputCharSequence() 
+ */
+public final class InputCharSequence implements CharSequence
+{
+    private final InputReader reader;
+    private long start;
+    private int length;
+
+    InputCharSequence(InputReader reader)
+    {
+        this.reader = reader;
+    }
+
+    void set(long start, int length)
+    {
+        this.start = start;
+        this.length = length;
+    }
+    /**
+     * Returns start position in input.
+     * @return 
+     */
+    public long getStart()
+    {
+        return start;
+    }
+    
+    @Override
+    public int length()
+    {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index)
+    {
+        if (index < 0 || index >= length)
+        {
+            throw new IndexOutOfBoundsException("index "+index+" out of range");
+        }
+        return (char) reader.get(start+index);
+    }
+
+    @Override
+    public CharSequence subSequence(int s, int e)
+    {
+        if (s < 0 || e > length || s > e)
+        {
+            throw new IndexOutOfBoundsException("Illegal sub range");
+        }
+        return reader.getCharSequence(start+s, e-s);
+    }
+    /**
+     * Returns true if content equals to given CharSequence.
+     * @param cs
+     * @return 
+     */
+    public boolean contentEquals(CharSequence cs)
+    {
+        if (cs.length() != length)
+        {
+            return false;
+        }
+        for (int ii=0;ii<length;ii++)
+        {
+            if (reader.get(start+ii) != cs.charAt(ii))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int h = 0;
+        for (int ii=0;ii<length;ii++)
+        {
+            h = 31 * h + reader.get(start+ii);
+        }
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+        {
+            return true;
+        }
+        if (obj instanceof CharSequence)
+        {
+            return contentEquals((CharSequence) obj);
+        }
+        return false;
+    }
+
+    @Override
+    public String toString()
+    {
+        return reader.getString(start, length);
+    }
+    
+}
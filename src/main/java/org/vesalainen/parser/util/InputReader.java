@@ -190,6 +190,12 @@ public interface InputReader extends CharSequence, AutoCloseable, ModifiableChar
      * @return 
      */
     CharSequence getCharSequence(long start, int length);
+    /**
+     * Returns reusable CharSequence view of the last matched input. Same 
+     * instance is returned for every call. It is valid until input is cleared.
+     * @return 
+     */
+    InputCharSequence getInputCharSequence();
     /**
      * Returns last read line.
      * @return 
@@ -242,6 +248,29 @@ public interface InputReader extends CharSequence, AutoCloseable, ModifiableChar
      * @throws IOException
      */
     int read() throws IOException;
+    /**
+     * Reads characters as long as they are in given ranges. Returns the first
+     * character not in ranges or -1 if eof. Result is the same as calling read
+     * in a loop, but contiguous ring buffer segments are scanned in a tight 
+     * loop and bookkeeping is done once per segment.
+     * <p>Used by generated scanners in states which loop back to themselves.
+     * @param ranges Pairs of chars from-to (inclusive).
+     * @return
+     * @throws IOException 
+     */
+    int readWhile(String ranges) throws IOException;
+    /**
+     * Like readWhile, but input read so far and the run itself are not 
+     * retained. After return current input contains only the returned 
+     * character. Run length is not limited by buffer size.
+     * <p>Used by generated scanners for whitespace and comment terminals 
+     * whose input is not used.
+     * @param ranges Pairs of chars from-to (inclusive).
+     * @return
+     * @throws IOException 
+     * @see #readWhile(java.lang.String) 
+     */
+    int skipWhile(String ranges) throws IOException;
     /**
      * Reads times count. This is for testing!
      * @param times
@@ -330,6 +359,14 @@ public interface InputReader extends CharSequence, AutoCloseable, ModifiableChar
      * @return
      */
     int parseInt(long start, int length, int radix);
+    /**
+     * Parses string content to int using radix and signed as in 
+     * Primitives.parseInt(CharSequence, int, boolean)
+     * @param radix
+     * @param signed
+     * @return 
+     */
+    int parseInt(int radix, boolean signed);
     /**
      * @deprecated Use parseInt(this, 2)
      * Parses string content to int "011" -&gt; 3
@@ -385,6 +422,14 @@ public interface InputReader extends CharSequence, AutoCloseable, ModifiableChar
      * @return
      */
     long parseLong(long start, int length, int radix);
+    /**
+     * Parses string content to long using radix and signed as in 
+     * Primitives.parseLong(CharSequence, int, boolean)
+     * @param radix
+     * @param signed
+     * @return 
+     */
+    long parseLong(int radix, boolean signed);
     /**
      * Parses string content to float "123.456" -&gt; 123.456
      * Minus is allowed as first character.
@@ -564,6 +609,12 @@ public interface InputReader extends CharSequence, AutoCloseable, ModifiableChar
      * @param lookaheadLength 
      */
     void setChecksum(Checksum checksum, int lookaheadLength);
+    /**
+     * Sets StringTable used by getString(). Null disables it.
+     * @param stringTable 
+     * @see org.vesalainen.parser.ParserFeature#UseStringTable
+     */
+    void setStringTable(StringTable stringTable);
     /**
      * Returns checksum. Only getValue and reset methods are usable.
      * @return 
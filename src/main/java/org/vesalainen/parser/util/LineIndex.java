@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser.util;
+
+import java.util.Arrays;
+
+/**
+ * Offsets of line feeds in input. Line and column numbers are calculated
+ * from offsets when needed.
+ * 
+ * <p>Offsets below low water mark are dropped when index is full. The last
+ * dropped offset is kept to find the start of current line.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ * @see org.vesalainen.parser.ParserFeature#UseLineIndex
+ */
+final class LineIndex
+{
+    private long[] offsets = new long[64];
+    private int count;
+    private int dropped;
+    private long scanned;
+    /**
+     * Returns position up to which input is indexed.
+     * @return 
+     */
+    long getScanned()
+    {
+        return scanned;
+    }
+
+    void setScanned(long scanned)
+    {
+        this.scanned = scanned;
+    }
+    /**
+     * Adds line feed offset. Offsets must be added in increasing order.
+     * @param offset
+     * @param low Offsets below low are not needed any more.
+     */
+    void add(long offset, long low)
+    {
+        if (count == offsets.length)
+        {
+            int drop = Math.max(0, find(low) - 1);
+            if (drop > 0)
+            {
+                System.arraycopy(offsets, drop, offsets, 0, count - drop);
+                count -= drop;
+                dropped += drop;
+            }
+            else
+            {
+                offsets = Arrays.copyOf(offsets, offsets.length*2);
+            }
+        }
+        offsets[count++] = offset;
+    }
+    /**
+     * Returns 1-based line number at position.
+     * @param position
+     * @return 
+     */
+    int getLineNumber(long position)
+    {
+        return 1 + dropped + find(position);
+    }
+    /**
+     * Returns position of first char in line at position.
+     * @param position
+     * @return 
+     */
+    long getLineStart(long position)
+    {
+        int index = find(position);
+        return index > 0 ? offsets[index-1] + 1 : 0;
+    }
+    
+    void clear()
+    {
+        count = 0;
+        dropped = 0;
+        scanned = 0;
+    }
+    /**
+     * Returns number of offsets less than position.
+     * @param position
+     * @return 
+     */
+    private int find(long position)
+    {
+        int lo = 0;
+        int hi = count;
+        while (lo < hi)
+        {
+            int mid = (lo + hi) >>> 1;
+            if (offsets[mid] < position)
+            {
+                lo = mid + 1;
+            }
+            else
+            {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
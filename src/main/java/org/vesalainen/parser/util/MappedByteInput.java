@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Set;
+import org.vesalainen.parser.ParserFeature;
+
+/**
+ * ByteInput which reads bytes straight from memory mapped file. File is 
+ * mapped in windows aligned to window size. Two windows are mapped at a time, 
+ * one for even and one for odd window numbers. Window size is at least ring 
+ * buffer size, so live input fits in two consecutive windows. Window is 
+ * remapped when input advances into the next window with same parity.
+ * 
+ * <p>Ring buffer size limits only the length of single input. Ring buffer 
+ * itself is only used for bookkeeping.
+ * 
+ * <p>There is no charset decoding. Bytes are returned as Latin-1 characters.
+ * File can be larger than 2 GB.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+public class MappedByteInput extends ByteInput<FileChannel>
+{
+    private final long fileSize;
+    private final int windowShift;
+    private final int windowSize;
+    private final int windowMask;
+    private final MappedByteBuffer[] windows = new MappedByteBuffer[2];
+    private final long[] windowNumbers = new long[] {-1, -1};
+    /**
+     * Creates MappedByteInput.
+     * @param fc
+     * @param size Ring buffer size. Maximum length of single input.
+     * @param features
+     * @throws IOException 
+     */
+    public MappedByteInput(FileChannel fc, int size, Set<ParserFeature> features) throws IOException
+    {
+        this(fc, size, Input.MAPPED_BLOCK_SIZE, features);
+    }
+    /**
+     * Creates MappedByteInput.
+     * @param fc
+     * @param size Ring buffer size. Maximum length of single input.
+     * @param window Minimum size of mapped window. Rounded up to power of 2.
+     * @param features
+     * @throws IOException 
+     */
+    public MappedByteInput(FileChannel fc, int size, int window, Set<ParserFeature> features) throws IOException
+    {
+        // direct bookkeeping buffer is never touched
+        super(Math.max(1, (int) Math.min(size, fc.size())), true, features);
+        if (Math.max(size, window) > 0x40000000)
+        {
+            throw new IllegalArgumentException("window "+window+" or size "+size+" too big");
+        }
+        this.fileSize = fc.size();
+        this.windowShift = 32 - Integer.numberOfLeadingZeros(Math.max(size, window) - 1);
+        this.windowSize = 1 << windowShift;
+        this.windowMask = windowSize - 1;
+        long position = fc.position();
+        this.cursor = position;
+        this.end = position;
+        this.waterMark = position;
+        includeLevel.in = fc;
+        if (position < fileSize)
+        {
+            ensureMapped(position);
+        }
+    }
+    private MappedByteBuffer map(long position) throws IOException
+    {
+        FileChannel fc = includeLevel.in;
+        return fc.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowSize, fileSize-position));
+    }
+    /**
+     * Makes available bytes allowed by ring buffer positions. Doesn't copy 
+     * anything, only maps the windows needed.
+     * @param input
+     * @param array
+     * @return
+     * @throws IOException 
+     */
+    @Override
+    protected int fill(FileChannel input, ByteBuffer[] array) throws IOException
+    {
+        if (end >= fileSize)
+        {
+            return -1;
+        }
+        long room = 0;
+        for (ByteBuffer bb : array)
+        {
+            room += bb.remaining();
+        }
+        int len = (int) Math.min(room, fileSize - end);
+        ensureMapped(end);
+        ensureMapped(end + len - 1);
+        return len;
+    }
+    private void ensureMapped(long index) throws IOException
+    {
+        long windowNumber = index >>> windowShift;
+        int slot = (int) (windowNumber & 1);
+        if (windowNumbers[slot] != windowNumber)
+        {
+            windows[slot] = map(windowNumber << windowShift);
+            windowNumbers[slot] = windowNumber;
+        }
+    }
+    @Override
+    public int get(long index)
+    {
+        return windows[(int) ((index >>> windowShift) & 1)].get((int) (index & windowMask)) & 0xff;
+    }
+    /**
+     * Scans mapped windows starting at cursor.
+     * @param index Ring buffer index of cursor
+     * @param limit
+     * @param ranges
+     * @return 
+     */
+    @Override
+    protected int scanRun(int index, int limit, String ranges)
+    {
+        long pos = cursor;
+        while (index < limit)
+        {
+            ByteBuffer window = windows[(int) ((pos >>> windowShift) & 1)];
+            int off = (int) (pos & windowMask);
+            int lim = Math.min(windowSize - off, limit - index);
+            int stop = scanRun(window, off, off+lim, ranges);
+            index += stop-off;
+            pos += stop-off;
+            if (stop < off+lim)
+            {
+                break;
+            }
+        }
+        return index;
+    }
+
+    @Override
+    protected void set(long index, int value)
+    {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+
+    @Override
+    public String getString(long start, int length)
+    {
+        char[] chars = new char[length];
+        for (int ii=0;ii<length;ii++)
+        {
+            chars[ii] = (char) get(start+ii);
+        }
+        return new String(chars);
+    }
+
+    @Override
+    protected void unread(FileChannel input) throws IOException
+    {
+        input.position(cursor);
+    }
+
+    @Override
+    protected void close(FileChannel input) throws IOException
+    {
+        windows[0] = null;
+        windows[1] = null;
+        input.close();
+    }
+
+    @Override
+    public void insert(char[] text) throws IOException
+    {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+
+    @Override
+    public void insert(CharSequence text) throws IOException
+    {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+
+    @Override
+    public void include(InputStream is, String source) throws IOException
+    {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+
+    @Override
+    public void include(InputStream is, String cs, String source) throws IOException
+    {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+
+    @Override
+    public void include(InputStream is, Charset cs, String source) throws IOException
+    {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+
+    @Override
+    public void include(Readable in, String source) throws IOException
+    {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+    
+}
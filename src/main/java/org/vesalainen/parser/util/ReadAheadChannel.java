@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.ScatteringByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Channel reading ahead in background thread. Background thread fills blocks
+ * while the reading thread consumes already filled ones. Blocks are handed off
+ * through two volatile counters. There is only one consumer thread. Channel
+ * has to be in blocking mode.
+ * <p>Background thread ends at end of input, on read error or when this 
+ * channel is closed. Closing also closes the underlying channel, which 
+ * releases background thread blocked in read. Reader using this channel has
+ * to be closed also after failed parsing.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ * @see org.vesalainen.parser.ParserFeature#UseReadAhead
+ */
+public class ReadAheadChannel implements ScatteringByteChannel
+{
+    private static final int BLOCKS = 4;
+    private final ReadableByteChannel channel;
+    private final ByteBuffer[] blocks;
+    private volatile long filled;
+    private volatile long consumed;
+    private volatile boolean eof;
+    private volatile boolean closed;
+    private volatile IOException error;
+    private volatile Thread consumer;
+    private Thread filler;
+    private ByteBuffer current;
+    /**
+     * Creates ReadAheadChannel
+     * @param channel
+     * @param size Total size of read ahead blocks.
+     * @param direct If true using direct buffers.
+     * @throws IllegalArgumentException If channel is in non-blocking mode.
+     */
+    public ReadAheadChannel(ReadableByteChannel channel, int size, boolean direct)
+    {
+        if ((channel instanceof SelectableChannel) && !((SelectableChannel)channel).isBlocking())
+        {
+            throw new IllegalArgumentException("channel in non-blocking mode");
+        }
+        this.channel = channel;
+        this.blocks = new ByteBuffer[BLOCKS];
+        int blockSize = Math.max(1, size/BLOCKS);
+        for (int ii=0;ii<BLOCKS;ii++)
+        {
+            if (direct)
+            {
+                blocks[ii] = ByteBuffer.allocateDirect(blockSize);
+            }
+            else
+            {
+                blocks[ii] = ByteBuffer.allocate(blockSize);
+            }
+        }
+    }
+
+    @Override
+    public long read(ByteBuffer[] dsts, int offset, int length) throws IOException
+    {
+        if (closed)
+        {
+            throw new ClosedChannelException();
+        }
+        if (filler == null)
+        {
+            filler = new Thread(this::fill, "ReadAhead");
+            filler.setDaemon(true);
+            filler.start();
+        }
+        if (current == null)
+        {
+            while (consumed == filled)
+            {
+                if (error != null)
+                {
+                    throw error;
+                }
+                if (eof && consumed == filled)
+                {
+                    return -1;
+                }
+                consumer = Thread.currentThread();
+                if (consumed == filled && !eof && error == null)
+                {
+                    LockSupport.park(this);
+                }
+            }
+            current = blocks[(int)(consumed % BLOCKS)];
+        }
+        long count = 0;
+        for (int ii=offset;ii<offset+length;ii++)
+        {
+            ByteBuffer dst = dsts[ii];
+            int len = Math.min(dst.remaining(), current.remaining());
+            if (len > 0)
+            {
+                int limit = current.limit();
+                current.limit(current.position()+len);
+                dst.put(current);
+                current.limit(limit);
+                count += len;
+            }
+        }
+        if (!current.hasRemaining())
+        {
+            current = null;
+            consumed++;
+            LockSupport.unpark(filler);
+        }
+        return count;
+    }
+
+    @Override
+    public long read(ByteBuffer[] dsts) throws IOException
+    {
+        return read(dsts, 0, dsts.length);
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException
+    {
+        return (int) read(new ByteBuffer[] {dst}, 0, 1);
+    }
+
+    @Override
+    public boolean isOpen()
+    {
+        return !closed;
+    }
+
+    /**
+     * Closes this and underlying channel and stops background thread.
+     * @throws IOException 
+     */
+    @Override
+    public void close() throws IOException
+    {
+        closed = true;
+        if (filler != null)
+        {
+            LockSupport.unpark(filler);
+        }
+        channel.close();
+    }
+    
+    private void fill()
+    {
+        try
+        {
+            while (!closed)
+            {
+                while (filled - consumed >= BLOCKS)
+                {
+                    LockSupport.park(this);
+                    if (closed)
+                    {
+                        return;
+                    }
+                }
+                ByteBuffer block = blocks[(int)(filled % BLOCKS)];
+                block.clear();
+                int rc = channel.read(block);
+                block.flip();
+                if (rc > 0)
+                {
+                    filled++;
+                    Thread c = consumer;
+                    if (c != null)
+                    {
+                        LockSupport.unpark(c);
+                    }
+                }
+                else
+                {
+                    if (rc == -1)
+                    {
+                        eof = true;
+                        return;
+                    }
+                }
+            }
+        }
+        catch (IOException ex)
+        {
+            if (!closed)
+            {
+                error = ex;
+            }
+        }
+        finally
+        {
+            Thread c = consumer;
+            if (c != null)
+            {
+                LockSupport.unpark(c);
+            }
+        }
+    }
+}
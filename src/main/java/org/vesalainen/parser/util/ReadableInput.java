@@ -44,7 +44,8 @@ public final class ReadableInput extends CharInput<Readable>
      */
     ReadableInput(Readable in, int size, Set<ParserFeature> features)
     {
-        super(size, features);
+        super(initialSize(size, features), features);
+        maxSize = size;
         includeLevel.in = in;
     }
     /**
@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.tools.FileObject;
+import javax.tools.ForwardingFileObject;
+import javax.tools.ForwardingJavaFileObject;
+import javax.tools.JavaFileManager.Location;
+import javax.tools.JavaFileObject;
+
+/**
+ * Filer which records everything written through it. Recorded files can be
+ * written again later without generating them.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+public class RecordingFiler implements Filer
+{
+    private final Filer filer;
+    private final List<Entry> entries = new ArrayList<>();
+
+    public RecordingFiler(Filer filer)
+    {
+        this.filer = filer;
+    }
+    /**
+     * Returns recorded files in creation order.
+     * @return 
+     */
+    public List<Entry> getEntries()
+    {
+        return entries;
+    }
+    
+    @Override
+    public JavaFileObject createSourceFile(CharSequence name, Element... originatingElements) throws IOException
+    {
+        Entry entry = new Entry(EntryKind.SOURCE, "", "", name.toString());
+        return new RecordingJavaFileObject(filer.createSourceFile(name, originatingElements), entry);
+    }
+
+    @Override
+    public JavaFileObject createClassFile(CharSequence name, Element... originatingElements) throws IOException
+    {
+        Entry entry = new Entry(EntryKind.CLASS, "", "", name.toString());
+        return new RecordingJavaFileObject(filer.createClassFile(name, originatingElements), entry);
+    }
+
+    @Override
+    public FileObject createResource(Location location, CharSequence pkg, CharSequence relativeName, Element... originatingElements) throws IOException
+    {
+        Entry entry = new Entry(EntryKind.RESOURCE, location.getName(), pkg.toString(), relativeName.toString());
+        return new RecordingFileObject(filer.createResource(location, pkg, relativeName, originatingElements), entry);
+    }
+
+    @Override
+    public FileObject getResource(Location location, CharSequence pkg, CharSequence relativeName) throws IOException
+    {
+        return filer.getResource(location, pkg, relativeName);
+    }
+    
+    public enum EntryKind {SOURCE, CLASS, RESOURCE};
+    /**
+     * Recorded file. Data is either bytes written to output stream or UTF-8 
+     * encoded characters written to writer.
+     */
+    public static class Entry
+    {
+        private final EntryKind kind;
+        private final String location;
+        private final String pkg;
+        private final String name;
+        private boolean text;
+        private byte[] data;
+
+        public Entry(EntryKind kind, String location, String pkg, String name)
+        {
+            this.kind = kind;
+            this.location = location;
+            this.pkg = pkg;
+            this.name = name;
+        }
+
+        public Entry(EntryKind kind, String location, String pkg, String name, boolean text, byte[] data)
+        {
+            this(kind, location, pkg, name);
+            this.text = text;
+            this.data = data;
+        }
+
+        public EntryKind getKind()
+        {
+            return kind;
+        }
+
+        public String getLocation()
+        {
+            return location;
+        }
+
+        public String getPkg()
+        {
+            return pkg;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public boolean isText()
+        {
+            return text;
+        }
+
+        public byte[] getData()
+        {
+            return data;
+        }
+        
+    }
+    private OutputStream record(OutputStream out, Entry entry)
+    {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        return new FilterOutputStream(out)
+        {
+            @Override
+            public void write(int b) throws IOException
+            {
+                out.write(b);
+                baos.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException
+            {
+                out.write(b, off, len);
+                baos.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException
+            {
+                super.close();
+                if (!entries.contains(entry))
+                {
+                    entry.data = baos.toByteArray();
+                    entries.add(entry);
+                }
+            }
+        };
+    }
+    private Writer record(Writer out, Entry entry)
+    {
+        StringBuilder sb = new StringBuilder();
+        return new FilterWriter(out)
+        {
+            @Override
+            public void write(int c) throws IOException
+            {
+                out.write(c);
+                sb.append((char)c);
+            }
+
+            @Override
+            public void write(char[] cbuf, int off, int len) throws IOException
+            {
+                out.write(cbuf, off, len);
+                sb.append(cbuf, off, len);
+            }
+
+            @Override
+            public void write(String str, int off, int len) throws IOException
+            {
+                out.write(str, off, len);
+                sb.append(str, off, off+len);
+            }
+
+            @Override
+            public void close() throws IOException
+            {
+                super.close();
+                if (!entries.contains(entry))
+                {
+                    entry.text = true;
+                    entry.data = sb.toString().getBytes(StandardCharsets.UTF_8);
+                    entries.add(entry);
+                }
+            }
+        };
+    }
+    private class RecordingJavaFileObject extends ForwardingJavaFileObject<JavaFileObject>
+    {
+        private final Entry entry;
+
+        public RecordingJavaFileObject(JavaFileObject fileObject, Entry entry)
+        {
+            super(fileObject);
+            this.entry = entry;
+        }
+
+        @Override
+        public OutputStream openOutputStream() throws IOException
+        {
+            return record(super.openOutputStream(), entry);
+        }
+
+        @Override
+        public Writer openWriter() throws IOException
+        {
+            return record(super.openWriter(), entry);
+        }
+        
+    }
+    private class RecordingFileObject extends ForwardingFileObject<FileObject>
+    {
+        private final Entry entry;
+
+        public RecordingFileObject(FileObject fileObject, Entry entry)
+        {
+            super(fileObject);
+            this.entry = entry;
+        }
+
+        @Override
+        public OutputStream openOutputStream() throws IOException
+        {
+            return record(super.openOutputStream(), entry);
+        }
+
+        @Override
+        public Writer openWriter() throws IOException
+        {
+            return record(super.openWriter(), entry);
+        }
+        
+    }
+}
@@ -35,7 +35,8 @@ public class ScatteringByteChannelInput extends ByteInput<ScatteringByteChannel>
 
     public ScatteringByteChannelInput(ScatteringByteChannel in, int size, Set<ParserFeature> features)
     {
-        super(size, features.contains(UseDirectBuffer), features);
+        super(initialSize(size, features), features.contains(UseDirectBuffer), features);
+        maxSize = size;
         includeLevel.in = in;
     }
 
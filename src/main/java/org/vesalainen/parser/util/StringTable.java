@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser.util;
+
+/**
+ * Bounded table of canonical strings for repeating tokens. Matched input is
+ * hashed and compared in input buffer. String is created only when not found.
+ * 
+ * <p>Table is 4-way set associative. Each set is evicted in clock order, so
+ * recently hit strings survive open-ended vocabularies.
+ * 
+ * <p>Table can be shared between threads. Races cause only extra misses
+ * because strings are immutable and verified after read.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ * @see org.vesalainen.parser.ParserFeature#UseStringTable
+ */
+public final class StringTable
+{
+    private static final int WAYS = 4;
+    private final String[] strings;
+    private final boolean[] referenced;
+    private final byte[] hands;
+    private final int mask;
+    private final int maxLength;
+    /**
+     * Creates StringTable for strings of max 64 chars.
+     * @param capacity Max number of strings. Rounded up to power of 2.
+     */
+    public StringTable(int capacity)
+    {
+        this(capacity, 64);
+    }
+    /**
+     * Creates StringTable
+     * @param capacity Max number of strings. Rounded up to power of 2.
+     * @param maxLength Longer strings are not stored.
+     */
+    public StringTable(int capacity, int maxLength)
+    {
+        if (capacity <= 0 || capacity > 0x40000000)
+        {
+            throw new IllegalArgumentException("illegal capacity "+capacity);
+        }
+        int size = Math.max(WAYS, Integer.highestOneBit(capacity - 1) << 1);
+        this.strings = new String[size];
+        this.referenced = new boolean[size];
+        this.hands = new byte[size / WAYS];
+        this.mask = size / WAYS - 1;
+        this.maxLength = maxLength;
+    }
+    /**
+     * Returns canonical string of input from start to start+length.
+     * @param input
+     * @param start
+     * @param length
+     * @return 
+     */
+    public String get(InputReader input, long start, int length)
+    {
+        if (length > maxLength)
+        {
+            return input.getString(start, length);
+        }
+        int hash = 0;
+        long end = start + length;
+        for (long ii=start;ii<end;ii++)
+        {
+            hash = 31 * hash + input.get(ii);
+        }
+        int set = (hash ^ (hash >>> 16)) & mask;
+        int base = set * WAYS;
+        for (int ii=0;ii<WAYS;ii++)
+        {
+            String str = strings[base+ii];
+            if (str != null && str.hashCode() == hash && equals(str, input, start, length))
+            {
+                referenced[base+ii] = true;
+                return str;
+            }
+        }
+        String str = input.getString(start, length);
+        int hand = hands[set];
+        for (int ii=0;ii<WAYS && referenced[base+hand];ii++)
+        {
+            referenced[base+hand] = false;
+            hand = (hand + 1) & (WAYS - 1);
+        }
+        strings[base+hand] = str;
+        hands[set] = (byte) ((hand + 1) & (WAYS - 1));
+        return str;
+    }
+    /**
+     * Returns max number of strings.
+     * @return 
+     */
+    public int getCapacity()
+    {
+        return strings.length;
+    }
+
+    private static boolean equals(String str, InputReader input, long start, int length)
+    {
+        if (str.length() != length)
+        {
+            return false;
+        }
+        for (int ii=0;ii<length;ii++)
+        {
+            if (str.charAt(ii) != input.get(start+ii))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser.util;
+
+/**
+ * Encodes tables as strings which can be stored in class constant pool.
+ * Chars are stored as such and ints as two chars.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+public final class TableEncoding
+{
+    private TableEncoding()
+    {
+    }
+    
+    public static class Encoder
+    {
+        private final StringBuilder sb = new StringBuilder();
+        
+        public void writeChar(int c)
+        {
+            sb.append((char)c);
+        }
+        public void writeInt(int i)
+        {
+            sb.append((char)(i>>>16));
+            sb.append((char)(i&0xffff));
+        }
+        public void writeInts(int[] arr)
+        {
+            writeInt(arr.length);
+            for (int i : arr)
+            {
+                writeInt(i);
+            }
+        }
+        public void writeString(String s)
+        {
+            writeInt(s.length());
+            sb.append(s);
+        }
+        @Override
+        public String toString()
+        {
+            return sb.toString();
+        }
+    }
+    public static class Decoder
+    {
+        private final String s;
+        private int index;
+
+        public Decoder(String s)
+        {
+            this.s = s;
+        }
+        
+        public int readChar()
+        {
+            return s.charAt(index++);
+        }
+        public int readInt()
+        {
+            int hi = s.charAt(index++);
+            int lo = s.charAt(index++);
+            return (hi<<16)|lo;
+        }
+        public int[] readInts()
+        {
+            int[] arr = new int[readInt()];
+            for (int ii=0;ii<arr.length;ii++)
+            {
+                arr[ii] = readInt();
+            }
+            return arr;
+        }
+        public String readString()
+        {
+            int len = readInt();
+            String str = s.substring(index, index+len);
+            index += len;
+            return str;
+        }
+    }
+}
@@ -23,7 +23,10 @@ import org.vesalainen.grammar.state.DFA;
 import org.vesalainen.bcc.LookupList;
 import org.vesalainen.bcc.MethodCompiler;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.type.TypeMirror;
 import org.vesalainen.bcc.SubClass;
@@ -52,6 +55,8 @@ public abstract class DFACompiler<T> extends MethodCompiler
     protected TypeMirror tokenType;
     protected boolean subCompiler;
     protected boolean repeats;
+    protected int codeSize;
+    protected Predicate<T> skipping;
     private final Jav jav = new Jav();
 
     public DFACompiler(DFA<T> dfa, T errorToken, T eofToken)
@@ -102,6 +107,7 @@ public abstract class DFACompiler<T> extends MethodCompiler
                 ExecutableElement distributedMethod = getDistributedMethod(subName);
                 DFACompiler<T> sc = copy(ddfa);
                 sc.setSubCompiler(true);
+                sc.setSkipping(skipping);
                 subClass.defineMethod(sc, distributedMethod);
             }
         }
@@ -157,7 +163,16 @@ public abstract class DFACompiler<T> extends MethodCompiler
         fixAddress("eof");
         eof();
         dfaCount += dfa.initialSize();
-        byteCount += position();
+        codeSize = position();
+        byteCount += codeSize;
+    }
+    /**
+     * Returns size of compiled byte code. Distributed methods are not included.
+     * @return 
+     */
+    public int getCodeSize()
+    {
+        return codeSize;
     }
 
     protected abstract void error() throws IOException, NoSuchMethodException;
@@ -222,55 +237,87 @@ public abstract class DFACompiler<T> extends MethodCompiler
                 }
                 else
                 {
+                    String runRanges = getRunRanges(s);
+                    List<Transition<DFAState<T>>> transitions = new ArrayList<>();
+                    for (Transition<DFAState<T>> tr : s.getTransitions())
+                    {
+                        if (runRanges == null || s.transit(tr.getCondition()) != s)
+                        {
+                            transitions.add(tr);
+                        }
+                    }
                     tload("reader");
-                    invokevirtual(InputReader.class, "read");
+                    if (runRanges != null)
+                    {
+                        // self loop is consumed by readWhile
+                        ldc(runRanges);
+                        if (isSkipping(s))
+                        {
+                            invokevirtual(InputReader.class, "skipWhile", String.class);
+                        }
+                        else
+                        {
+                            invokevirtual(InputReader.class, "readWhile", String.class);
+                        }
+                    }
+                    else
+                    {
+                        invokevirtual(InputReader.class, "read");
+                    }
                     tstore("cc");
                     tload("cc");
                     iflt("eof");
 
-                    if (s.getTransitionSelectivity() > 2)
+                    if (transitions.isEmpty())
                     {
-                        Iterator<Transition<DFAState<T>>> tri = s.getTransitions().iterator();
-                        while (tri.hasNext())
-                        {
-                            Transition tr = tri.next();
-                            CharRange range = tr.getCondition();
-                            DFAState to = s.transit(range);
-                            String next = s.toString()+"-"+range+">"+to.toString();
-                            compile(range, next, !tri.hasNext());
-                            // ok
-                            afterState(s);
-                            gotoNext(to);
-                            fixAddress(next);
-                        }
+                        goto_n("error");
                     }
                     else
                     {
-                        LookupList ll = new LookupList();
-                        for (Transition tr : s.getTransitions())
+                        if (s.getTransitionSelectivity() > 2)
                         {
-                            CharRange range = tr.getCondition();
-                            if (range.getFrom() >= 0)
+                            Iterator<Transition<DFAState<T>>> tri = transitions.iterator();
+                            while (tri.hasNext())
                             {
+                                Transition tr = tri.next();
+                                CharRange range = tr.getCondition();
                                 DFAState to = s.transit(range);
-                                String target = s.toString()+"-"+range+">"+to.toString();
-                                for (int ii=range.getFrom();ii <range.getTo();ii++)
-                                {
-                                    ll.addLookup(ii, target);
-                                }
+                                String next = s.toString()+"-"+range+">"+to.toString();
+                                compile(range, next, !tri.hasNext());
+                                // ok
+                                afterState(s);
+                                gotoNext(to);
+                                fixAddress(next);
                             }
                         }
-                        tload("cc");
-                        optimizedSwitch("error", ll);
-                        for (Transition tr : s.getTransitions())
+                        else
                         {
-                            CharRange range = tr.getCondition();
-                            DFAState<T> to = s.transit(range);
-                            String target = s.toString()+"-"+range+">"+to.toString();
-                            fixAddress(target);
-                            // ok
-                            afterState(s);
-                            gotoNext(to);
+                            LookupList ll = new LookupList();
+                            for (Transition tr : transitions)
+                            {
+                                CharRange range = tr.getCondition();
+                                if (range.getFrom() >= 0)
+                                {
+                                    DFAState to = s.transit(range);
+                                    String target = s.toString()+"-"+range+">"+to.toString();
+                                    for (int ii=range.getFrom();ii <range.getTo();ii++)
+                                    {
+                                        ll.addLookup(ii, target);
+                                    }
+                                }
+                            }
+                            tload("cc");
+                            optimizedSwitch("error", ll);
+                            for (Transition tr : transitions)
+                            {
+                                CharRange range = tr.getCondition();
+                                DFAState<T> to = s.transit(range);
+                                String target = s.toString()+"-"+range+">"+to.toString();
+                                fixAddress(target);
+                                // ok
+                                afterState(s);
+                                gotoNext(to);
+                            }
                         }
                     }
                 }
@@ -289,6 +336,70 @@ public abstract class DFACompiler<T> extends MethodCompiler
         }
     }
 
+    /**
+     * Returns ranges of transitions looping back to s as pairs of chars 
+     * from-to (inclusive) or null if s is not scanned with 
+     * InputReader.readWhile.
+     * @param s
+     * @return 
+     * @see org.vesalainen.parser.util.InputReader#readWhile(java.lang.String) 
+     */
+    protected String getRunRanges(DFAState<T> s)
+    {
+        if (s.isAccepting() && s.getFixedEndLength() != 0)
+        {
+            // rewind is done at every state entry
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Transition<DFAState<T>> tr : s.getTransitions())
+        {
+            CharRange range = tr.getCondition();
+            if (s.transit(range) == s)
+            {
+                int from = Math.max(0, range.getFrom());
+                int to = Math.min(Character.MAX_VALUE+1, range.getTo());
+                if (from < to)
+                {
+                    sb.append((char)from);
+                    sb.append((char)(to-1));
+                }
+            }
+        }
+        return sb.length() > 0 ? sb.toString() : null;
+    }
+    /**
+     * Returns true if s and states reachable from it accept only skipped 
+     * tokens. Input of such run doesn't have to be retained.
+     * @param s
+     * @return 
+     * @see #setSkipping(java.util.function.Predicate) 
+     */
+    protected boolean isSkipping(DFAState<T> s)
+    {
+        if (skipping == null)
+        {
+            return false;
+        }
+        for (DFAState<T> r : s)
+        {
+            if (r.isAccepting() && (r.getFixedEndLength() != 0 || !skipping.test(r.getToken())))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+    /**
+     * Sets tokens whose input is not used. Self loop states accepting only
+     * such tokens are scanned with InputReader.skipWhile.
+     * @param skipping 
+     * @see org.vesalainen.parser.util.InputReader#skipWhile(java.lang.String) 
+     */
+    public void setSkipping(Predicate<T> skipping)
+    {
+        this.skipping = skipping;
+    }
     protected void gotoNext(DFAState<T> s) throws IOException, NoSuchMethodException
     {
         if (s.isDistributed())
@@ -0,0 +1,441 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.regex;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.vesalainen.grammar.state.CharClassDFA;
+import org.vesalainen.grammar.state.DFA;
+import org.vesalainen.grammar.state.DFAState;
+import org.vesalainen.grammar.state.Transition;
+import org.vesalainen.parser.util.InputReader;
+import org.vesalainen.parser.util.TableEncoding.Decoder;
+import org.vesalainen.parser.util.TableEncoding.Encoder;
+
+/**
+ * Table driven DFA. Input characters are mapped to equivalence classes and
+ * next state is found from a compressed transition table. Identical state rows
+ * are shared.
+ * 
+ * <p>Semantics are the same as in methods compiled with MatchCompiler. Tables
+ * are encoded as a string which is small enough to be stored in class constant 
+ * pool.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ * @see org.vesalainen.regex.MatchCompiler
+ */
+public final class DFATable
+{
+    private static final char VERSION = 1;
+    private static final int ERROR = 0;
+    private static final int EOF = 1;
+    private static final int LATIN = 256;
+    private static final int NORMAL = 0;
+    private static final int FINAL = 1;
+    private static final int BOUNDARY = 2;
+    
+    private final int[] bounds;
+    private final int[] latin = new int[LATIN];
+    private final int classes;
+    private final short[] shortNext;
+    private final int[] intNext;
+    private final int[] row;
+    private final int[] accept;
+    private final int[] kind;
+    private final int[] repeat;     // repeat count or boundary target state
+    private final int[] fixedEnd;
+    private final int[] boundary;
+    private final int[] intTokens;
+    private final String[] stringTokens;
+
+    private DFATable(Decoder d)
+    {
+        if (d.readChar() != VERSION)
+        {
+            throw new IllegalArgumentException("unknown dfa table version");
+        }
+        boolean stringMode = d.readChar() != 0;
+        int tokenCount = d.readInt();
+        if (stringMode)
+        {
+            stringTokens = new String[tokenCount];
+            intTokens = null;
+            for (int ii=0;ii<tokenCount;ii++)
+            {
+                stringTokens[ii] = d.readString();
+            }
+        }
+        else
+        {
+            intTokens = new int[tokenCount];
+            stringTokens = null;
+            for (int ii=0;ii<tokenCount;ii++)
+            {
+                intTokens[ii] = d.readInt();
+            }
+        }
+        bounds = new int[d.readInt()];
+        for (int ii=0;ii<bounds.length;ii++)
+        {
+            bounds[ii] = d.readInt();
+        }
+        classes = bounds.length+1;
+        for (int cc=0;cc<LATIN;cc++)
+        {
+            latin[cc] = search(cc);
+        }
+        boolean wide = d.readChar() != 0;
+        int nextLength = d.readInt();
+        if (wide)
+        {
+            intNext = new int[nextLength];
+            shortNext = null;
+            for (int ii=0;ii<nextLength;ii++)
+            {
+                intNext[ii] = d.readInt();
+            }
+        }
+        else
+        {
+            shortNext = new short[nextLength];
+            intNext = null;
+            for (int ii=0;ii<nextLength;ii++)
+            {
+                shortNext[ii] = (short) d.readChar();
+            }
+        }
+        int states = d.readInt();
+        row = new int[states];
+        accept = new int[states];
+        kind = new int[states];
+        repeat = new int[states];
+        fixedEnd = new int[states];
+        boundary = new int[states];
+        for (int ii=0;ii<states;ii++)
+        {
+            row[ii] = d.readInt();
+            accept[ii] = d.readInt();
+            kind[ii] = d.readInt();
+            repeat[ii] = d.readInt();
+            fixedEnd[ii] = d.readInt();
+            boundary[ii] = d.readInt();
+        }
+    }
+    /**
+     * Creates table from encoded string.
+     * @param encoded
+     * @return 
+     * @see #encode(org.vesalainen.grammar.state.DFA, java.lang.Object, java.lang.Object) 
+     */
+    public static DFATable decode(String encoded)
+    {
+        return new DFATable(new Decoder(encoded));
+    }
+    /**
+     * Creates table from dfa.
+     * @param <T>
+     * @param dfa
+     * @param errorToken
+     * @param eofToken
+     * @return 
+     */
+    public static <T> DFATable create(DFA<T> dfa, T errorToken, T eofToken)
+    {
+        return decode(encode(dfa, errorToken, eofToken));
+    }
+    /**
+     * Returns number of states
+     * @return 
+     */
+    public int getStateCount()
+    {
+        return row.length;
+    }
+    /**
+     * Returns number of input character equivalence classes
+     * @return 
+     */
+    public int getClassCount()
+    {
+        return classes;
+    }
+    /**
+     * Matches input and returns int token, error token or eof token.
+     * @param reader
+     * @return
+     * @throws IOException 
+     */
+    public int matchInt(InputReader reader) throws IOException
+    {
+        return intTokens[match(reader)];
+    }
+    /**
+     * Matches input and returns String token, error token or eof token.
+     * @param reader
+     * @return
+     * @throws IOException 
+     */
+    public String matchString(InputReader reader) throws IOException
+    {
+        return stringTokens[match(reader)];
+    }
+    
+    private int match(InputReader reader) throws IOException
+    {
+        int state = 0;
+        int accepted;
+        int cc = -1;
+        while (true)
+        {
+            accepted = accept[state];
+            if (fixedEnd[state] != 0)
+            {
+                reader.rewind(fixedEnd[state]);
+            }
+            switch (kind[state])
+            {
+                case FINAL:
+                    if (accepted != ERROR)
+                    {
+                        return accepted;
+                    }
+                    return ERROR;
+                case BOUNDARY:
+                    if (!reader.isAtBoundary(boundary[state]))
+                    {
+                        return ERROR;
+                    }
+                    state = repeat[state];
+                    continue;
+                default:
+                    int next = -1;
+                    for (int count=repeat[state];count>0;count--)
+                    {
+                        cc = reader.read();
+                        if (cc < 0)
+                        {
+                            return accepted != ERROR ? accepted : EOF;
+                        }
+                        next = next(row[state]+classOf(cc));
+                        if (next < 0)
+                        {
+                            break;
+                        }
+                    }
+                    if (next < 0)
+                    {
+                        if (accepted != ERROR)
+                        {
+                            reader.unread(cc);
+                        }
+                        return accepted;
+                    }
+                    state = next;
+                    break;
+            }
+        }
+    }
+    private int next(int index)
+    {
+        if (shortNext != null)
+        {
+            return shortNext[index];
+        }
+        else
+        {
+            return intNext[index];
+        }
+    }
+    private int classOf(int cc)
+    {
+        if (cc < LATIN)
+        {
+            return latin[cc];
+        }
+        else
+        {
+            return search(cc);
+        }
+    }
+    private int search(int cc)
+    {
+        return CharClassDFA.classOf(bounds, cc);
+    }
+    /**
+     * Encodes dfa as string. Tokens must be Integers or Strings.
+     * @param <T>
+     * @param dfa
+     * @param errorToken
+     * @param eofToken
+     * @return 
+     */
+    public static <T> String encode(DFA<T> dfa, T errorToken, T eofToken)
+    {
+        boolean stringMode = errorToken instanceof String;
+        if (!stringMode && !(errorToken instanceof Integer))
+        {
+            throw new IllegalArgumentException(errorToken+" is not Integer or String");
+        }
+        List<DFAState<T>> states = new ArrayList<>();
+        Map<DFAState<T>,Integer> stateMap = new HashMap<>();
+        states.add(dfa.getRoot());
+        stateMap.put(dfa.getRoot(), 0);
+        for (DFAState<T> s : dfa)
+        {
+            if (!stateMap.containsKey(s))
+            {
+                stateMap.put(s, states.size());
+                states.add(s);
+            }
+        }
+        List<T> tokens = new ArrayList<>();
+        Map<T,Integer> tokenMap = new HashMap<>();
+        tokens.add(errorToken);
+        tokens.add(eofToken);
+        tokenMap.put(errorToken, ERROR);
+        tokenMap.put(eofToken, EOF);
+        for (DFAState<T> s : states)
+        {
+            if (s.isAccepting() && !tokenMap.containsKey(s.getToken()))
+            {
+                tokenMap.put(s.getToken(), tokens.size());
+                tokens.add(s.getToken());
+            }
+        }
+        int[] bounds = CharClassDFA.classBounds(states);
+        int classes = bounds.length+1;
+        boolean wide = states.size() > Short.MAX_VALUE;
+        List<int[]> rows = new ArrayList<>();
+        Map<List<Integer>,Integer> rowMap = new HashMap<>();
+        Encoder e = new Encoder();
+        e.writeChar(VERSION);
+        e.writeChar(stringMode ? 1 : 0);
+        e.writeInt(tokens.size());
+        for (T token : tokens)
+        {
+            if (stringMode)
+            {
+                e.writeString((String) token);
+            }
+            else
+            {
+                e.writeInt((Integer) token);
+            }
+        }
+        e.writeInt(bounds.length);
+        for (int b : bounds)
+        {
+            e.writeInt(b);
+        }
+        int[] rowIndex = new int[states.size()];
+        for (int ii=0;ii<states.size();ii++)
+        {
+            DFAState<T> s = states.get(ii);
+            int[] r = new int[classes];
+            Arrays.fill(r, -1);
+            if (!s.hasBoundaryMatches())
+            {
+                for (Transition<DFAState<T>> tr : s.getTransitions())
+                {
+                    CharRange range = tr.getCondition();
+                    if (range.getFrom() >= 0)
+                    {
+                        int to = stateMap.get(s.transit(range));
+                        int first = CharClassDFA.classOf(bounds, range.getFrom());
+                        int last = CharClassDFA.classOf(bounds, range.getTo());
+                        for (int cls=first;cls<last;cls++)
+                        {
+                            r[cls] = to;
+                        }
+                    }
+                }
+            }
+            List<Integer> key = new ArrayList<>(classes);
+            for (int n : r)
+            {
+                key.add(n);
+            }
+            Integer index = rowMap.get(key);
+            if (index == null)
+            {
+                index = rows.size()*classes;
+                rowMap.put(key, index);
+                rows.add(r);
+            }
+            rowIndex[ii] = index;
+        }
+        e.writeChar(wide ? 1 : 0);
+        e.writeInt(rows.size()*classes);
+        for (int[] r : rows)
+        {
+            for (int n : r)
+            {
+                if (wide)
+                {
+                    e.writeInt(n);
+                }
+                else
+                {
+                    e.writeChar(n);
+                }
+            }
+        }
+        e.writeInt(states.size());
+        for (int ii=0;ii<states.size();ii++)
+        {
+            DFAState<T> s = states.get(ii);
+            e.writeInt(rowIndex[ii]);
+            e.writeInt(s.isAccepting() ? tokenMap.get(s.getToken()) : ERROR);
+            int kind = NORMAL;
+            int rep = 1;
+            int bnd = 0;
+            if (s.hasBoundaryMatches())
+            {
+                if (s.getTransitions().size() != 1)
+                {
+                    throw new IllegalArgumentException("number of boundary match transitions not 1. -> illegal usage of boundary match");
+                }
+                kind = BOUNDARY;
+                for (Transition<DFAState<T>> tr : s.getTransitions())
+                {
+                    CharRange range = tr.getCondition();
+                    bnd = range.getBoundaryMatcher();
+                    rep = stateMap.get(s.transit(range));
+                }
+            }
+            else
+            {
+                if (s.getTransitions().isEmpty())
+                {
+                    kind = FINAL;
+                }
+                else
+                {
+                    rep = Math.max(1, s.getTransitions().iterator().next().getRepeat());
+                }
+            }
+            e.writeInt(kind);
+            e.writeInt(rep);
+            e.writeInt(s.isAccepting() ? s.getFixedEndLength() : 0);
+            e.writeInt(bnd);
+        }
+        return e.toString();
+    }
+}
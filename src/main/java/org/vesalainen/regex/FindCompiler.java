@@ -34,6 +34,17 @@ public class FindCompiler<T> extends DFACompiler<T>
         }
     }
 
+    /**
+     * Find methods update accept start at every state entry.
+     * @param s
+     * @return 
+     */
+    @Override
+    protected String getRunRanges(DFAState<T> s)
+    {
+        return null;
+    }
+
     @Override
     protected void accepting(DFAState<T> s) throws IOException, NoSuchMethodException
     {
@@ -16,12 +16,12 @@
  */
 package org.vesalainen.regex;
 
-import java.util.Iterator;
 import java.util.PrimitiveIterator.OfInt;
 import java.util.Spliterator;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
+import org.vesalainen.grammar.state.CharClassDFA;
 import org.vesalainen.grammar.state.DFA;
 import org.vesalainen.grammar.state.DFAState;
 import org.vesalainen.grammar.state.NFA;
@@ -42,12 +42,26 @@ import org.vesalainen.util.Matcher;
  */
 public class RegexMatcher<T> implements Matcher<T>
 {
+    protected static final int ROOT = 0;
+    protected static final int ERROR = CharClassDFA.ERROR;
     protected RegexParserIntf<T> parser = RegexParserFactory.newInstance();
     protected Scope<NFAState<T>> nfaScope = new Scope<>("org.vesalainen.regex.RegexMatcher");
     protected NFA<T> nfa;
+    protected CharClassDFA<T> table;
+    /**
+     * @deprecated Matching uses table. Kept for subclasses.
+     */
+    @Deprecated
     protected DFA<T> dfa;
+    /**
+     * @deprecated Matching uses table. Kept for subclasses.
+     */
+    @Deprecated
     protected DFAState<T> root;
-    protected DFAState<T> state;
+    /**
+     * Current table state. Was DFAState before table.
+     */
+    protected int state;
     protected T matched;
     /**
      * Creates RegexMatcher
@@ -92,7 +106,7 @@ public class RegexMatcher<T> implements Matcher<T>
      */
     public RegexMatcher compile()
     {
-        if (root == null)
+        if (table == null)
         {
             Scope<DFAState<T>> dfaScope = new Scope<>("org.vesalainen.regex.RegexMatcher");
             if (nfa == null)
@@ -100,19 +114,9 @@ public class RegexMatcher<T> implements Matcher<T>
                 nfa = new NFA(dfaScope);
             }
             dfa = nfa.constructDFA(dfaScope);
-            state = root = dfa.getRoot();
-            Iterator<DFAState<T>> iterator = dfa.iterator();
-            while (iterator.hasNext())
-            {
-                DFAState<T> next = iterator.next();
-                next.createFastMap();
-            }
-            iterator = dfa.iterator();
-            while (iterator.hasNext())
-            {
-                DFAState<T> next = iterator.next();
-                next.detectUniquePath();
-            }
+            root = dfa.getRoot();
+            table = new CharClassDFA<>(dfa);
+            state = ROOT;
             parser = null;
             nfaScope = null;
             nfa = null;
@@ -125,7 +129,7 @@ public class RegexMatcher<T> implements Matcher<T>
      */
     public boolean isCompiled()
     {
-        return root != null;
+        return table != null;
     }
     /**
      * Matches given text. Returns associated token if match, otherwise null.
@@ -145,7 +149,7 @@ public class RegexMatcher<T> implements Matcher<T>
      */
     public T match(CharSequence text, boolean matchPrefix)
     {
-        if (root == null)
+        if (table == null)
         {
             throw new IllegalStateException("not compiled");
         }
@@ -159,10 +163,10 @@ public class RegexMatcher<T> implements Matcher<T>
                 case Ok:
                     if (matchPrefix)
                     {
-                        T uniqueMatch = state.getUniqueMatch();
+                        T uniqueMatch = table.getUniqueMatch(state);
                         if (uniqueMatch != null)
                         {
-                            state = root;
+                            state = ROOT;
                             return uniqueMatch;
                         }
                     }
@@ -180,7 +184,7 @@ public class RegexMatcher<T> implements Matcher<T>
      */
     public T match(OfInt text)
     {
-        if (root == null)
+        if (table == null)
         {
             throw new IllegalStateException("not compiled");
         }
@@ -206,13 +210,13 @@ public class RegexMatcher<T> implements Matcher<T>
     @Override
     public Status match(int cc)
     {
-        state = state.transit(cc);
-        if (state != null)
+        state = table.transit(state, cc);
+        if (state != ERROR)
         {
-            if (state.isAccepting())
+            if (table.isAccepting(state))
             {
-                matched = state.getToken();
-                state = root;
+                matched = table.getToken(state);
+                state = ROOT;
                 return Status.Match;
             }
             else
@@ -222,7 +226,7 @@ public class RegexMatcher<T> implements Matcher<T>
         }
         else
         {
-            state = root;
+            state = ROOT;
             return Status.Error;
         }
     }
@@ -239,7 +243,7 @@ public class RegexMatcher<T> implements Matcher<T>
     @Override
     public void clear()
     {
-        state = root;
+        state = ROOT;
     }
     /**
      * Returns stream that contains subsequences delimited by this regex.
@@ -277,8 +281,8 @@ public class RegexMatcher<T> implements Matcher<T>
     {
         private CharSequence seq;
         private int length;
-        private DFAState<String> root;
-        private DFAState<String> state;
+        private CharClassDFA<String> table;
+        private int state;
         private int start;
         private int end;
 
@@ -295,7 +299,7 @@ public class RegexMatcher<T> implements Matcher<T>
             {
                 matcher.compile();
             }
-            root = state = matcher.root;
+            table = matcher.table;
         }
         
         @Override
@@ -321,14 +325,14 @@ public class RegexMatcher<T> implements Matcher<T>
 
         public boolean delim(int cc)
         {
-            state = state.transit(cc);
-            if (state != null)
+            state = table.transit(state, cc);
+            if (state != ERROR)
             {
                 return true;
             }
             else
             {
-                state = root;
+                state = ROOT;
                 return false;
             }
         }
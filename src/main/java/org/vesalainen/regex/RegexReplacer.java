@@ -16,8 +16,6 @@
  */
 package org.vesalainen.regex;
 
-import org.vesalainen.grammar.state.DFAState;
-
 /**
  *
  * @author Timo Vesalainen <timo.vesalainen@iki.fi>
@@ -59,7 +57,7 @@ public class RegexReplacer extends RegexMatcher<Replacer>
         {
             compile();
         }
-        DFAState<Replacer> st = root;
+        int st = ROOT;
         Replacer replacer = null;
         int start = -1;
         int end = -1;
@@ -67,17 +65,17 @@ public class RegexReplacer extends RegexMatcher<Replacer>
         for (int ii=0;ii<len;ii++)
         {
             char cc = text.charAt(ii);
-            st = st.transit(cc);
-            if (st != null)
+            st = table.transit(st, cc);
+            if (st != ERROR)
             {
                 if (start == -1)
                 {
                     start = ii; // start of match
                 }
-                if (st.isAccepting())
+                if (table.isAccepting(st))
                 {
                     end = ii;   // last accpting point
-                    replacer = st.getToken();
+                    replacer = table.getToken(st);
                 }
             }
             else
@@ -104,7 +102,7 @@ public class RegexReplacer extends RegexMatcher<Replacer>
                 {
                     sb.append(cc);
                 }
-                st = root;
+                st = ROOT;
             }
         }
         if (start != -1)
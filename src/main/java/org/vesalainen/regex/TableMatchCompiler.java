@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.regex;
+
+import java.io.IOException;
+import javax.lang.model.element.VariableElement;
+import org.vesalainen.bcc.AccessFlags.FieldFlags;
+import org.vesalainen.bcc.SubClass;
+import org.vesalainen.bcc.model.El;
+import org.vesalainen.bcc.model.Jav;
+import org.vesalainen.bcc.model.Typ;
+import org.vesalainen.grammar.state.DFA;
+import org.vesalainen.parser.util.InputReader;
+
+/**
+ * This class compiles match methods using table driven DFA. Instead of 
+ * compiling states to byte code the DFA is encoded into string constants
+ * which are decoded lazily into static DFATable field. 
+ * 
+ * <p>Compiled method size doesn't depend on the DFA size and DFA distribution
+ * is not needed.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ * @see org.vesalainen.regex.DFATable
+ */
+public class TableMatchCompiler<T> extends MatchCompiler<T>
+{
+    /**
+     * Max chars in one string constant. Modified UTF-8 uses max 3 bytes per char.
+     */
+    private static final int MAXCONSTANT = 0x4000;
+    private final Jav jav = new Jav();
+
+    public TableMatchCompiler(DFA<T> dfa, T errorToken, T eofToken)
+    {
+        super(dfa, errorToken, eofToken);
+    }
+
+    @Override
+    public void implement() throws IOException
+    {
+        if (!Typ.isSameType(tokenType, getReturnType()))
+        {
+            throw new IllegalArgumentException(tokenType+" is not expected return type "+getReturnType()+" of method");
+        }
+        String encoded = DFATable.encode(dfa, errorToken, eofToken);
+        SubClass subClass = getSubClass();
+        String fieldName = jav.makeJavaIdentifier(getMethodDescription())+"Table";
+        subClass.defineField(FieldFlags.ACC_PRIVATE|FieldFlags.ACC_STATIC, fieldName, DFATable.class);
+        VariableElement field = El.getField(subClass, fieldName);
+        try
+        {
+            nameArgument("reader", 1);
+            getStaticField(field);
+            ifnonnull("decoded");
+            for (int ii=0;ii<encoded.length();ii+=MAXCONSTANT)
+            {
+                ldc(encoded.substring(ii, Math.min(encoded.length(), ii+MAXCONSTANT)));
+                if (ii > 0)
+                {
+                    invokevirtual(String.class, "concat", String.class);
+                }
+            }
+            invokestatic(El.getMethod(DFATable.class, "decode", String.class));
+            putStaticField(field);
+            fixAddress("decoded");
+            getStaticField(field);
+            tload("reader");
+            if (Typ.isSameType(Typ.String, tokenType))
+            {
+                invokevirtual(DFATable.class, "matchString", InputReader.class);
+            }
+            else
+            {
+                invokevirtual(DFATable.class, "matchInt", InputReader.class);
+            }
+            treturn();
+        }
+        catch (NoSuchMethodException ex)
+        {
+            throw new IOException(ex);
+        }
+        dfaCount += dfa.initialSize();
+        codeSize = position();
+        byteCount += codeSize;
+    }
+
+    @Override
+    protected TableMatchCompiler<T> copy(DFA<T> ddfa)
+    {
+        return new TableMatchCompiler<>(ddfa, errorToken, eofToken);
+    }
+    
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.grammar.state;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.vesalainen.regex.CharRange;
+import org.vesalainen.regex.CharRange.BoundaryType;
+import org.vesalainen.regex.RangeSet;
+import org.vesalainen.regex.Regex;
+import org.vesalainen.regex.Regex.Option;
+import static org.vesalainen.regex.Regex.Option.*;
+
+/**
+ * Tests that minimized dfa matches like unminimized one.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+public class DFAMinimizeTest
+{
+    
+    public DFAMinimizeTest()
+    {
+    }
+
+    @Test
+    public void testPriority()
+    {
+        test((scope)->
+        {
+            NFA<Integer> nfa = terminal(scope, "[a-z]+", 1, 0);
+            nfa = new NFA<>(scope, nfa, terminal(scope, "if", 2, 1));
+            nfa = new NFA<>(scope, nfa, terminal(scope, "in", 3, 1));
+            return new NFA<>(scope, nfa, terminal(scope, "x[0-9]+|y[0-9]+", 4, 0));
+        },
+        "if", "in", "int", "i", "x12", "y3", "x", "abc");
+    }
+    @Test
+    public void testAcceptImmediately()
+    {
+        test((scope)->
+        {
+            NFA<Integer> nfa = terminal(scope, "LITERAL", 1, 0, ACCEPT_IMMEDIATELY);
+            nfa = new NFA<>(scope, nfa, terminal(scope, "LITERALS", 2, 0));
+            nfa = new NFA<>(scope, nfa, terminal(scope, "LIT[0-9]", 3, 0));
+            return new NFA<>(scope, nfa, terminal(scope, "LOT[0-9]", 3, 0));
+        },
+        "LITERAL", "LITERALS", "LIT1", "LOT2", "LIT");
+    }
+    @Test
+    public void testFixedEnder()
+    {
+        test((scope)->
+        {
+            NFA<Integer> nfa = terminal(scope, "/\\*.*\\*/", 1, 0, FIXED_ENDER);
+            nfa = new NFA<>(scope, nfa, terminal(scope, "<!\\-\\-.*\\-\\->", 2, 0, FIXED_ENDER));
+            return new NFA<>(scope, nfa, terminal(scope, "[/<][a-z]+", 3, 0));
+        },
+        "/* abc */", "/**/ x */", "<!-- a -->", "<!-- -- -->", "/abc", "<a");
+    }
+    @Test
+    public void testBoundaryMatch()
+    {
+        test((scope)->
+        {
+            RangeSet rs = new RangeSet();
+            rs.add(new CharRange(BoundaryType.BOL));
+            NFA<Integer> bol = new NFA<>(scope, rs);
+            bol.concat(terminal(scope, "#[a-z]+", 1, 0));
+            NFA<Integer> nfa = new NFA<>(scope, bol, terminal(scope, "#[0-9]+", 2, 0));
+            return new NFA<>(scope, nfa, terminal(scope, "[a-z]+#", 3, 0));
+        },
+        "#abc", "#12", "ab#");
+    }
+    private void test(Function<Scope<NFAState<Integer>>,NFA<Integer>> factory, String... texts)
+    {
+        Scope<DFAState<Integer>> unminimizedScope = new Scope<>("unminimized");
+        NFA<Integer> nfa = factory.apply(new Scope<>("unminimized"));
+        DFA<Integer> unminimized = new DFA<>(nfa.getFirst().constructDFA(unminimizedScope), unminimizedScope.count());
+        DFA<Integer> minimized = factory.apply(new Scope<>("minimized")).constructDFA(new Scope<>("minimized"));
+        assertTrue(minimized.getUnminimizedSize() >= minimized.initialSize());
+        assertEquivalent(unminimized, minimized);
+        for (String text : texts)
+        {
+            assertEquals(text, match(unminimized, text), match(minimized, text));
+        }
+    }
+    /**
+     * Walks both dfa's in parallel. Every unminimized state must correspond to
+     * exactly one minimized state with same acceptance and transitions.
+     */
+    private static void assertEquivalent(DFA<Integer> unminimized, DFA<Integer> minimized)
+    {
+        Map<DFAState<Integer>,DFAState<Integer>> map = new HashMap<>();
+        Deque<DFAState<Integer>> queue = new ArrayDeque<>();
+        pair(map, queue, unminimized.getRoot(), minimized.getRoot());
+        while (!queue.isEmpty())
+        {
+            DFAState<Integer> u = queue.pollFirst();
+            DFAState<Integer> m = map.get(u);
+            assertEquals(u.getToken(), m.getToken());
+            assertEquals(u.getPriority(), m.getPriority());
+            assertEquals(u.isAcceptImmediately(), m.isAcceptImmediately());
+            if (u.isAccepting())
+            {
+                assertEquals(u.getFixedEndLength(), m.getFixedEndLength());
+            }
+            assertEquals(u.hasBoundaryMatches(), m.hasBoundaryMatches());
+            TreeSet<Integer> points = new TreeSet<>();
+            for (DFAState<Integer> s : new DFAState[] {u, m})
+            {
+                for (Transition<DFAState<Integer>> t : s.getTransitions())
+                {
+                    CharRange range = t.getCondition();
+                    if (range.isBoundaryMatcher())
+                    {
+                        DFAState<Integer> to = m.transit(range);
+                        assertNotNull(range.toString(), to);
+                        pair(map, queue, u.transit(range), to);
+                    }
+                    else
+                    {
+                        points.add(range.getFrom());
+                        points.add(range.getTo());
+                    }
+                }
+            }
+            for (int cc : points)
+            {
+                DFAState<Integer> ut = target(u, cc);
+                DFAState<Integer> mt = target(m, cc);
+                assertEquals(ut == null, mt == null);
+                if (ut != null)
+                {
+                    pair(map, queue, ut, mt);
+                }
+            }
+        }
+    }
+    private static void pair(Map<DFAState<Integer>,DFAState<Integer>> map, Deque<DFAState<Integer>> queue, DFAState<Integer> unminimized, DFAState<Integer> minimized)
+    {
+        assertNotNull(unminimized);
+        DFAState<Integer> old = map.get(unminimized);
+        if (old == null)
+        {
+            map.put(unminimized, minimized);
+            queue.add(unminimized);
+        }
+        else
+        {
+            assertSame(old, minimized);
+        }
+    }
+    private static DFAState<Integer> target(DFAState<Integer> state, int cc)
+    {
+        for (Transition<DFAState<Integer>> t : state.getTransitions())
+        {
+            CharRange range = t.getCondition();
+            if (range.isNormal() && cc >= range.getFrom() && cc < range.getTo())
+            {
+                return t.getTo();
+            }
+        }
+        return null;
+    }
+    /**
+     * Returns matched token and length for longest match or immediately 
+     * accepted match. Boundaries are not matched.
+     */
+    private static String match(DFA<Integer> dfa, String text)
+    {
+        DFAState<Integer> state = dfa.getRoot();
+        String match = "none";
+        for (int ii=0;state != null;ii++)
+        {
+            if (state.isAccepting())
+            {
+                match = state.getToken()+":"+ii+":"+state.getFixedEndLength();
+                if (state.isAcceptImmediately())
+                {
+                    break;
+                }
+            }
+            if (ii == text.length())
+            {
+                break;
+            }
+            state = target(state, text.charAt(ii));
+        }
+        return match;
+    }
+    private static NFA<Integer> terminal(Scope<NFAState<Integer>> scope, String expression, int token, int priority, Option... options)
+    {
+        NFA<Integer> nfa = Regex.createNFA(scope, expression, token, options);
+        NFAState<Integer> last = nfa.getLast();
+        last.setToken(token);
+        last.setPriority(priority);
+        if (Option.supports(options, ACCEPT_IMMEDIATELY))
+        {
+            last.setAcceptImmediately(true);
+        }
+        return nfa;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+public class GenClassPoolTest
+{
+    private static final AtomicInteger created = new AtomicInteger();
+    
+    public GenClassPoolTest()
+    {
+    }
+
+    @Test
+    public void testConcurrentBorrow() throws Exception
+    {
+        GenClassPool<Item> pool = create(4);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int ii=0;ii<threads;ii++)
+        {
+            futures.add(executor.submit(()->
+            {
+                start.await();
+                int count = 0;
+                for (int jj=0;jj<10000;jj++)
+                {
+                    count += pool.apply((item)->
+                    {
+                        if (!item.inUse.compareAndSet(false, true))
+                        {
+                            throw new IllegalStateException("shared instance");
+                        }
+                        Thread.yield();
+                        item.inUse.set(false);
+                        return 1;
+                    });
+                }
+                return count;
+            }));
+        }
+        start.countDown();
+        int total = 0;
+        for (Future<Integer> future : futures)
+        {
+            total += future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertEquals(threads*10000, total);
+        assertTrue(pool.getIdleCount() <= 4);
+    }
+    @Test
+    public void testMaxIdle()
+    {
+        GenClassPool<Item> pool = create(2);
+        Item i1 = pool.borrow();
+        Item i2 = pool.borrow();
+        Item i3 = pool.borrow();
+        assertNotSame(i1, i2);
+        assertNotSame(i2, i3);
+        pool.release(i1);
+        pool.release(i2);
+        pool.release(i3);
+        assertEquals(2, pool.getIdleCount());
+        Item r1 = pool.borrow();
+        Item r2 = pool.borrow();
+        assertSame(i1, r1);
+        assertSame(i2, r2);
+        assertEquals(0, pool.getIdleCount());
+        int before = created.get();
+        pool.borrow();
+        assertEquals(before+1, created.get());
+    }
+    @Test
+    public void testZeroMaxIdle()
+    {
+        GenClassPool<Item> pool = create(0);
+        Item item = pool.borrow();
+        pool.release(item);
+        assertEquals(0, pool.getIdleCount());
+        assertNotSame(item, pool.borrow());
+    }
+    @Test(expected=IllegalArgumentException.class)
+    public void testReleaseNull()
+    {
+        create(1).release(null);
+    }
+    @Test(expected=StackOverflowError.class)
+    public void testErrorNotWrapped()
+    {
+        create(ErrorItem.class, 1).borrow();
+    }
+    @Test(expected=IllegalStateException.class)
+    public void testRuntimeExceptionNotWrapped()
+    {
+        create(RuntimeItem.class, 1).borrow();
+    }
+    @Test
+    public void testCheckedExceptionWrapped()
+    {
+        try
+        {
+            create(CheckedItem.class, 1).borrow();
+            fail("exception not thrown");
+        }
+        catch (ParserException ex)
+        {
+            assertEquals(Exception.class, ex.getCause().getClass());
+        }
+    }
+    private static GenClassPool<Item> create(int maxIdle)
+    {
+        return create(Item.class, maxIdle);
+    }
+    private static <T> GenClassPool<T> create(Class<T> cls, int maxIdle)
+    {
+        try
+        {
+            return new GenClassPool<>(cls, MethodHandles.lookup().findConstructor(cls, MethodType.methodType(void.class)), maxIdle);
+        }
+        catch (NoSuchMethodException | IllegalAccessException ex)
+        {
+            throw new IllegalArgumentException(ex);
+        }
+    }
+    public static class Item
+    {
+        private final AtomicBoolean inUse = new AtomicBoolean();
+
+        public Item()
+        {
+            created.incrementAndGet();
+        }
+        
+    }
+    public static class ErrorItem
+    {
+        public ErrorItem()
+        {
+            throw new StackOverflowError();
+        }
+    }
+    public static class RuntimeItem
+    {
+        public RuntimeItem()
+        {
+            throw new IllegalStateException();
+        }
+    }
+    public static class CheckedItem
+    {
+        public CheckedItem() throws Exception
+        {
+            throw new Exception();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import javax.lang.model.element.ExecutableElement;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.vesalainen.bcc.model.El;
+import org.vesalainen.grammar.Grammar;
+import org.vesalainen.parser.util.FeedInput;
+import org.vesalainen.regex.SyntaxErrorException;
+
+/**
+ *
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+public class LALRInterpreterTest
+{
+    
+    public LALRInterpreterTest()
+    {
+    }
+
+    @Test
+    public void testParse() throws IOException
+    {
+        Grammar g = new Grammar();
+        g.addTerminal(El.getMethod(LALRInterpreterTest.class, "number", long.class), "NUMBER", "[0-9]+", "", 0, -1, true);
+        g.addTerminal((ExecutableElement)null, "PLUS", "\\+", "", 0, -1, true);
+        g.addTerminal((ExecutableElement)null, "WSP", "[ ]+", "", 0, -1, true);
+        g.addRule(El.getMethod(LALRInterpreterTest.class, "plus", long.class, long.class), "Expression", "Expression", "PLUS", "NUMBER");
+        g.addRule(El.getMethod(LALRInterpreterTest.class, "single", long.class), "Expression", "NUMBER");
+        LALRInterpreter interpreter = LALRInterpreter.create(g, "Expression", MethodHandles.lookup(), "", "WSP");
+        assertEquals(6L, interpreter.parse(this, "1 + 2+3"));
+        String encoded = interpreter.getTable().encode();
+        assertEquals(encoded, LALRTable.decode(encoded).encode());
+        try
+        {
+            interpreter.parse(this, "1 + + 2");
+            fail("syntax error not detected");
+        }
+        catch (SyntaxErrorException ex)
+        {
+        }
+    }
+    @Test
+    public void testPush() throws IOException
+    {
+        Grammar g = new Grammar();
+        g.addTerminal(El.getMethod(LALRInterpreterTest.class, "number", long.class), "NUMBER", "[0-9]+", "", 0, -1, true);
+        g.addTerminal((ExecutableElement)null, "PLUS", "\\+", "", 0, -1, true);
+        g.addTerminal((ExecutableElement)null, "WSP", "[ ]+", "", 0, -1, true);
+        g.addRule(El.getMethod(LALRInterpreterTest.class, "plus", long.class, long.class), "Expression", "Expression", "PLUS", "NUMBER");
+        g.addRule(El.getMethod(LALRInterpreterTest.class, "single", long.class), "Expression", "NUMBER");
+        LALRInterpreter interpreter = LALRInterpreter.create(g, "Expression", MethodHandles.lookup(), "", "WSP");
+        FeedInput input = new FeedInput(64, EnumSet.noneOf(ParserFeature.class));
+        LALRDriver.Session session = interpreter.push(this, input);
+        input.feed(ByteBuffer.wrap("12 + 3".getBytes(StandardCharsets.US_ASCII)));
+        assertFalse(session.resume());
+        input.feed(ByteBuffer.wrap("4+ ".getBytes(StandardCharsets.US_ASCII)));
+        assertFalse(session.resume());
+        input.feed(ByteBuffer.wrap("5".getBytes(StandardCharsets.US_ASCII)));
+        assertFalse(session.resume());
+        input.eof();
+        assertTrue(session.resume());
+        assertEquals(51L, session.getResult());
+    }
+    public long number(long value)
+    {
+        return value;
+    }
+    public long plus(long expr, long number)
+    {
+        return expr + number;
+    }
+    public long single(long number)
+    {
+        return number;
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.vesalainen.bcc.model.El;
+import org.vesalainen.grammar.AnnotatedGrammar;
+import org.vesalainen.grammar.GRule;
+import org.vesalainen.grammar.GTerminal;
+import org.vesalainen.grammar.Grammar;
+import org.vesalainen.lpg.Action;
+import org.vesalainen.lpg.Goto;
+import org.vesalainen.lpg.LALRKParserGenerator;
+import org.vesalainen.lpg.Lr0State;
+import org.vesalainen.lpg.Reduce;
+import org.vesalainen.lpg.Shift;
+import static org.vesalainen.parser.LALRTable.*;
+import static org.vesalainen.parser.ParserFeature.*;
+import org.vesalainen.parser.annotation.GenClassname;
+import org.vesalainen.parser.annotation.GrammarDef;
+import org.vesalainen.parser.annotation.ParseMethod;
+import org.vesalainen.parser.annotation.ParserContext;
+import org.vesalainen.parser.annotation.Rule;
+import org.vesalainen.parser.annotation.Terminal;
+import org.vesalainen.parser.annotation.Terminals;
+
+/**
+ *
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+public class LALRTableTest
+{
+    private static final String[] INPUTS = new String[] {
+        "1",
+        "1+2",
+        " 1 + 2 * 3 ",
+        "(1+2)*3",
+        "2*(3+(4*5))+6",
+        "  ( 7 )  "
+    };
+    private static final String[] ERRORS = new String[] {
+        "",
+        "1+",
+        "(1",
+        "1 2",
+        "1)"
+    };
+    // context name is stored in encoded table. Long name makes encoded table 
+    // longer than one string constant.
+    private static final String NAME16 = "0123456789abcdef";
+    private static final String NAME64 = NAME16+NAME16+NAME16+NAME16;
+    private static final String NAME256 = NAME64+NAME64+NAME64+NAME64;
+    private static final String NAME1024 = NAME256+NAME256+NAME256+NAME256;
+    private static final String NAME4096 = NAME1024+NAME1024+NAME1024+NAME1024;
+    private static final String LONGNAME = NAME4096+NAME4096+NAME4096+NAME4096+NAME4096;
+    
+    public LALRTableTest()
+    {
+    }
+
+    @Test
+    public void testTables() throws IOException
+    {
+        AnnotatedGrammar ag = new AnnotatedGrammar(El.getTypeElement(CompiledCalc.class.getCanonicalName()));
+        LALRKParserGenerator lrk = new Grammar("Goal", ag, "", "WSP").createParserGenerator("Goal", EnumSet.noneOf(ParserFeature.class));
+        LALRTable table = LALRTable.create(lrk, 64, (state)->0, Collections.emptyList(), (reducer)->false);
+        assertTrue(table.hasAcceptValue());
+        assertEquals(lrk.getLr0StateList().size(), table.getStateCount());
+        checkTable(lrk, table);
+        String encoded = table.encode();
+        LALRTable decoded = LALRTable.decode(encoded);
+        checkTable(lrk, decoded);
+        assertEquals(encoded, decoded.encode());
+    }
+    private void checkTable(LALRKParserGenerator lrk, LALRTable table)
+    {
+        int symbolCount = 0;
+        for (GTerminal terminal : lrk.getTerminals())
+        {
+            symbolCount = Math.max(symbolCount, terminal.getNumber()+1);
+        }
+        int shiftReduceCount = 0;
+        for (Lr0State state : lrk.getLr0StateList())
+        {
+            Map<Integer,Integer> row = new HashMap<>();
+            for (Shift shift : state.getShiftList())
+            {
+                row.put(shift.getSymbol().getNumber(), encode(shift.getAction(), SHIFT, SHIFTREDUCE));
+            }
+            for (Reduce reduce : state.getReduceList())
+            {
+                row.put(reduce.getSymbol().getNumber(), (reduce.getRule().getNumber()<<KINDBITS)|REDUCE);
+            }
+            for (GTerminal terminal : lrk.getTerminals())
+            {
+                int t = terminal.getNumber();
+                int action = table.getAction(state.getNumber(), t);
+                assertEquals(state+" "+terminal, (int)row.getOrDefault(t, ERROR), action);
+                if ((action & KINDMASK) == SHIFTREDUCE)
+                {
+                    shiftReduceCount++;
+                }
+            }
+        }
+        assertTrue("no shift-reduce actions", shiftReduceCount > 0);
+        // comb vector is smaller than full table
+        int stateCount = table.getStateCount();
+        assertTrue(table.getTableSize() < stateCount*symbolCount);
+        
+        Map<Integer,Set<Integer>> gotoTargets = new HashMap<>();
+        for (Lr0State state : lrk.getLr0StateList())
+        {
+            for (Goto go : state.getGotoList())
+            {
+                int nt = go.getSymbol().getNumber();
+                int expected = encode(go.getAction(), SHIFT, SHIFTREDUCE);
+                assertEquals(state+" "+go.getSymbol(), expected, table.getGoto(state.getNumber(), nt));
+                Set<Integer> targets = gotoTargets.get(nt);
+                if (targets == null)
+                {
+                    targets = new HashSet<>();
+                    gotoTargets.put(nt, targets);
+                }
+                targets.add(expected);
+            }
+        }
+        // nonterminal with only one goto target has empty goto column and
+        // every state returns the default
+        boolean emptyColumn = false;
+        for (Map.Entry<Integer,Set<Integer>> entry : gotoTargets.entrySet())
+        {
+            if (entry.getValue().size() == 1)
+            {
+                emptyColumn = true;
+                int def = entry.getValue().iterator().next();
+                for (int state=1;state<=stateCount;state++)
+                {
+                    assertEquals(def, table.getGoto(state, entry.getKey()));
+                }
+            }
+        }
+        assertTrue("no empty goto column", emptyColumn);
+    }
+    private static int encode(Action action, int stateKind, int ruleKind)
+    {
+        if (action instanceof Lr0State)
+        {
+            return (((Lr0State)action).getNumber()<<KINDBITS)|stateKind;
+        }
+        return (((GRule)action).getNumber()<<KINDBITS)|ruleKind;
+    }
+    @Test
+    public void testCompare() throws IOException
+    {
+        CompiledCalc compiled = (CompiledCalc) GenClassFactory.createDynamicInstance(CompiledCalc.class);
+        TableCalc table = (TableCalc) GenClassFactory.createDynamicInstance(TableCalc.class);
+        compare(compiled::parse, table::parse);
+    }
+    @Test
+    public void testLongTable() throws IOException
+    {
+        CompiledCalc compiled = (CompiledCalc) GenClassFactory.createDynamicInstance(CompiledCalc.class);
+        LongTableCalc table = (LongTableCalc) GenClassFactory.createDynamicInstance(LongTableCalc.class);
+        assertTrue(LONGNAME.length() > 0x4000);
+        compare(compiled::parse, (text)->table.parse(text, 1000));
+    }
+    private void compare(ToLongFunction<String> compiled, ToLongFunction<String> table)
+    {
+        for (String input : INPUTS)
+        {
+            assertEquals(input, compiled.applyAsLong(input), table.applyAsLong(input));
+        }
+        assertEquals(47, table.applyAsLong("2*(3+(4*5))+1"));
+        for (String input : ERRORS)
+        {
+            assertEquals(input, failure(compiled, input), failure(table, input));
+        }
+    }
+    private static Class<?> failure(ToLongFunction<String> parser, String input)
+    {
+        try
+        {
+            parser.applyAsLong(input);
+            fail(input+" parsed");
+            return null;
+        }
+        catch (Exception ex)
+        {
+            return ex.getClass();
+        }
+    }
+    @Terminals({
+        @Terminal(left="PLUS", expression="\\+"),
+        @Terminal(left="STAR", expression="\\*"),
+        @Terminal(left="LPAREN", expression="\\("),
+        @Terminal(left="RPAREN", expression="\\)"),
+        @Terminal(left="WSP", expression="[ \t]+")
+    })
+    public static abstract class Calc
+    {
+        @Rule(left="Goal", value={"Expression"})
+        protected abstract long goal(long expr);
+        @Rule(left="Expression", value={"Expression", "PLUS", "Term"})
+        protected long plus(long expr, long term)
+        {
+            return expr + term;
+        }
+        @Rule(left="Expression", value={"Term"})
+        protected long term(long term)
+        {
+            return term;
+        }
+        @Rule(left="Term", value={"Term", "STAR", "Factor"})
+        protected long star(long term, long factor)
+        {
+            return term * factor;
+        }
+        @Rule(left="Term", value={"Factor"})
+        protected long factor(long factor)
+        {
+            return factor;
+        }
+        @Rule(left="Factor", value={"LPAREN", "Expression", "RPAREN"})
+        protected long parenthesis(long expr)
+        {
+            return expr;
+        }
+        @Rule(left="Factor", value={"NUMBER"})
+        protected long number(long number)
+        {
+            return number;
+        }
+        @Terminal(expression="[0-9]+")
+        protected abstract long NUMBER(long value);
+    }
+    @GenClassname("org.vesalainen.parser.CompiledCalcImpl")
+    @GrammarDef()
+    public static abstract class CompiledCalc extends Calc
+    {
+        @ParseMethod(start="Goal", whiteSpace={"WSP"})
+        public abstract long parse(String text);
+    }
+    @GenClassname("org.vesalainen.parser.TableCalcImpl")
+    @GrammarDef()
+    public static abstract class TableCalc extends Calc
+    {
+        @ParseMethod(start="Goal", whiteSpace={"WSP"}, features={UseTableLALR})
+        public abstract long parse(String text);
+    }
+    @GenClassname("org.vesalainen.parser.LongTableCalcImpl")
+    @GrammarDef()
+    public static abstract class LongTableCalc extends Calc
+    {
+        @ParseMethod(start="Goal", whiteSpace={"WSP"}, features={UseTableLALR})
+        public abstract long parse(String text, @ParserContext(LONGNAME) long context);
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileManager.Location;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.SimpleJavaFileObject;
+
+/**
+ * ProcessingEnvironment which keeps written files in memory and records
+ * messages. Used for inspecting generated classes in tests.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+class MemoryEnvironment implements ProcessingEnvironment, Filer, Messager
+{
+    private final Map<String,byte[]> files = new HashMap<>();
+    private final List<String> messages = new ArrayList<>();
+    /**
+     * Returns class file bytes of written class or null.
+     * @param classname
+     * @return 
+     */
+    public byte[] getClassFile(String classname)
+    {
+        return files.get(classname.replace('.', '/')+Kind.CLASS.extension);
+    }
+    /**
+     * Returns text of written resource or null.
+     * @param path For example org/vesalainen/parser/doc-files/X-methods.html
+     * @return 
+     */
+    public String getText(String path)
+    {
+        byte[] bytes = files.get(path);
+        return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+    }
+    /**
+     * Returns messages as kind: message
+     * @return 
+     */
+    public List<String> getMessages()
+    {
+        return messages;
+    }
+    
+    @Override
+    public Map<String, String> getOptions()
+    {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public Messager getMessager()
+    {
+        return this;
+    }
+
+    @Override
+    public Filer getFiler()
+    {
+        return this;
+    }
+
+    @Override
+    public Elements getElementUtils()
+    {
+        return null;
+    }
+
+    @Override
+    public Types getTypeUtils()
+    {
+        return null;
+    }
+
+    @Override
+    public SourceVersion getSourceVersion()
+    {
+        return SourceVersion.latest();
+    }
+
+    @Override
+    public Locale getLocale()
+    {
+        return Locale.getDefault();
+    }
+
+    @Override
+    public JavaFileObject createSourceFile(CharSequence name, Element... originatingElements) throws IOException
+    {
+        return new MemoryFileObject(name.toString().replace('.', '/')+Kind.SOURCE.extension, Kind.SOURCE);
+    }
+
+    @Override
+    public JavaFileObject createClassFile(CharSequence name, Element... originatingElements) throws IOException
+    {
+        return new MemoryFileObject(name.toString().replace('.', '/')+Kind.CLASS.extension, Kind.CLASS);
+    }
+
+    @Override
+    public FileObject createResource(Location location, CharSequence pkg, CharSequence relativeName, Element... originatingElements) throws IOException
+    {
+        return new MemoryFileObject(pkg.toString().replace('.', '/')+"/"+relativeName, Kind.OTHER);
+    }
+
+    @Override
+    public FileObject getResource(Location location, CharSequence pkg, CharSequence relativeName) throws IOException
+    {
+        throw new FileNotFoundException(pkg+"/"+relativeName);
+    }
+
+    @Override
+    public void printMessage(Diagnostic.Kind kind, CharSequence msg)
+    {
+        messages.add(kind+": "+msg);
+    }
+
+    @Override
+    public void printMessage(Diagnostic.Kind kind, CharSequence msg, Element e)
+    {
+        printMessage(kind, msg);
+    }
+
+    @Override
+    public void printMessage(Diagnostic.Kind kind, CharSequence msg, Element e, AnnotationMirror a)
+    {
+        printMessage(kind, msg);
+    }
+
+    @Override
+    public void printMessage(Diagnostic.Kind kind, CharSequence msg, Element e, AnnotationMirror a, AnnotationValue v)
+    {
+        printMessage(kind, msg);
+    }
+    
+    private class MemoryFileObject extends SimpleJavaFileObject
+    {
+        private final String path;
+
+        public MemoryFileObject(String path, Kind kind)
+        {
+            super(URI.create("mem:///"+path), kind);
+            this.path = path;
+        }
+
+        @Override
+        public OutputStream openOutputStream() throws IOException
+        {
+            return new ByteArrayOutputStream()
+            {
+                @Override
+                public void close() throws IOException
+                {
+                    files.put(path, toByteArray());
+                }
+            };
+        }
+
+        @Override
+        public Writer openWriter() throws IOException
+        {
+            return new OutputStreamWriter(openOutputStream(), StandardCharsets.UTF_8);
+        }
+        
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.vesalainen.parser.ParseContext.StackFrame;
+import static org.vesalainen.parser.ParserFeature.*;
+import org.vesalainen.parser.annotation.GenClassname;
+import org.vesalainen.parser.annotation.GrammarDef;
+import org.vesalainen.parser.annotation.ParseMethod;
+import org.vesalainen.parser.annotation.Rule;
+import org.vesalainen.parser.annotation.Terminal;
+import org.vesalainen.parser.annotation.Terminals;
+
+/**
+ *
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+public class ParseContextTest
+{
+    private static SumParser parser;
+    private CountingContext context;
+    
+    public ParseContextTest()
+    {
+    }
+    
+    @Before
+    public void setUp() throws IOException
+    {
+        if (parser == null)
+        {
+            parser = (SumParser) GenClassFactory.createDynamicInstance(SumParser.class);
+        }
+        context = new CountingContext();
+        ParseContext.set(context);
+    }
+    
+    @After
+    public void tearDown()
+    {
+        ParseContext.set(new ParseContext());
+    }
+
+    @Test
+    public void testReuse()
+    {
+        assertEquals(6, parser.parse("1 + 2+3"));
+        assertTrue(context.outstanding.isEmpty());
+        StackFrame frame = context.last;
+        assertEquals(10, parser.parse("4 + 6"));
+        assertSame(frame, context.last);
+        assertEquals(2, context.acquired);
+        assertEquals(2, context.released);
+    }
+    @Test
+    public void testSyntaxError()
+    {
+        assertEquals(3, parser.parse("1+2"));
+        try
+        {
+            parser.parse("1 + + 2");
+            fail("syntax error not detected");
+        }
+        catch (Exception ex)
+        {
+        }
+        // frame of failed parse is left for garbage collector
+        assertEquals(1, context.outstanding.size());
+        StackFrame leaked = context.outstanding.iterator().next();
+        assertEquals(7, parser.parse("3+4"));
+        assertNotSame(leaked, context.last);
+        assertEquals(1, context.outstanding.size());
+    }
+    @Test
+    public void testReducerThrows()
+    {
+        try
+        {
+            parser.parse("1 + 13");
+            fail("reducer exception not passed");
+        }
+        catch (Exception ex)
+        {
+        }
+        assertEquals(1, context.outstanding.size());
+        assertEquals(5, parser.parse("2+3"));
+        assertEquals(1, context.outstanding.size());
+        assertEquals(2, context.acquired);
+        assertEquals(1, context.released);
+    }
+    @Test
+    public void testReentrant()
+    {
+        assertEquals(10, parser.parse("1+{2 + 3}+4"));
+        assertEquals(2, context.maxOutstanding);
+        assertTrue(context.outstanding.isEmpty());
+        assertEquals(2, context.acquired);
+        assertEquals(2, context.released);
+        assertEquals(21, parser.parse("{1+{2+{3}}}+{4+5+6}"));
+        assertTrue(context.outstanding.isEmpty());
+        assertEquals(4, context.maxOutstanding);
+    }
+    /**
+     * Checks that frame is not in use twice or released twice.
+     */
+    private static class CountingContext extends ParseContext
+    {
+        private final Set<StackFrame> outstanding = Collections.newSetFromMap(new IdentityHashMap<>());
+        private int acquired;
+        private int released;
+        private int maxOutstanding;
+        private StackFrame last;
+        
+        @Override
+        public StackFrame acquire(int stackSize)
+        {
+            StackFrame frame = super.acquire(stackSize);
+            assertTrue("frame in use", outstanding.add(frame));
+            maxOutstanding = Math.max(maxOutstanding, outstanding.size());
+            acquired++;
+            return frame;
+        }
+
+        @Override
+        public void release(StackFrame frame)
+        {
+            assertTrue("frame released twice", outstanding.remove(frame));
+            released++;
+            last = frame;
+            super.release(frame);
+        }
+        
+    }
+    @GenClassname("org.vesalainen.parser.ParseContextTestSumParserImpl")
+    @GrammarDef()
+    @Terminals({
+        @Terminal(left="PLUS", expression="\\+"),
+        @Terminal(left="WSP", expression="[ ]+")
+    })
+    public static abstract class SumParser
+    {
+        @ParseMethod(start="Sum", whiteSpace={"WSP"}, features={UseParseContext})
+        public abstract long parse(String text);
+        
+        @Rule(left="Sum", value={"Term"})
+        protected long single(long term)
+        {
+            return term;
+        }
+        @Rule(left="Sum", value={"Sum", "PLUS", "Term"})
+        protected long plus(long sum, long term)
+        {
+            return sum + term;
+        }
+        @Rule(left="Term", value={"NUMBER"})
+        protected long numberTerm(long number)
+        {
+            return number;
+        }
+        @Rule(left="Term", value={"NESTED"})
+        protected long nestedTerm(long nested)
+        {
+            return nested;
+        }
+        @Terminal(left="NUMBER", expression="[0-9]+")
+        protected long numberValue(int value)
+        {
+            if (value == 13)
+            {
+                throw new IllegalArgumentException("13");
+            }
+            return value;
+        }
+        /**
+         * Parses nested expression in same thread.
+         * @param text
+         * @return 
+         */
+        @Terminal(left="NESTED", expression="\\{[^\\{\\}]*(\\{[^\\{\\}]*(\\{[^\\{\\}]*\\})?[^\\{\\}]*\\})?[^\\{\\}]*\\}")
+        protected long nestedValue(String text)
+        {
+            return parse(text.substring(1, text.length()-1));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+import java.nio.channels.ReadableByteChannel;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.vesalainen.parser.ParserFeature.*;
+import org.vesalainen.parser.annotation.GenClassname;
+import org.vesalainen.parser.annotation.GrammarDef;
+import org.vesalainen.parser.annotation.ParseMethod;
+import org.vesalainen.parser.annotation.Rule;
+import org.vesalainen.parser.annotation.Terminal;
+import org.vesalainen.parser.annotation.Terminals;
+
+/**
+ *
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+public class ReadAheadTest
+{
+    
+    public ReadAheadTest()
+    {
+    }
+
+    @Test
+    public void testParse() throws IOException, InterruptedException
+    {
+        SumParser parser = (SumParser) GenClassFactory.createDynamicInstance(SumParser.class);
+        Set<Thread> before = readAheadThreads();
+        Pipe pipe = Pipe.open();
+        pipe.sink().write(ByteBuffer.wrap("1 + 2+3".getBytes(US_ASCII)));
+        pipe.sink().close();
+        assertEquals(6, parser.parse(pipe.source()));
+        assertNoNewThreads(before);
+    }
+    @Test
+    public void testCloseAfterError() throws IOException, InterruptedException
+    {
+        SumParser parser = (SumParser) GenClassFactory.createDynamicInstance(SumParser.class);
+        Set<Thread> before = readAheadThreads();
+        Pipe pipe = Pipe.open();
+        // pipe is left open so that read ahead thread blocks in read
+        pipe.sink().write(ByteBuffer.wrap("1 + 2+ +3".getBytes(US_ASCII)));
+        try
+        {
+            parser.parse(pipe.source());
+            fail("syntax error not detected");
+        }
+        catch (Exception ex)
+        {
+        }
+        assertFalse(pipe.source().isOpen());
+        assertNoNewThreads(before);
+        pipe.sink().close();
+    }
+    private static void assertNoNewThreads(Set<Thread> before) throws InterruptedException
+    {
+        Set<Thread> after = readAheadThreads();
+        after.removeAll(before);
+        for (Thread thread : after)
+        {
+            thread.join(5000);
+            assertFalse(thread.isAlive());
+        }
+    }
+    private static Set<Thread> readAheadThreads()
+    {
+        Set<Thread> set = new HashSet<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet())
+        {
+            if ("ReadAhead".equals(thread.getName()))
+            {
+                set.add(thread);
+            }
+        }
+        return set;
+    }
+    @GenClassname("org.vesalainen.parser.ReadAheadSumParserImpl")
+    @GrammarDef()
+    @Terminals({
+        @Terminal(left="PLUS", expression="\\+"),
+        @Terminal(left="WSP", expression="[ ]+")
+    })
+    public static abstract class SumParser
+    {
+        @ParseMethod(start="Sum", whiteSpace={"WSP"}, features={UseReadAhead})
+        public abstract long parse(ReadableByteChannel channel) throws IOException;
+        @Rule(left="Sum", value={"Sum", "PLUS", "NUMBER"})
+        protected long plus(long sum, long number)
+        {
+            return sum + number;
+        }
+        @Rule(left="Sum", value={"NUMBER"})
+        protected long single(long number)
+        {
+            return number;
+        }
+        @Terminal(expression="[0-9]+")
+        protected abstract long NUMBER(long value);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.vesalainen.bcc.model.El;
+import org.vesalainen.parser.annotation.GenClassname;
+import org.vesalainen.parser.annotation.GrammarDef;
+import org.vesalainen.parser.annotation.ParseMethod;
+import org.vesalainen.parser.annotation.ParserContext;
+import org.vesalainen.parser.annotation.Rule;
+import org.vesalainen.parser.annotation.Terminal;
+import org.vesalainen.parser.annotation.Terminals;
+import org.vesalainen.parser.util.InputReader;
+
+/**
+ * Tests white-space skipping with LALR(2) grammar. Look-ahead input is 
+ * unread after look-ahead so skipped white-space would make it too short.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+public class SkipWhiteSpaceTest
+{
+    private static final String[] INPUTS = new String[] {
+        "abc.+",
+        "abc . +",
+        "  abc   .   +  ",
+        "abc.-",
+        "abc  .  -",
+        "x    .-"
+    };
+    private static final String[] EXPECTED = new String[] {
+        "A:abc",
+        "A:abc",
+        "A:abc",
+        "B:abc",
+        "B:abc",
+        "B:x"
+    };
+    
+    public SkipWhiteSpaceTest()
+    {
+    }
+
+    @Test
+    public void testSkipped() throws IOException
+    {
+        MemoryEnvironment env = new MemoryEnvironment();
+        GenClassCompiler compiler = GenClassCompiler.compile(El.getTypeElement(SkippingParser.class.getCanonicalName()), env);
+        assertTrue(usesSkipWhile(env.getClassFile("org.vesalainen.parser.SkippingParserImpl")));
+        SkippingParser parser = (SkippingParser) compiler.newInstance();
+        for (int ii=0;ii<INPUTS.length;ii++)
+        {
+            assertEquals(INPUTS[ii], EXPECTED[ii], parser.parse(INPUTS[ii]));
+        }
+    }
+    @Test
+    public void testNotSkipped() throws IOException
+    {
+        MemoryEnvironment env = new MemoryEnvironment();
+        GenClassCompiler compiler = GenClassCompiler.compile(El.getTypeElement(ReadingParser.class.getCanonicalName()), env);
+        assertFalse(usesSkipWhile(env.getClassFile("org.vesalainen.parser.ReadingParserImpl")));
+        ReadingParser parser = (ReadingParser) compiler.newInstance();
+        for (int ii=0;ii<INPUTS.length;ii++)
+        {
+            parser.spaces.clear();
+            assertEquals(INPUTS[ii], EXPECTED[ii], parser.parse(INPUTS[ii]));
+            for (String ws : parser.spaces)
+            {
+                assertTrue(INPUTS[ii], ws.matches("[ ]+"));
+            }
+        }
+    }
+    private static boolean usesSkipWhile(byte[] classFile)
+    {
+        assertNotNull("class file not written", classFile);
+        return new String(classFile, StandardCharsets.ISO_8859_1).contains("skipWhile");
+    }
+    /**
+     * S ::= A '.' '+' | B '.' '-' needs two tokens look-ahead after ID.
+     */
+    @Terminals({
+        @Terminal(left="DOT", expression="\\."),
+        @Terminal(left="PLUS", expression="\\+"),
+        @Terminal(left="MINUS", expression="\\-")
+    })
+    public static abstract class Lalr2
+    {
+        public abstract String parse(String text);
+        @Rule(left="S", value={"A", "DOT", "PLUS"})
+        protected String plus(String a)
+        {
+            return "A:"+a;
+        }
+        @Rule(left="S", value={"B", "DOT", "MINUS"})
+        protected String minus(String b)
+        {
+            return "B:"+b;
+        }
+        @Rule(left="A", value={"ID"})
+        protected String a(String id)
+        {
+            return id;
+        }
+        @Rule(left="B", value={"ID"})
+        protected String b(String id)
+        {
+            return id;
+        }
+        @Terminal(expression="[a-z]+")
+        protected abstract String ID(String value);
+    }
+    @GenClassname("org.vesalainen.parser.SkippingParserImpl")
+    @GrammarDef()
+    @Terminals({
+        @Terminal(left="WSP", expression="[ ]+")
+    })
+    public static abstract class SkippingParser extends Lalr2
+    {
+        @ParseMethod(start="S", whiteSpace={"WSP"})
+        @Override
+        public abstract String parse(String text);
+    }
+    @GenClassname("org.vesalainen.parser.ReadingParserImpl")
+    @GrammarDef()
+    public static abstract class ReadingParser extends Lalr2
+    {
+        private final List<String> spaces = new ArrayList<>();
+        
+        @ParseMethod(start="S", whiteSpace={"WSP"})
+        @Override
+        public abstract String parse(String text);
+        
+        @Terminal(left="WSP", expression="[ ]+")
+        protected void whiteSpace(@ParserContext(ParserConstants.InputReader) InputReader reader)
+        {
+            spaces.add(reader.getString());
+        }
+    }
+}
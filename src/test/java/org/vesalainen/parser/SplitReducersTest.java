@@ -0,0 +1,303 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.vesalainen.bcc.model.El;
+import static org.vesalainen.parser.ParserFeature.*;
+import org.vesalainen.parser.annotation.GenClassname;
+import org.vesalainen.parser.annotation.GrammarDef;
+import org.vesalainen.parser.annotation.ParseMethod;
+import org.vesalainen.parser.annotation.ParserContext;
+import org.vesalainen.parser.annotation.Rule;
+import org.vesalainen.parser.annotation.Terminal;
+import org.vesalainen.parser.annotation.Terminals;
+
+/**
+ * Compares parser compiled with SplitReducers against parser without it.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+public class SplitReducersTest
+{
+    private static final String[] INPUTS = new String[] {
+        "print 1",
+        "push 1+2*3 pop dup swap",
+        "set x 7 get x print x*(x-1)",
+        "if 1 { print 2 print -3 } ret",
+        "loop 3 neg 4%3 call f",
+        "{ { print (1+2)/3 } } push x-y-z",
+        "if a if b loop 2 { set y 1 get y }"
+    };
+    private static final String[] ERRORS = new String[] {
+        "",
+        "print",
+        "set 1 2",
+        "{ pop",
+        "push 1+",
+        "loop x pop",
+        "print 1 )"
+    };
+    private static final Pattern METHOD = Pattern.compile("^([^:<>\\s]+): ([0-9]+)", Pattern.MULTILINE);
+    
+    public SplitReducersTest()
+    {
+    }
+
+    @Test
+    public void testSplitReducers() throws IOException
+    {
+        MemoryEnvironment env = new MemoryEnvironment();
+        Commands plain = (Commands) GenClassCompiler.compile(El.getTypeElement(PlainParser.class.getCanonicalName()), env).newInstance();
+        Commands split = (Commands) GenClassCompiler.compile(El.getTypeElement(SplitParser.class.getCanonicalName()), env).newInstance();
+        Map<String,Integer> plainSizes = methodSizes(env, "PlainParser");
+        Map<String,Integer> splitSizes = methodSizes(env, "SplitParser");
+        assertFalse(plainSizes.keySet().stream().anyMatch((n)->n.startsWith("parse$reduce")));
+        assertTrue(splitSizes.keySet().stream().anyMatch((n)->n.startsWith("parse$reduce")));
+        for (Map.Entry<String,Integer> entry : splitSizes.entrySet())
+        {
+            assertTrue(entry.toString(), entry.getValue() <= ParserCompiler.HUGEMETHODLIMIT);
+        }
+        assertTrue(splitSizes.get("parse")+" < "+plainSizes.get("parse"), splitSizes.get("parse") < plainSizes.get("parse"));
+        assertEquals("print(1);log:", result(split, "print 1"));
+        for (String input : INPUTS)
+        {
+            assertEquals(input, result(plain, input), result(split, input));
+        }
+        for (String input : ERRORS)
+        {
+            assertEquals(input, failure(plain, input), failure(split, input));
+        }
+    }
+    private static Map<String,Integer> methodSizes(MemoryEnvironment env, String parser)
+    {
+        String html = env.getText("org/vesalainen/parser/doc-files/"+parser+"-methods.html");
+        assertNotNull(parser+"-methods.html not written", html);
+        Map<String,Integer> map = new HashMap<>();
+        Matcher matcher = METHOD.matcher(html);
+        while (matcher.find())
+        {
+            map.put(matcher.group(1), Integer.valueOf(matcher.group(2)));
+        }
+        assertTrue(html, map.containsKey("parse"));
+        return map;
+    }
+    private static String result(Commands parser, String input)
+    {
+        StringBuilder log = new StringBuilder();
+        return parser.parse(input, log)+"log:"+log;
+    }
+    private static Class<?> failure(Commands parser, String input)
+    {
+        try
+        {
+            parser.parse(input, new StringBuilder());
+            fail(input+" parsed");
+            return null;
+        }
+        catch (Exception ex)
+        {
+            return ex.getClass();
+        }
+    }
+    @Terminals({
+        @Terminal(left="PRINT", expression="print", priority=1),
+        @Terminal(left="PUSH", expression="push", priority=1),
+        @Terminal(left="POP", expression="pop", priority=1),
+        @Terminal(left="DUP", expression="dup", priority=1),
+        @Terminal(left="SWAP", expression="swap", priority=1),
+        @Terminal(left="SET", expression="set", priority=1),
+        @Terminal(left="GET", expression="get", priority=1),
+        @Terminal(left="IF", expression="if", priority=1),
+        @Terminal(left="LOOP", expression="loop", priority=1),
+        @Terminal(left="CALL", expression="call", priority=1),
+        @Terminal(left="RET", expression="ret", priority=1),
+        @Terminal(left="NEG", expression="neg", priority=1),
+        @Terminal(left="PLUS", expression="\\+"),
+        @Terminal(left="MINUS", expression="\\-"),
+        @Terminal(left="STAR", expression="\\*"),
+        @Terminal(left="SLASH", expression="/"),
+        @Terminal(left="PERCENT", expression="%"),
+        @Terminal(left="LPAREN", expression="\\("),
+        @Terminal(left="RPAREN", expression="\\)"),
+        @Terminal(left="LBRACE", expression="\\{"),
+        @Terminal(left="RBRACE", expression="\\}"),
+        @Terminal(left="WSP", expression="[ \t]+")
+    })
+    public static abstract class Commands
+    {
+        public abstract String parse(String text, StringBuilder log);
+        @Rule(left="Program", value={"Program", "Statement"})
+        protected String program(String program, String statement)
+        {
+            return program+statement;
+        }
+        @Rule(left="Program", value={"Statement"})
+        protected String program(String statement)
+        {
+            return statement;
+        }
+        @Rule(left="Statement", value={"PRINT", "Expr"})
+        protected String print(long expr)
+        {
+            return "print("+expr+");";
+        }
+        @Rule(left="Statement", value={"PUSH", "Expr"})
+        protected String push(long expr, @ParserContext("log") StringBuilder log)
+        {
+            log.append("push").append(expr).append(' ');
+            return "push("+expr+");";
+        }
+        @Rule(left="Statement", value={"POP"})
+        protected String pop(@ParserContext("log") StringBuilder log)
+        {
+            log.append("pop ");
+            return "pop;";
+        }
+        @Rule(left="Statement", value={"DUP"})
+        protected String dup()
+        {
+            return "dup;";
+        }
+        @Rule(left="Statement", value={"SWAP"})
+        protected String swap()
+        {
+            return "swap;";
+        }
+        @Rule(left="Statement", value={"SET", "NAME", "Expr"})
+        protected String set(String name, long expr, @ParserContext("log") StringBuilder log)
+        {
+            log.append(name).append('=').append(expr).append(' ');
+            return "set("+name+","+expr+");";
+        }
+        @Rule(left="Statement", value={"GET", "NAME"})
+        protected String get(String name)
+        {
+            return "get("+name+");";
+        }
+        @Rule(left="Statement", value={"IF", "Expr", "Statement"})
+        protected String ifStatement(long expr, String statement)
+        {
+            return "if("+expr+"){"+statement+"}";
+        }
+        @Rule(left="Statement", value={"LOOP", "NUMBER", "Statement"})
+        protected String loop(long count, String statement)
+        {
+            return "loop("+count+"){"+statement+"}";
+        }
+        @Rule(left="Statement", value={"CALL", "NAME"})
+        protected String call(String name)
+        {
+            return "call("+name+");";
+        }
+        @Rule(left="Statement", value={"RET"})
+        protected String ret()
+        {
+            return "ret;";
+        }
+        @Rule(left="Statement", value={"NEG", "Expr"})
+        protected String neg(long expr)
+        {
+            return "neg("+expr+");";
+        }
+        @Rule(left="Statement", value={"LBRACE", "Program", "RBRACE"})
+        protected String block(String program)
+        {
+            return "{"+program+"}";
+        }
+        @Rule(left="Expr", value={"Expr", "PLUS", "Term"})
+        protected long plus(long expr, long term)
+        {
+            return expr + term;
+        }
+        @Rule(left="Expr", value={"Expr", "MINUS", "Term"})
+        protected long minus(long expr, long term)
+        {
+            return expr - term;
+        }
+        @Rule(left="Expr", value={"Term"})
+        protected long expr(long term)
+        {
+            return term;
+        }
+        @Rule(left="Term", value={"Term", "STAR", "Factor"})
+        protected long star(long term, long factor)
+        {
+            return term * factor;
+        }
+        @Rule(left="Term", value={"Term", "SLASH", "Factor"})
+        protected long slash(long term, long factor)
+        {
+            return term / factor;
+        }
+        @Rule(left="Term", value={"Term", "PERCENT", "Factor"})
+        protected long percent(long term, long factor)
+        {
+            return term % factor;
+        }
+        @Rule(left="Term", value={"Factor"})
+        protected long term(long factor)
+        {
+            return factor;
+        }
+        @Rule(left="Factor", value={"NUMBER"})
+        protected long number(long number)
+        {
+            return number;
+        }
+        @Rule(left="Factor", value={"NAME"})
+        protected long name(String name)
+        {
+            return name.length();
+        }
+        @Rule(left="Factor", value={"LPAREN", "Expr", "RPAREN"})
+        protected long paren(long expr)
+        {
+            return expr;
+        }
+        @Rule(left="Factor", value={"MINUS", "Factor"})
+        protected long negate(long factor)
+        {
+            return -factor;
+        }
+        @Terminal(expression="[a-z]+")
+        protected abstract String NAME(String value);
+        @Terminal(expression="[0-9]+")
+        protected abstract long NUMBER(long value);
+    }
+    @GenClassname("org.vesalainen.parser.SplitReducersPlainParserImpl")
+    @GrammarDef()
+    public static abstract class PlainParser extends Commands
+    {
+        @ParseMethod(start="Program", whiteSpace={"WSP"})
+        @Override
+        public abstract String parse(String text, @ParserContext("log") StringBuilder log);
+    }
+    @GenClassname("org.vesalainen.parser.SplitReducersSplitParserImpl")
+    @GrammarDef()
+    public static abstract class SplitParser extends Commands
+    {
+        @ParseMethod(start="Program", whiteSpace={"WSP"}, features={SplitReducers})
+        @Override
+        public abstract String parse(String text, @ParserContext("log") StringBuilder log);
+    }
+}
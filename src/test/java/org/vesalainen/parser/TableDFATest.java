@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.vesalainen.bcc.model.El;
+import static org.vesalainen.parser.ParserFeature.*;
+import org.vesalainen.parser.annotation.DFAMap;
+import org.vesalainen.parser.annotation.DFAMapEntry;
+import org.vesalainen.parser.annotation.GenClassname;
+import org.vesalainen.parser.annotation.GrammarDef;
+import org.vesalainen.parser.annotation.ParseMethod;
+import org.vesalainen.parser.annotation.Rule;
+import org.vesalainen.parser.annotation.Terminal;
+import org.vesalainen.parser.annotation.Terminals;
+import org.vesalainen.parser.util.Input;
+import static org.vesalainen.regex.Regex.Option.*;
+
+/**
+ * Compares parsers and maps using table driven DFA's against compiled ones.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+public class TableDFATest
+{
+    private static final String[] INPUTS = new String[] {
+        "if abc",
+        "iffy 12",
+        "a /* x */ b",
+        "if/**/x 7 iff",
+        "  1 2\t3 ",
+        "ifx /* if */ if y"
+    };
+    private static final String[] ERRORS = new String[] {
+        "",
+        "if",
+        "if 1",
+        "A",
+        "a /* x"
+    };
+    private static final String[] MAP_INPUTS = new String[] {
+        "Abc",
+        "123",
+        "0x1f",
+        "-->",
+        "-",
+        "--",
+        "x",
+        ""
+    };
+    
+    public TableDFATest()
+    {
+    }
+
+    @Test
+    public void testParser() throws IOException
+    {
+        MemoryEnvironment env = new MemoryEnvironment();
+        CompiledParser compiled = (CompiledParser) GenClassCompiler.compile(El.getTypeElement(CompiledParser.class.getCanonicalName()), env).newInstance();
+        TableParser table = (TableParser) GenClassCompiler.compile(El.getTypeElement(TableParser.class.getCanonicalName()), env).newInstance();
+        assertFalse(usesTable(env.getClassFile("org.vesalainen.parser.TableDFACompiledParserImpl")));
+        assertTrue(usesTable(env.getClassFile("org.vesalainen.parser.TableDFATableParserImpl")));
+        assertEquals("if(abc)", table.parse("if abc"));
+        compare(compiled::parse, table::parse, INPUTS, ERRORS);
+    }
+    @Test
+    public void testMap() throws IOException
+    {
+        MemoryEnvironment env = new MemoryEnvironment();
+        CompiledMap compiled = (CompiledMap) GenClassCompiler.compile(El.getTypeElement(CompiledMap.class.getCanonicalName()), env).newInstance();
+        TableMap table = (TableMap) GenClassCompiler.compile(El.getTypeElement(TableMap.class.getCanonicalName()), env).newInstance();
+        assertFalse(usesTable(env.getClassFile("org.vesalainen.parser.TableDFACompiledMapImpl")));
+        assertTrue(usesTable(env.getClassFile("org.vesalainen.parser.TableDFATableMapImpl")));
+        assertEquals("HEX", table.input(Input.getInstance("0x1f")));
+        compare((text)->compiled.input(Input.getInstance(text)), (text)->table.input(Input.getInstance(text)), MAP_INPUTS, new String[] {});
+    }
+    private void compare(Function<String,String> compiled, Function<String,String> table, String[] inputs, String[] errors)
+    {
+        for (String input : inputs)
+        {
+            assertEquals(input, result(compiled, input), result(table, input));
+        }
+        for (String input : errors)
+        {
+            assertEquals(input, failure(compiled, input), failure(table, input));
+        }
+    }
+    private static String result(Function<String,String> parser, String input)
+    {
+        try
+        {
+            return parser.apply(input);
+        }
+        catch (Exception ex)
+        {
+            return ex.getClass().getName();
+        }
+    }
+    private static Class<?> failure(Function<String,String> parser, String input)
+    {
+        try
+        {
+            parser.apply(input);
+            fail(input+" parsed");
+            return null;
+        }
+        catch (Exception ex)
+        {
+            return ex.getClass();
+        }
+    }
+    private static boolean usesTable(byte[] classFile)
+    {
+        assertNotNull("class file not written", classFile);
+        return new String(classFile, StandardCharsets.ISO_8859_1).contains("org/vesalainen/regex/DFATable");
+    }
+    @Terminals({
+        @Terminal(left="IF", expression="if", priority=1),
+        @Terminal(left="COMMENT", expression="/\\*.*\\*/", options={FIXED_ENDER}),
+        @Terminal(left="WSP", expression="[ \t]+")
+    })
+    public static abstract class Items
+    {
+        public abstract String parse(String text);
+        @Rule(left="List", value={"List", "Item"})
+        protected String append(String list, String item)
+        {
+            return list+","+item;
+        }
+        @Rule(left="List", value={"Item"})
+        protected String first(String item)
+        {
+            return item;
+        }
+        @Rule(left="Item", value={"IF", "NAME"})
+        protected String ifName(String name)
+        {
+            return "if("+name+")";
+        }
+        @Rule(left="Item", value={"NAME"})
+        protected String name(String name)
+        {
+            return "n:"+name;
+        }
+        @Rule(left="Item", value={"NUMBER"})
+        protected String number(int number)
+        {
+            return "#"+number;
+        }
+        @Terminal(expression="[a-z]+")
+        protected abstract String NAME(String value);
+        @Terminal(expression="[0-9]+")
+        protected abstract int NUMBER(int value);
+    }
+    @GenClassname("org.vesalainen.parser.TableDFACompiledParserImpl")
+    @GrammarDef()
+    public static abstract class CompiledParser extends Items
+    {
+        @ParseMethod(start="List", whiteSpace={"WSP", "COMMENT"})
+        @Override
+        public abstract String parse(String text);
+    }
+    @GenClassname("org.vesalainen.parser.TableDFATableParserImpl")
+    @GrammarDef()
+    public static abstract class TableParser extends Items
+    {
+        @ParseMethod(start="List", whiteSpace={"WSP", "COMMENT"}, features={UseTableDFA})
+        @Override
+        public abstract String parse(String text);
+    }
+    @GenClassname("org.vesalainen.parser.TableDFACompiledMapImpl")
+    @DFAMap(error="ERROR", eof="EOF", value={
+        @DFAMapEntry(key="[A-Z][a-z]*", value="NAME"),
+        @DFAMapEntry(key="[0-9]+", value="NUMBER"),
+        @DFAMapEntry(key="0x[0-9a-f]+", value="HEX"),
+        @DFAMapEntry(key="\\-\\->", value="ARROW"),
+        @DFAMapEntry(key="\\-", value="MINUS")
+    })
+    public static abstract class CompiledMap implements MapParser
+    {
+    }
+    @GenClassname("org.vesalainen.parser.TableDFATableMapImpl")
+    @DFAMap(error="ERROR", eof="EOF", table=true, value={
+        @DFAMapEntry(key="[A-Z][a-z]*", value="NAME"),
+        @DFAMapEntry(key="[0-9]+", value="NUMBER"),
+        @DFAMapEntry(key="0x[0-9a-f]+", value="HEX"),
+        @DFAMapEntry(key="\\-\\->", value="ARROW"),
+        @DFAMapEntry(key="\\-", value="MINUS")
+    })
+    public static abstract class TableMap implements MapParser
+    {
+    }
+}
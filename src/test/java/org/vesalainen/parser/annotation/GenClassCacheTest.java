@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser.annotation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Runs Processor in separate javac process with changing grammar.
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+public class GenClassCacheTest
+{
+    private static final String SOURCE = 
+            "package cachetest;\n" +
+            "import org.vesalainen.parser.annotation.*;\n" +
+            "import static org.vesalainen.parser.ParserFeature.*;\n" +
+            "@GenClassname(\"cachetest.CalcImpl\")\n" +
+            "@GrammarDef()\n" +
+            "@Terminals({@Terminal(left=\"PLUS\", expression=\"\\\\+\")})\n" +
+            "public abstract class Calc\n" +
+            "{\n" +
+            "    @ParseMethod(start=\"Sum\", features={FEATURES})\n" +
+            "    public abstract int parse(String text);\n" +
+            "    @Rule(left=\"Sum\", value={\"Sum\", \"PLUS\", \"NUMBER\"})\n" +
+            "    protected int plus(int sum, int number)\n" +
+            "    {\n" +
+            "        return sum+number;\n" +
+            "    }\n" +
+            "    @Rule(left=\"Sum\", value={RULE})\n" +
+            "    protected int number(int number)\n" +
+            "    {\n" +
+            "        return number;\n" +
+            "    }\n" +
+            "    @Terminal(expression=\"EXPRESSION\")\n" +
+            "    protected abstract int NUMBER(int value);\n" +
+            "}\n";
+    private static final String BASE = source("\"NUMBER\"", "[0-9]+", "");
+    private static final String UPTODATE = "up to date";
+    
+    public GenClassCacheTest()
+    {
+    }
+
+    @Test
+    public void testReplay() throws IOException, InterruptedException
+    {
+        Path tmp = Files.createTempDirectory("lpg");
+        Path cache = tmp.resolve("cache");
+        assertFalse(javac(tmp, BASE, tmp.resolve("out1"), "-Alpg.cacheDir="+cache).contains(UPTODATE));
+        assertTrue(Files.exists(cache.resolve("cachetest.Calc.lpgcache")));
+        assertTrue(javac(tmp, BASE, tmp.resolve("out2"), "-Alpg.cacheDir="+cache).contains(UPTODATE));
+        Map<String,byte[]> generated = files(tmp.resolve("out1"));
+        Map<String,byte[]> replayed = files(tmp.resolve("out2"));
+        assertTrue(generated.containsKey("cachetest/CalcImpl.class"));
+        assertEquals(generated.keySet(), replayed.keySet());
+        for (String name : generated.keySet())
+        {
+            assertArrayEquals(name, generated.get(name), replayed.get(name));
+        }
+    }
+    @Test
+    public void testInvalidate() throws IOException, InterruptedException
+    {
+        Path tmp = Files.createTempDirectory("lpg");
+        String cacheDir = "-Alpg.cacheDir="+tmp.resolve("cache");
+        Path out = tmp.resolve("out");
+        assertFalse(javac(tmp, BASE, out, cacheDir).contains(UPTODATE));
+        String[] changes = new String[] {
+            source("\"PLUS\", \"NUMBER\"", "[0-9]+", ""),    // @Rule
+            source("\"NUMBER\"", "[1-9][0-9]*", ""),         // @Terminal
+            source("\"NUMBER\"", "[0-9]+", "UseDirectBuffer") // @ParseMethod feature
+        };
+        for (String source : changes)
+        {
+            assertFalse(source, javac(tmp, source, out, cacheDir).contains(UPTODATE));
+            assertTrue(source, javac(tmp, source, out, cacheDir).contains(UPTODATE));
+        }
+        assertFalse(javac(tmp, BASE, out, cacheDir).contains(UPTODATE));
+    }
+    @Test
+    public void testDisabled() throws IOException, InterruptedException
+    {
+        Path tmp = Files.createTempDirectory("lpg");
+        Path cache = tmp.resolve("cache");
+        Path out = tmp.resolve("out");
+        assertFalse(javac(tmp, BASE, out, "-Alpg.cacheDir="+cache, "-Alpg.cache=false").contains(UPTODATE));
+        assertFalse(javac(tmp, BASE, out, "-Alpg.cacheDir="+cache, "-Alpg.cache=false").contains(UPTODATE));
+        assertTrue(Files.exists(out.resolve("cachetest/CalcImpl.class")));
+        assertFalse(Files.exists(cache));
+    }
+    @Test
+    public void testDefaultDir() throws IOException, InterruptedException
+    {
+        Path tmp = Files.createTempDirectory("lpg");
+        Path out = tmp.resolve("module").resolve("classes");
+        assertFalse(javac(tmp, BASE, out).contains(UPTODATE));
+        assertTrue(Files.exists(tmp.resolve("module").resolve("lpg-cache").resolve("cachetest.Calc.lpgcache")));
+        assertTrue(javac(tmp, BASE, out).contains(UPTODATE));
+    }
+    private static String source(String rule, String expression, String features)
+    {
+        return SOURCE
+                .replace("RULE", rule)
+                .replace("EXPRESSION", expression)
+                .replace("FEATURES", features);
+    }
+    /**
+     * Runs annotation processing in javac process and returns its output.
+     */
+    private static String javac(Path tmp, String source, Path out, String... options) throws IOException, InterruptedException
+    {
+        Path src = tmp.resolve("src").resolve("cachetest").resolve("Calc.java");
+        Files.createDirectories(src.getParent());
+        Files.write(src, source.getBytes(StandardCharsets.UTF_8));
+        Files.createDirectories(out);
+        List<String> cmd = new ArrayList<>();
+        cmd.add(javacPath());
+        cmd.add("-cp");
+        cmd.add(System.getProperty("java.class.path"));
+        cmd.add("-proc:only");
+        cmd.add("-processor");
+        cmd.add(Processor.class.getName());
+        cmd.add("-d");
+        cmd.add(out.toString());
+        cmd.add("-s");
+        cmd.add(out.toString());
+        cmd.addAll(Arrays.asList(options));
+        cmd.add(src.toString());
+        Process process = new ProcessBuilder(cmd).redirectErrorStream(true).start();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (InputStream is = process.getInputStream())
+        {
+            byte[] buf = new byte[4096];
+            int rc = is.read(buf);
+            while (rc != -1)
+            {
+                baos.write(buf, 0, rc);
+                rc = is.read(buf);
+            }
+        }
+        String output = new String(baos.toByteArray(), StandardCharsets.UTF_8);
+        assertEquals(output, 0, process.waitFor());
+        return output;
+    }
+    private static String javacPath()
+    {
+        Path home = Paths.get(System.getProperty("java.home"));
+        for (Path bin : new Path[] {home.resolve("bin"), home.resolveSibling("bin")})
+        {
+            for (String name : new String[] {"javac", "javac.exe"})
+            {
+                Path javac = bin.resolve(name);
+                if (Files.isExecutable(javac))
+                {
+                    return javac.toString();
+                }
+            }
+        }
+        throw new IllegalArgumentException("javac not found in "+home);
+    }
+    private static Map<String,byte[]> files(Path dir) throws IOException
+    {
+        Map<String,byte[]> map = new HashMap<>();
+        try (Stream<Path> stream = Files.walk(dir))
+        {
+            for (Path path : stream.filter(Files::isRegularFile).collect(Collectors.toList()))
+            {
+                map.put(dir.relativize(path).toString().replace('\\', '/'), Files.readAllBytes(path));
+            }
+        }
+        return map;
+    }
+}
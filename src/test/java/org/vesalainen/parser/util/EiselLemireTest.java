@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser.util;
+
+import java.util.Random;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+public class EiselLemireTest
+{
+    
+    public EiselLemireTest()
+    {
+    }
+
+    @Test
+    public void testRandom()
+    {
+        Random random = new Random(12345);
+        for (int ii=0;ii<100000;ii++)
+        {
+            StringBuilder sb = new StringBuilder();
+            sb.append(1+random.nextInt(9));
+            int digits = 1+random.nextInt(EiselLemire.MAX_DIGITS);
+            for (int jj=1;jj<digits;jj++)
+            {
+                sb.append(random.nextInt(10));
+            }
+            long w = Long.parseUnsignedLong(sb.toString());
+            int q = random.nextInt(700)-360;
+            String str = sb+"e"+q;
+            long bits = EiselLemire.doubleBits(w, q);
+            if (bits != -1)
+            {
+                assertEquals(str, Double.doubleToRawLongBits(Double.parseDouble(str)), bits);
+            }
+            bits = EiselLemire.floatBits(w, q);
+            if (bits != -1)
+            {
+                assertEquals(str, Float.floatToRawIntBits(Float.parseFloat(str)), bits);
+            }
+        }
+    }
+    @Test
+    public void testLimits()
+    {
+        assertEquals(Double.doubleToRawLongBits(Double.MAX_VALUE), EiselLemire.doubleBits(17976931348623157L, 292));
+        assertEquals(Double.doubleToRawLongBits(Double.POSITIVE_INFINITY), EiselLemire.doubleBits(17976931348623159L, 292));
+        assertEquals(Double.doubleToRawLongBits(Double.MIN_VALUE), EiselLemire.doubleBits(49, -325));
+        assertEquals(0, EiselLemire.doubleBits(24703282292062327L, -340));
+        assertEquals(Double.doubleToRawLongBits(9007199254740992.0), EiselLemire.doubleBits(9007199254740993L, 0));
+        assertEquals(Float.floatToRawIntBits(Float.MAX_VALUE), EiselLemire.floatBits(34028235, 31));
+        assertEquals(Float.floatToRawIntBits(Float.MIN_VALUE), EiselLemire.floatBits(14, -46));
+        assertEquals(Float.floatToRawIntBits(16777216f), EiselLemire.floatBits(16777217, 0));
+    }
+}
@@ -26,13 +26,22 @@ import java.io.StringReader;
 import java.net.URL;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.Pipe;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
 import static java.nio.charset.StandardCharsets.*;
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import org.junit.AfterClass;
 import static org.junit.Assert.*;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.vesalainen.parser.ParserFeature;
 import static org.vesalainen.parser.ParserFeature.*;
 
 /**
@@ -554,6 +563,389 @@ public class InputReaderTest
             fail(ex.getMessage());
         }
     }
+    @Test
+    public void testMappedInput() throws IOException
+    {
+        File file = File.createTempFile("mapped", ".txt");
+        file.deleteOnExit();
+        byte[] buf = new byte[300000];
+        for (int ii=0;ii<buf.length;ii++)
+        {
+            buf[ii] = (byte) ('a' + ii % 26);
+        }
+        try (FileOutputStream fos = new FileOutputStream(file))
+        {
+            fos.write(buf);
+        }
+        try (InputReader reader = Input.getInstance(file.toPath(), 1000, StandardCharsets.ISO_8859_1, EnumSet.of(UseAutoClose));)
+        {
+            assertEquals(MappedByteInput.class, reader.getClass());
+            reader.read(995);
+            reader.clear();
+            reader.read(10);
+            assertEquals(new String(buf, 995, 10, ISO_8859_1), reader.getString());
+            reader.clear();
+            long l = 1005;
+            int cc = reader.read();
+            while (cc != -1)
+            {
+                assertEquals("l="+l, buf[(int)l++], cc);
+                reader.clear();
+                cc = reader.read();
+            }
+            assertEquals(buf.length, l);
+        }
+    }
+    @Test
+    public void testMappedWindows() throws IOException
+    {
+        File file = File.createTempFile("mapped", ".txt");
+        file.deleteOnExit();
+        byte[] buf = new byte[50000];
+        for (int ii=0;ii<buf.length;ii++)
+        {
+            buf[ii] = (byte) (ii % 100 == 99 ? ' ' : 'a' + ii % 26);
+        }
+        try (FileOutputStream fos = new FileOutputStream(file))
+        {
+            fos.write(buf);
+        }
+        try (FileChannel fc = FileChannel.open(file.toPath()))
+        {
+            InputReader reader = new MappedByteInput(fc, 1000, 4096, EnumSet.noneOf(ParserFeature.class));
+            for (int ii=0;ii<500;ii++)
+            {
+                assertEquals(' ', reader.readWhile("az"));
+                assertEquals(new String(buf, ii*100, 100, ISO_8859_1), reader.getString());
+                reader.clear();
+            }
+            assertEquals(-1, reader.read());
+        }
+    }
+    @Test
+    public void testInputCharSequence() throws IOException
+    {
+        InputReader input = Input.getInstance("foo bar", 16);
+        input.read(3);
+        InputCharSequence ics = input.getInputCharSequence();
+        assertEquals(3, ics.length());
+        assertEquals("foo".hashCode(), ics.hashCode());
+        assertTrue(ics.equals("foo"));
+        assertTrue(ics.contentEquals("foo"));
+        assertFalse(ics.contentEquals("fo"));
+        assertEquals("foo", ics.toString());
+        input.read();
+        input.clear();
+        input.read(3);
+        assertSame(ics, input.getInputCharSequence());
+        assertEquals("bar", ics.toString());
+        assertEquals("bar".hashCode(), ics.hashCode());
+    }
+    @Test
+    public void testReadWhile() throws IOException
+    {
+        testReadWhile(Input.getInstance(new StringReader("   \n  abc  "), 8));
+        testReadWhile(Input.getInstance(new ByteArrayInputStream("   \n  abc  ".getBytes(US_ASCII)), 8));
+    }
+    private void testReadWhile(InputReader input) throws IOException
+    {
+        assertEquals('a', input.readWhile("  \n\n"));
+        assertEquals(2, input.getLineNumber());
+        assertEquals(3, input.getColumnNumber());
+        assertEquals(7, input.getLength());
+        input.clear();
+        assertEquals(' ', input.readWhile("az"));
+        assertEquals("bc ", input.getString());
+        assertEquals(6, input.getColumnNumber());
+        input.clear();
+        assertEquals(-1, input.readWhile("  "));
+        assertEquals(7, input.getColumnNumber());
+    }
+    @Test
+    public void testReadWhileWords() throws IOException
+    {
+        String text = "                    x$GPRMC,123.00,A,6009.1,N*6C\nabcdefghijklmnopqrstuvwxyz0123456789\n\n";
+        testReadWhileWords(Input.getInstance(ByteBuffer.wrap(text.getBytes(US_ASCII)), -1, US_ASCII));
+        testReadWhileWords(Input.getInstance(new ByteArrayInputStream(text.getBytes(US_ASCII)), 64, US_ASCII));
+        testReadWhileWords(Input.getInstance(ByteBuffer.wrap(text.getBytes(ISO_8859_1)), -1, ISO_8859_1));
+    }
+    @Test
+    public void testReadWhileLatin1() throws IOException
+    {
+        String text = "\u00e4\u00f6\u00e5 \u00c4\u00d6\u00c5 abc\u00ff,";
+        InputReader input = Input.getInstance(ByteBuffer.wrap(text.getBytes(ISO_8859_1)), -1, ISO_8859_1);
+        assertTrue(input instanceof ByteInput);
+        assertEquals(',', input.readWhile("\u0000+-\uffff"));
+        assertEquals(text, input.getString());
+    }
+    private void testReadWhileWords(InputReader input) throws IOException
+    {
+        assertEquals('x', input.readWhile("  "));
+        assertEquals(21, input.getLength());
+        input.clear();
+        assertEquals('\n', input.readWhile("\u0000\u0009\u000b\uffff"));
+        assertEquals("$GPRMC,123.00,A,6009.1,N*6C\n", input.getString());
+        input.clear();
+        assertEquals('\n', input.readWhile("\u0000\u0009\u000b\uffff"));
+        assertEquals(37, input.getLength());
+        assertEquals(3, input.getLineNumber());
+        input.clear();
+        assertEquals('\n', input.readWhile("\u0000\u0009\u000b\uffff"));
+        assertEquals(1, input.getLength());
+        input.clear();
+        assertEquals(-1, input.readWhile("\u0000\u0009\u000b\uffff"));
+    }
+    @Test
+    public void testLineIndex() throws IOException
+    {
+        String text = "abc\n\nde\nfghijklmnopqrstu\nv\n\n\nxyz";
+        InputReader exp = Input.getInstance(new StringReader(text), 16);
+        InputReader lazy = Input.getInstance(new StringReader(text), 16, EnumSet.of(UseLineIndex));
+        int cc = exp.read();
+        while (cc != -1)
+        {
+            assertEquals(cc, lazy.read());
+            assertEquals(exp.getLineNumber(), lazy.getLineNumber());
+            assertEquals(exp.getColumnNumber(), lazy.getColumnNumber());
+            if (cc == 'u')
+            {
+                exp.rewind(1);
+                lazy.rewind(1);
+                assertEquals(exp.getColumnNumber(), lazy.getColumnNumber());
+                exp.read(1);
+                lazy.read(1);
+            }
+            exp.clear();
+            lazy.clear();
+            cc = exp.read();
+        }
+        assertEquals(-1, lazy.read());
+        assertEquals(8, lazy.getLineNumber());
+        assertEquals(3, lazy.getColumnNumber());
+    }
+    @Test
+    public void testGrowableBuffer() throws IOException
+    {
+        StringBuilder sb = new StringBuilder();
+        for (int ii=0;ii<5000;ii++)
+        {
+            sb.append((char)('a'+ii%26));
+        }
+        String text = "abc "+sb+" def";
+        testGrowableBuffer(text, Input.getInstance(new StringReader(text), 8192, EnumSet.of(UseGrowableBuffer)));
+        testGrowableBuffer(text, Input.getInstance(new ByteArrayInputStream(text.getBytes(US_ASCII)), 8192, US_ASCII, EnumSet.of(UseGrowableBuffer)));
+    }
+    private void testGrowableBuffer(String text, InputReader input) throws IOException
+    {
+        assertEquals(' ', input.readWhile("az"));
+        assertEquals("abc ", input.getString());
+        input.clear();
+        assertEquals(' ', input.readWhile("az"));
+        assertEquals(text.substring(4, 5005), input.getString());
+        input.rewind(5);
+        assertEquals(text.substring(4, 5000), input.getString());
+        input.clear();
+        assertEquals(-1, input.readWhile("  az"));
+        assertEquals(text.substring(5000), input.getString());
+    }
+    @Test
+    public void testSkipWhile() throws IOException
+    {
+        StringBuilder sb = new StringBuilder("/*");
+        for (int ii=0;ii<1000;ii++)
+        {
+            sb.append("comment\n");
+        }
+        sb.append("*/x");
+        InputReader input = Input.getInstance(new StringReader(sb.toString()), 16);
+        assertEquals('/', input.read());
+        assertEquals('*', input.read());
+        assertEquals('*', input.skipWhile("\u0000)+\uffff"));
+        assertEquals(1, input.getLength());
+        assertEquals(1001, input.getLineNumber());
+        assertEquals(1, input.getColumnNumber());
+        assertEquals('/', input.read());
+        input.clear();
+        assertEquals('x', input.skipWhile("  "));
+        input.unread('x');
+        assertEquals(0, input.getLength());
+        assertEquals('x', input.read());
+    }
+    @Test
+    public void testParseDigits() throws IOException
+    {
+        InputReader input = Input.getInstance("-123 7fffffff +42 12345678901");
+        input.read(4);
+        assertEquals(-123, input.parseInt());
+        input.read();
+        input.clear();
+        input.read(8);
+        assertEquals(Integer.MAX_VALUE, input.parseInt(16, false));
+        input.read();
+        input.clear();
+        input.read(3);
+        assertEquals(42, input.parseShort());
+        input.read();
+        input.clear();
+        input.read(11);
+        assertEquals(12345678901L, input.parseLong());
+    }
+    @Test
+    public void testParseDecimal() throws IOException
+    {
+        String[] numbers = new String[] {"6009.1234", "-0.001", "+1.5E-3", "02453.7", "170617", "1e-320"};
+        String text = String.join(",", numbers)+",";
+        InputReader input = Input.getInstance(new StringReader(text), 16);
+        for (String number : numbers)
+        {
+            assertEquals(',', input.readWhile("\u0000+-\uffff"));
+            input.rewind(1);
+            assertEquals(number, Double.parseDouble(number), input.parseDouble(), 0);
+            assertEquals(number, Float.parseFloat(number), input.parseFloat(), 0);
+            input.read();
+            input.clear();
+        }
+    }
+    @Test
+    public void testReadAhead() throws IOException
+    {
+        StringBuilder sb = new StringBuilder();
+        for (int ii=0;ii<100000;ii++)
+        {
+            sb.append((char)('a'+ii%26));
+        }
+        String text = sb+" end";
+        InputReader input = Input.getInstance(new ByteArrayInputStream(text.getBytes(US_ASCII)), 256, US_ASCII, EnumSet.of(UseReadAhead));
+        for (int ii=0;ii<100000;ii++)
+        {
+            assertEquals('a'+ii%26, input.read());
+            input.clear();
+        }
+        assertEquals(-1, input.readWhile(" z"));
+        assertEquals(" end", input.getString());
+    }
+    @Test
+    public void testReadAheadClose() throws IOException, InterruptedException
+    {
+        Set<Thread> before = readAheadThreads();
+        Pipe pipe = Pipe.open();
+        pipe.sink().write(ByteBuffer.wrap("abc".getBytes(US_ASCII)));
+        InputReader input = Input.getInstance(pipe.source(), 64, US_ASCII, EnumSet.of(UseReadAhead));
+        assertEquals('a', input.read());
+        assertEquals('b', input.read());
+        assertEquals('c', input.read());
+        // background thread is now blocked in read. Parsing fails here and 
+        // input is closed.
+        input.close();
+        assertFalse(pipe.source().isOpen());
+        Set<Thread> after = readAheadThreads();
+        after.removeAll(before);
+        for (Thread thread : after)
+        {
+            thread.join(5000);
+            assertFalse(thread.isAlive());
+        }
+        pipe.sink().close();
+    }
+    @Test
+    public void testReadAheadNonBlocking() throws IOException
+    {
+        Pipe pipe = Pipe.open();
+        pipe.source().configureBlocking(false);
+        try
+        {
+            new ReadAheadChannel(pipe.source(), 64, false);
+            fail("non-blocking channel accepted");
+        }
+        catch (IllegalArgumentException ex)
+        {
+        }
+        Set<Thread> before = readAheadThreads();
+        pipe.sink().write(ByteBuffer.wrap("abc".getBytes(US_ASCII)));
+        pipe.sink().close();
+        InputReader input = Input.getInstance(pipe.source(), 64, US_ASCII, EnumSet.of(UseReadAhead));
+        assertEquals('a', input.read());
+        Set<Thread> after = readAheadThreads();
+        after.removeAll(before);
+        assertTrue(after.isEmpty());
+        input.close();
+    }
+    @Test
+    public void testReadAheadError() throws IOException
+    {
+        ReadableByteChannel channel = new ReadableByteChannel()
+        {
+            @Override
+            public int read(ByteBuffer dst) throws IOException
+            {
+                throw new ClosedByInterruptException();
+            }
+            @Override
+            public boolean isOpen()
+            {
+                return true;
+            }
+            @Override
+            public void close() throws IOException
+            {
+            }
+        };
+        ReadAheadChannel rac = new ReadAheadChannel(channel, 64, false);
+        try
+        {
+            rac.read(ByteBuffer.allocate(16));
+            fail("error not thrown");
+        }
+        catch (ClosedByInterruptException ex)
+        {
+        }
+        rac.close();
+    }
+    private static Set<Thread> readAheadThreads()
+    {
+        Set<Thread> set = new HashSet<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet())
+        {
+            if ("ReadAhead".equals(thread.getName()))
+            {
+                set.add(thread);
+            }
+        }
+        return set;
+    }
+    @Test
+    public void testFragmentInput() throws IOException
+    {
+        List<ByteBuffer> released = new ArrayList<>();
+        FragmentInput input = new FragmentInput(64, released::add, EnumSet.noneOf(ParserFeature.class));
+        ByteBuffer f1 = ByteBuffer.wrap("xxabc de".getBytes(US_ASCII));
+        f1.position(2);
+        ByteBuffer f2 = ByteBuffer.wrap("fghijklmnopqrstuvwxyz1".getBytes(US_ASCII));
+        input.add(f1);
+        input.add(f2);
+        assertEquals(' ', input.readWhile("az"));
+        assertEquals("abc ", input.getString());
+        input.clear();
+        assertEquals('1', input.readWhile("az"));
+        assertEquals("defghijklmnopqrstuvwxyz1", input.getString());
+        input.clear();
+        try
+        {
+            input.read();
+            fail("WouldBlockException not thrown");
+        }
+        catch (WouldBlockException ex)
+        {
+        }
+        assertEquals(2, released.size());
+        assertSame(f1, released.get(0));
+        assertSame(f2, released.get(1));
+        assertEquals(2, f1.position());
+        input.add(ByteBuffer.wrap("2".getBytes(US_ASCII)));
+        input.eof();
+        assertEquals('2', input.read());
+        assertEquals(-1, input.read());
+    }
     //@Test // takes about 237 s
     public void testIndexOverflow() throws IOException
     {
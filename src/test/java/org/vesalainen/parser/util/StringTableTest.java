@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.parser.util;
+
+import java.io.IOException;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+public class StringTableTest
+{
+    
+    public StringTableTest()
+    {
+    }
+
+    @Test
+    public void testGet() throws IOException
+    {
+        StringTable table = new StringTable(16, 5);
+        InputReader input = Input.getInstance("foo bar foo foobar foobar ");
+        input.setStringTable(table);
+        String foo1 = next(input);
+        String bar = next(input);
+        String foo2 = next(input);
+        String foobar1 = next(input);
+        String foobar2 = next(input);
+        assertEquals("foo", foo1);
+        assertEquals("bar", bar);
+        assertSame(foo1, foo2);
+        assertEquals("foobar", foobar1);
+        assertEquals(foobar1, foobar2);
+        assertNotSame(foobar1, foobar2);
+    }
+    @Test
+    public void testEviction() throws IOException
+    {
+        StringTable table = new StringTable(4);
+        assertEquals(4, table.getCapacity());
+        StringBuilder sb = new StringBuilder();
+        for (int ii=0;ii<100;ii++)
+        {
+            sb.append("w").append(ii).append(' ');
+        }
+        sb.append("w0 ");
+        InputReader input = Input.getInstance(sb);
+        input.setStringTable(table);
+        for (int ii=0;ii<100;ii++)
+        {
+            assertEquals("w"+ii, next(input));
+        }
+        assertEquals("w0", next(input));
+    }
+    private String next(InputReader input) throws IOException
+    {
+        input.readWhile("az09");
+        input.rewind(1);
+        String str = input.getString();
+        input.read();
+        input.clear();
+        return str;
+    }
+}
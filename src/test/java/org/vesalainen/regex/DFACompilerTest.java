@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.regex;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.vesalainen.grammar.state.DFA;
+import org.vesalainen.grammar.state.DFAState;
+import org.vesalainen.grammar.state.NFA;
+import org.vesalainen.grammar.state.NFAState;
+import org.vesalainen.grammar.state.Scope;
+
+/**
+ *
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+public class DFACompilerTest
+{
+    
+    public DFACompilerTest()
+    {
+    }
+
+    @Test
+    public void testIsSkipping()
+    {
+        DFA<Integer> dfa = createDFA("[ ]+", "[a-z]+");
+        MatchCompiler<Integer> mc = new MatchCompiler<>(dfa, -1, 0);
+        DFAState<Integer> root = dfa.getRoot();
+        DFAState<Integer> space = root.transit(' ');
+        DFAState<Integer> letter = root.transit('a');
+        assertFalse(mc.isSkipping(space));
+        mc.setSkipping((token)->token == 1);
+        assertTrue(mc.isSkipping(space));
+        assertFalse(mc.isSkipping(letter));
+        assertFalse(mc.isSkipping(root));
+        mc.setSkipping((token)->false);
+        assertFalse(mc.isSkipping(space));
+    }
+    @Test
+    public void testIsSkippingReachable()
+    {
+        // space run can still end as token 2
+        DFA<Integer> dfa = createDFA("[ ]+", "[ ]+x");
+        MatchCompiler<Integer> mc = new MatchCompiler<>(dfa, -1, 0);
+        mc.setSkipping((token)->token == 1);
+        DFAState<Integer> space = dfa.getRoot().transit(' ');
+        assertFalse(mc.isSkipping(space));
+        assertFalse(mc.isSkipping(space.transit('x')));
+    }
+    /**
+     * Creates DFA where expressions[i] token is i+1
+     * @param expressions
+     * @return 
+     */
+    private static DFA<Integer> createDFA(String... expressions)
+    {
+        Scope<NFAState<Integer>> nfaScope = new Scope<>("DFACompilerTest");
+        NFA<Integer> nfa = null;
+        for (int ii=0;ii<expressions.length;ii++)
+        {
+            NFA<Integer> n = Regex.createNFA(nfaScope, expressions[ii], ii+1);
+            if (nfa == null)
+            {
+                nfa = n;
+            }
+            else
+            {
+                nfa = new NFA<>(nfaScope, nfa, n);
+            }
+        }
+        DFA<Integer> dfa = nfa.constructDFA(new Scope<DFAState<Integer>>("DFACompilerTest"));
+        for (DFAState<Integer> s : dfa)
+        {
+            s.createFastMap();
+        }
+        return dfa;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2026 Timo Vesalainen <timo.vesalainen@iki.fi>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.vesalainen.regex;
+
+import java.io.IOException;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.vesalainen.grammar.state.DFA;
+import org.vesalainen.parser.util.Input;
+import org.vesalainen.parser.util.InputReader;
+
+/**
+ *
+ * @author Timo Vesalainen <timo.vesalainen@iki.fi>
+ */
+public class DFATableTest
+{
+    
+    public DFATableTest()
+    {
+    }
+
+    @Test
+    public void testMatch() throws IOException
+    {
+        DFA<Integer> dfa = Regex.createDFA("[0-9]+|abc", 1);
+        DFATable table = DFATable.decode(DFATable.encode(dfa, -1, 0));
+        InputReader reader = Input.getInstance("123abcx");
+        assertEquals(1, table.matchInt(reader));
+        assertEquals("123", reader.getString());
+        reader.clear();
+        assertEquals(1, table.matchInt(reader));
+        assertEquals("abc", reader.getString());
+        reader.clear();
+        assertEquals(-1, table.matchInt(reader));
+        reader.clear();
+        assertEquals(0, table.matchInt(reader));
+    }
+    @Test
+    public void testMinimized() throws IOException
+    {
+        DFA<Integer> dfa = Regex.createDFA("ac|bc", 1);
+        assertTrue(dfa.getUnminimizedSize() > dfa.initialSize());
+        assertEquals(3, dfa.initialSize());
+        DFATable table = DFATable.decode(DFATable.encode(dfa, -1, 0));
+        assertEquals(1, table.matchInt(Input.getInstance("bc")));
+        assertEquals(-1, table.matchInt(Input.getInstance("cc")));
+    }
+    
+}
@@ -19,6 +19,8 @@ package org.vesalainen.regex;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.junit.Test;
+import org.vesalainen.grammar.state.DFA;
+import org.vesalainen.grammar.state.DFAState;
 import static org.junit.Assert.*;
 import org.vesalainen.regex.Regex.Option;
 
@@ -69,5 +71,33 @@ public class RegexMatcherTest
         assertTrue("audio/*; q=0.2".contentEquals(list.get(0)));
         assertTrue("audio/basic".contentEquals(list.get(1)));
     }
+    @Test
+    public void testMatchNonLatin()
+    {
+        RegexMatcher rm = new RegexMatcher().addExpression("\u00e4l\u00e4[\u4e00-\u9fff]+x", 1).addExpression("abc", 2).compile();
+        assertEquals(1, rm.match("\u00e4l\u00e4\u4e2d\u6587x"));
+        assertEquals(2, rm.match("abc"));
+        assertNull(rm.match("\u00e4l\u00e4ax"));
+    }
+    @Test
+    public void testSubclassDFA()
+    {
+        DFAMatcher rm = new DFAMatcher();
+        rm.addExpression("ab+", 1).compile();
+        assertNotNull(rm.getDFA());
+        assertSame(rm.getDFA().getRoot(), rm.getRoot());
+        assertEquals(Integer.valueOf(1), rm.match("abb"));
+    }
+    private static class DFAMatcher extends RegexMatcher<Integer>
+    {
+        private DFA<Integer> getDFA()
+        {
+            return dfa;
+        }
+        private DFAState<Integer> getRoot()
+        {
+            return root;
+        }
+    }
     
 }